@@ -17,10 +17,13 @@
 
 package com.tom_roush.pdfbox;
 
+import android.util.Log;
+
 import com.tom_roush.pdfbox.io.IOUtils;
 import com.tom_roush.pdfbox.io.RandomAccessRead;
 import com.tom_roush.pdfbox.io.RandomAccessReadBuffer;
 import com.tom_roush.pdfbox.io.RandomAccessReadBufferedFile;
+import com.tom_roush.pdfbox.io.RandomAccessReadMemoryMappedFile;
 import com.tom_roush.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
 import com.tom_roush.pdfbox.pdfparser.FDFParser;
 import com.tom_roush.pdfbox.pdfparser.PDFParser;
@@ -34,6 +37,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.Executor;
 
 /**
  * Utility methods to load different types of documents
@@ -241,8 +245,8 @@ public class Loader
     /**
      * Parses a PDF. Unrestricted main memory will be used for buffering PDF streams.
      * 
-     * @param file file to be loaded. {@link org.apache.pdfbox.io.RandomAccessReadBufferedFile} is used to read the
-     * file.
+     * @param file file to be loaded. {@link com.tom_roush.pdfbox.io.RandomAccessReadMemoryMappedFile} is used to read
+     * the file, {@link com.tom_roush.pdfbox.io.RandomAccessReadBufferedFile} if the file can't be mapped.
      * 
      * @return loaded document
      * 
@@ -264,8 +268,8 @@ public class Loader
     /**
      * Parses a PDF.
      * 
-     * @param file file to be loaded. {@link org.apache.pdfbox.io.RandomAccessReadBufferedFile} is used to read the
-     * file.
+     * @param file file to be loaded. {@link com.tom_roush.pdfbox.io.RandomAccessReadMemoryMappedFile} is used to read
+     * the file, {@link com.tom_roush.pdfbox.io.RandomAccessReadBufferedFile} if the file can't be mapped.
      * @param streamCacheCreateFunction a function to create an instance of a stream cache to be used for buffering
      * new/altered PDF streams
      * 
@@ -283,8 +287,8 @@ public class Loader
     /**
      * Parses a PDF. Unrestricted main memory will be used for buffering PDF streams.
      * 
-     * @param file file to be loaded. {@link org.apache.pdfbox.io.RandomAccessReadBufferedFile} is used to read the
-     * file.
+     * @param file file to be loaded. {@link com.tom_roush.pdfbox.io.RandomAccessReadMemoryMappedFile} is used to read
+     * the file, {@link com.tom_roush.pdfbox.io.RandomAccessReadBufferedFile} if the file can't be mapped.
      * @param password password to be used for decryption
      * 
      * @return loaded document
@@ -300,8 +304,8 @@ public class Loader
     /**
      * Parses a PDF.
      * 
-     * @param file file to be loaded. {@link org.apache.pdfbox.io.RandomAccessReadBufferedFile} is used to read the
-     * file.
+     * @param file file to be loaded. {@link com.tom_roush.pdfbox.io.RandomAccessReadMemoryMappedFile} is used to read
+     * the file, {@link com.tom_roush.pdfbox.io.RandomAccessReadBufferedFile} if the file can't be mapped.
      * @param password password to be used for decryption
      * @param streamCacheCreateFunction a function to create an instance of a stream cache to be used for buffering
      * new/altered PDF streams
@@ -321,8 +325,8 @@ public class Loader
     /**
      * Parses a PDF. Unrestricted main memory will be used for buffering PDF streams.
      * 
-     * @param file file to be loaded. {@link org.apache.pdfbox.io.RandomAccessReadBufferedFile} is used to read the
-     * file.
+     * @param file file to be loaded. {@link com.tom_roush.pdfbox.io.RandomAccessReadMemoryMappedFile} is used to read
+     * the file, {@link com.tom_roush.pdfbox.io.RandomAccessReadBufferedFile} if the file can't be mapped.
      * @param password password to be used for decryption
      * @param keyStore key store to be used for decryption when using public key security
      * @param alias alias to be used for decryption when using public key security
@@ -340,8 +344,8 @@ public class Loader
     /**
      * Parses a PDF.
      * 
-     * @param file file to be loaded. {@link org.apache.pdfbox.io.RandomAccessReadBufferedFile} is used to read the
-     * file.
+     * @param file file to be loaded. {@link com.tom_roush.pdfbox.io.RandomAccessReadMemoryMappedFile} is used to read
+     * the file, {@link com.tom_roush.pdfbox.io.RandomAccessReadBufferedFile} if the file can't be mapped.
      * @param password password to be used for decryption
      * @param keyStore key store to be used for decryption when using public key security
      * @param alias alias to be used for decryption when using public key security
@@ -354,13 +358,78 @@ public class Loader
      */
     public static PDDocument loadPDF(File file, String password, InputStream keyStore, String alias,
             StreamCacheCreateFunction streamCacheCreateFunction) throws IOException
+    {
+        return Loader.loadPDF(file, password, keyStore, alias, streamCacheCreateFunction, null);
+    }
+
+    /**
+     * Parses a PDF. All object streams are decompressed and parsed in parallel using the given executor while loading
+     * the document.
+     * 
+     * @param file file to be loaded. {@link com.tom_roush.pdfbox.io.RandomAccessReadMemoryMappedFile} is used to read
+     * the file, {@link com.tom_roush.pdfbox.io.RandomAccessReadBufferedFile} if the file can't be mapped.
+     * @param password password to be used for decryption
+     * @param keyStore key store to be used for decryption when using public key security
+     * @param alias alias to be used for decryption when using public key security
+     * @param streamCacheCreateFunction a function to create an instance of a stream cache to be used for buffering
+     * new/altered PDF streams
+     * @param objectStreamPrefetchExecutor executor used to pre-fetch the object streams, null to parse them on demand
+     * 
+     * @return loaded document
+     * 
+     * @throws IOException in case of a file reading or parsing error
+     */
+    public static PDDocument loadPDF(File file, String password, InputStream keyStore, String alias,
+            StreamCacheCreateFunction streamCacheCreateFunction, Executor objectStreamPrefetchExecutor)
+            throws IOException
     {
         RandomAccessRead raFile = null;
         try
         {
             // RandomAccessRead is not closed here, may be needed for signing
-            raFile = new RandomAccessReadBufferedFile(file);
-            return Loader.loadPDF(raFile, password, keyStore, alias, streamCacheCreateFunction);
+            raFile = createRandomAccessRead(file);
+            return Loader.loadPDF(raFile, password, keyStore, alias, streamCacheCreateFunction,
+                    objectStreamPrefetchExecutor);
+        }
+        catch (IOException ioe)
+        {
+            IOUtils.closeQuietly(raFile);
+            throw ioe;
+        }
+    }
+
+    /**
+     * Parses a PDF. At most the given number of decompressed object streams is kept in memory, the least recently used
+     * object stream is parsed again if one of its objects is needed later. If an executor is given, all object streams
+     * are decompressed and parsed in parallel while loading the document, only the most recently parsed ones are kept
+     * then.
+     * 
+     * @param file file to be loaded. {@link com.tom_roush.pdfbox.io.RandomAccessReadMemoryMappedFile} is used to read
+     * the file, {@link com.tom_roush.pdfbox.io.RandomAccessReadBufferedFile} if the file can't be mapped.
+     * @param password password to be used for decryption
+     * @param keyStore key store to be used for decryption when using public key security
+     * @param alias alias to be used for decryption when using public key security
+     * @param streamCacheCreateFunction a function to create an instance of a stream cache to be used for buffering
+     * new/altered PDF streams
+     * @param objectStreamPrefetchExecutor executor used to pre-fetch the object streams, null to parse them on demand
+     * @param objectStreamCacheSize the maximum number of decompressed object streams, a value less than 1 to keep all
+     * object streams
+     * 
+     * @return loaded document
+     * 
+     * @throws IOException in case of a file reading or parsing error
+     */
+    public static PDDocument loadPDF(File file, String password, InputStream keyStore, String alias,
+            StreamCacheCreateFunction streamCacheCreateFunction, Executor objectStreamPrefetchExecutor,
+            int objectStreamCacheSize) throws IOException
+    {
+        RandomAccessRead raFile = null;
+        try
+        {
+            // RandomAccessRead is not closed here, may be needed for signing
+            raFile = createRandomAccessRead(file);
+            return Loader.loadPDF(raFile, password, keyStore, alias, streamCacheCreateFunction,
+                    objectStreamPrefetchExecutor, objectStreamCacheSize);
         }
         catch (IOException ioe)
         {
@@ -369,6 +438,28 @@ public class Loader
         }
     }
 
+    /**
+     * Creates a random access read for the given file. The file is memory mapped so that its content isn't copied
+     * page by page to the java heap. If mapping fails, e.g. due to a lack of address space, a buffered file is used
+     * instead.
+     * 
+     * @param file the file to be read
+     * @return the random access read for the given file
+     * @throws IOException if the file can't be read
+     */
+    private static RandomAccessRead createRandomAccessRead(File file) throws IOException
+    {
+        try
+        {
+            return new RandomAccessReadMemoryMappedFile(file);
+        }
+        catch (IOException e)
+        {
+            Log.w("PdfBox-Android", "Couldn't map " + file + ", falling back to buffered reading", e);
+            return new RandomAccessReadBufferedFile(file);
+        }
+    }
+
     /**
      * Parses a PDF. Unrestricted main memory will be used for buffering PDF new streams.
      * 
@@ -481,9 +572,66 @@ public class Loader
     public static PDDocument loadPDF(RandomAccessRead randomAccessRead, String password,
             InputStream keyStore, String alias, StreamCacheCreateFunction streamCacheCreateFunction)
             throws IOException
+    {
+        return Loader.loadPDF(randomAccessRead, password, keyStore, alias, streamCacheCreateFunction, null);
+    }
+
+    /**
+     * Parses a PDF. All object streams are decompressed and parsed in parallel using the given executor while loading
+     * the document.
+     * 
+     * @param randomAccessRead random access read representing the pdf to be loaded. To pass an
+     * InputStream, wrap it into a {@link RandomAccessReadBuffer}.
+     * @param password password to be used for decryption
+     * @param keyStore key store to be used for decryption when using public key security
+     * @param alias alias to be used for decryption when using public key security
+     * @param streamCacheCreateFunction a function to create an instance of a stream cache to be used for buffering
+     * new/altered PDF streams
+     * @param objectStreamPrefetchExecutor executor used to pre-fetch the object streams, null to parse them on demand
+     * 
+     * @return loaded document
+     * 
+     * @throws IOException in case of a file reading or parsing error
+     */
+    public static PDDocument loadPDF(RandomAccessRead randomAccessRead, String password,
+            InputStream keyStore, String alias, StreamCacheCreateFunction streamCacheCreateFunction,
+            Executor objectStreamPrefetchExecutor) throws IOException
+    {
+        PDFParser parser = new PDFParser(randomAccessRead, password, keyStore, alias,
+                streamCacheCreateFunction);
+        parser.setObjectStreamPrefetchExecutor(objectStreamPrefetchExecutor);
+        return parser.parse();
+    }
+
+    /**
+     * Parses a PDF. At most the given number of decompressed object streams is kept in memory, the least recently used
+     * object stream is parsed again if one of its objects is needed later. If an executor is given, all object streams
+     * are decompressed and parsed in parallel while loading the document, only the most recently parsed ones are kept
+     * then.
+     * 
+     * @param randomAccessRead random access read representing the pdf to be loaded. To pass an
+     * InputStream, wrap it into a {@link RandomAccessReadBuffer}.
+     * @param password password to be used for decryption
+     * @param keyStore key store to be used for decryption when using public key security
+     * @param alias alias to be used for decryption when using public key security
+     * @param streamCacheCreateFunction a function to create an instance of a stream cache to be used for buffering
+     * new/altered PDF streams
+     * @param objectStreamPrefetchExecutor executor used to pre-fetch the object streams, null to parse them on demand
+     * @param objectStreamCacheSize the maximum number of decompressed object streams, a value less than 1 to keep all
+     * object streams
+     * 
+     * @return loaded document
+     * 
+     * @throws IOException in case of a file reading or parsing error
+     */
+    public static PDDocument loadPDF(RandomAccessRead randomAccessRead, String password,
+            InputStream keyStore, String alias, StreamCacheCreateFunction streamCacheCreateFunction,
+            Executor objectStreamPrefetchExecutor, int objectStreamCacheSize) throws IOException
     {
         PDFParser parser = new PDFParser(randomAccessRead, password, keyStore, alias,
                 streamCacheCreateFunction);
+        parser.setObjectStreamCacheSize(objectStreamCacheSize);
+        parser.setObjectStreamPrefetchExecutor(objectStreamPrefetchExecutor);
         return parser.parse();
     }
 
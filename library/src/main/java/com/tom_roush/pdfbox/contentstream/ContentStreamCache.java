@@ -0,0 +1,424 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.contentstream;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.tom_roush.pdfbox.contentstream.operator.OperandStack;
+import com.tom_roush.pdfbox.contentstream.operator.Operator;
+import com.tom_roush.pdfbox.cos.COSBase;
+import com.tom_roush.pdfbox.cos.COSFloat;
+import com.tom_roush.pdfbox.cos.COSName;
+import com.tom_roush.pdfbox.cos.COSString;
+import com.tom_roush.pdfbox.pdfparser.PDFStreamParser;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.common.COSObjectable;
+
+/**
+ * A cache of parsed content streams, so that a page or form which is processed more than once, e.g. rendered and
+ * then searched for text, or a form used on every page, is decompressed and parsed only once.
+ *
+ * <p>The operators are kept in a compact form, numbers are stored as primitive values. The cache is keyed by the
+ * identity of the content stream, i.e. the {@code COSStream} of a form or the contents of a page, and is bounded by
+ * the estimated size of the cached streams, the least recently used streams are evicted first. A stream is only cached
+ * after it was processed completely without any error.</p>
+ *
+ * <p>The cache isn't informed about changes of a stream, streams which are changed after they were processed have to
+ * be removed using {@link #remove(COSBase)} or {@link #clear()}. A cache must only be used for the streams of a single
+ * document, it can be shared by several threads.</p>
+ *
+ * @see PDFStreamEngine#setContentStreamCache(ContentStreamCache)
+ * @see com.tom_roush.pdfbox.pdmodel.PDDocument#setContentStreamCache(ContentStreamCache)
+ */
+public final class ContentStreamCache
+{
+    private static final byte OBJECT = 0;
+    private static final byte INTEGER = 1;
+    private static final byte REAL = 2;
+
+    // estimated sizes in bytes
+    private static final int OPERATOR_SIZE = 12;
+    private static final int NUMBER_SIZE = 5;
+    private static final int OBJECT_SIZE = 48;
+    private static final int STREAM_SIZE = 96;
+
+    // integers below this value can be stored as float without losing precision
+    private static final float MAX_EXACT_INTEGER = 1 << 24;
+
+    private final long maxSize;
+    private long size = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    private final Map<COSBase, TokenizedStream> streams = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum estimated size of all cached streams in bytes
+     */
+    public ContentStreamCache(long maxSize)
+    {
+        if (maxSize < 1)
+        {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the maximum estimated size of all cached streams.
+     *
+     * @return the maximum size in bytes
+     */
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Returns the estimated size of all cached streams.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the number of streams processed using the cached operators.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of streams which had to be parsed.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Removes the given content stream from the cache, e.g. after it was changed.
+     *
+     * @param contentStream the {@code COSStream} of a form or the contents of a page
+     */
+    public synchronized void remove(COSBase contentStream)
+    {
+        TokenizedStream removed = streams.remove(contentStream);
+        if (removed != null)
+        {
+            size -= removed.size;
+        }
+    }
+
+    /**
+     * Removes all streams from the cache.
+     */
+    public synchronized void clear()
+    {
+        streams.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns a reader for the operators of the given content stream. Cached operators are replayed, otherwise the
+     * stream is parsed and added to the cache when the last operator was read.
+     *
+     * @param contentStream the content stream to be read
+     * @return the reader for the operators of the content stream
+     * @throws IOException if the content stream could not be read
+     */
+    OperatorReader openReader(PDContentStream contentStream) throws IOException
+    {
+        COSBase key = getKey(contentStream);
+        if (key == null)
+        {
+            return new PDFStreamParser(contentStream)::parseNextOperator;
+        }
+        TokenizedStream cached;
+        synchronized (this)
+        {
+            cached = streams.get(key);
+            if (cached != null)
+            {
+                hits++;
+            }
+            else
+            {
+                misses++;
+            }
+        }
+        return cached != null ? new Replay(cached) : new Recorder(key, new PDFStreamParser(contentStream));
+    }
+
+    private static COSBase getKey(PDContentStream contentStream)
+    {
+        if (contentStream instanceof PDPage)
+        {
+            // the page dictionary isn't used, as the contents may be replaced
+            return ((PDPage) contentStream).getCOSObject().getDictionaryObject(COSName.CONTENTS);
+        }
+        if (contentStream instanceof COSObjectable)
+        {
+            return ((COSObjectable) contentStream).getCOSObject();
+        }
+        return null;
+    }
+
+    private synchronized void put(COSBase key, TokenizedStream stream)
+    {
+        if (stream.size > maxSize)
+        {
+            return;
+        }
+        TokenizedStream previous = streams.put(key, stream);
+        if (previous != null)
+        {
+            size -= previous.size;
+        }
+        size += stream.size;
+        Iterator<TokenizedStream> iterator = streams.values().iterator();
+        while (size > maxSize && iterator.hasNext())
+        {
+            size -= iterator.next().size;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Reads the operators of a content stream.
+     */
+    @FunctionalInterface
+    interface OperatorReader
+    {
+        /**
+         * Pushes the operands of the next operator to the given stack and returns the operator.
+         *
+         * @param operands the stack to push the operands to
+         * @return the next operator or null if there are no more operators
+         * @throws IOException if the content stream could not be read
+         */
+        Operator read(OperandStack operands) throws IOException;
+    }
+
+    /**
+     * The operators of a content stream, the operands of all operators are stored one after another.
+     */
+    private static final class TokenizedStream
+    {
+        private final Operator[] operators;
+        private final int[] operandEnds;
+        private final byte[] types;
+        private final float[] numbers;
+        private final COSBase[] objects;
+        private final long size;
+
+        private TokenizedStream(Operator[] operators, int[] operandEnds, byte[] types, float[] numbers,
+                COSBase[] objects, long size)
+        {
+            this.operators = operators;
+            this.operandEnds = operandEnds;
+            this.types = types;
+            this.numbers = numbers;
+            this.objects = objects;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Replays the operators of a cached stream.
+     */
+    private static final class Replay implements OperatorReader
+    {
+        private final TokenizedStream stream;
+        private int operatorIndex = 0;
+        private int operandIndex = 0;
+        private int numberIndex = 0;
+        private int objectIndex = 0;
+
+        private Replay(TokenizedStream stream)
+        {
+            this.stream = stream;
+        }
+
+        @Override
+        public Operator read(OperandStack operands)
+        {
+            if (operatorIndex == stream.operators.length)
+            {
+                return null;
+            }
+            int end = stream.operandEnds[operatorIndex];
+            for (; operandIndex < end; operandIndex++)
+            {
+                switch (stream.types[operandIndex])
+                {
+                    case INTEGER:
+                        operands.pushInteger((long) stream.numbers[numberIndex++]);
+                        break;
+                    case REAL:
+                        operands.pushReal(stream.numbers[numberIndex++]);
+                        break;
+                    default:
+                        operands.add(stream.objects[objectIndex++]);
+                        break;
+                }
+            }
+            return stream.operators[operatorIndex++];
+        }
+    }
+
+    /**
+     * Parses a stream and records its operators, which are added to the cache after the last one was read.
+     */
+    private final class Recorder implements OperatorReader
+    {
+        private final COSBase key;
+        private final PDFStreamParser parser;
+        private Operator[] operators = new Operator[64];
+        private int[] operandEnds = new int[64];
+        private byte[] types = new byte[128];
+        private float[] numbers = new float[128];
+        private COSBase[] objects = new COSBase[16];
+        private int operatorCount = 0;
+        private int operandCount = 0;
+        private int numberCount = 0;
+        private int objectCount = 0;
+        private long estimatedSize = STREAM_SIZE;
+
+        private Recorder(COSBase key, PDFStreamParser parser)
+        {
+            this.key = key;
+            this.parser = parser;
+        }
+
+        @Override
+        public Operator read(OperandStack operands) throws IOException
+        {
+            Operator operator = parser.parseNextOperator(operands);
+            if (operator == null)
+            {
+                if (estimatedSize <= maxSize)
+                {
+                    put(key, new TokenizedStream(Arrays.copyOf(operators, operatorCount),
+                            Arrays.copyOf(operandEnds, operatorCount), Arrays.copyOf(types, operandCount),
+                            Arrays.copyOf(numbers, numberCount), Arrays.copyOf(objects, objectCount),
+                            estimatedSize));
+                }
+                return null;
+            }
+            if (estimatedSize <= maxSize)
+            {
+                record(operator, operands);
+            }
+            return operator;
+        }
+
+        private void record(Operator operator, OperandStack operands)
+        {
+            for (int i = 0; i < operands.size(); i++)
+            {
+                if (!operands.isPrimitive(i))
+                {
+                    // keep parsed numbers as they are, e.g. reals with their original string
+                    addObject(operands.get(i));
+                }
+                else if (operands.isInstance(i, COSFloat.class))
+                {
+                    addNumber(REAL, operands.getFloat(i));
+                }
+                else if (Math.abs(operands.getFloat(i)) < MAX_EXACT_INTEGER)
+                {
+                    addNumber(INTEGER, operands.getFloat(i));
+                }
+                else
+                {
+                    addObject(operands.get(i));
+                }
+            }
+            if (operatorCount == operators.length)
+            {
+                operators = Arrays.copyOf(operators, operatorCount * 2);
+                operandEnds = Arrays.copyOf(operandEnds, operatorCount * 2);
+            }
+            operators[operatorCount] = operator;
+            operandEnds[operatorCount++] = operandCount;
+            estimatedSize += OPERATOR_SIZE;
+            if (operator.getImageData() != null)
+            {
+                estimatedSize += operator.getImageData().length;
+            }
+            if (estimatedSize > maxSize)
+            {
+                // too large to be cached, don't keep the recorded operators
+                operators = null;
+                operandEnds = null;
+                types = null;
+                numbers = null;
+                objects = null;
+            }
+        }
+
+        private void addNumber(byte type, float value)
+        {
+            addType(type);
+            if (numberCount == numbers.length)
+            {
+                numbers = Arrays.copyOf(numbers, numberCount * 2);
+            }
+            numbers[numberCount++] = value;
+            estimatedSize += NUMBER_SIZE;
+        }
+
+        private void addObject(COSBase object)
+        {
+            addType(OBJECT);
+            if (objectCount == objects.length)
+            {
+                objects = Arrays.copyOf(objects, objectCount * 2);
+            }
+            objects[objectCount++] = object;
+            estimatedSize += OBJECT_SIZE;
+            if (object instanceof COSString)
+            {
+                estimatedSize += ((COSString) object).getBytes().length;
+            }
+        }
+
+        private void addType(byte type)
+        {
+            if (operandCount == types.length)
+            {
+                types = Arrays.copyOf(types, operandCount * 2);
+            }
+            types[operandCount++] = type;
+        }
+    }
+}
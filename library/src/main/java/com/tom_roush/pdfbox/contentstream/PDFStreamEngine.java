@@ -25,7 +25,6 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +32,7 @@ import java.util.Map;
 import java.util.zip.DataFormatException;
 
 import com.tom_roush.pdfbox.contentstream.operator.MissingOperandException;
+import com.tom_roush.pdfbox.contentstream.operator.OperandStack;
 import com.tom_roush.pdfbox.contentstream.operator.Operator;
 import com.tom_roush.pdfbox.contentstream.operator.OperatorName;
 import com.tom_roush.pdfbox.contentstream.operator.OperatorProcessor;
@@ -95,6 +95,9 @@ public abstract class PDFStreamEngine
     // false in certain cases, e.g. type3 charprocs with d1 or uncolored tiling patterns
     private boolean shouldProcessColorOperators;
 
+    // optional cache of parsed content streams
+    private ContentStreamCache contentStreamCache;
+
     /**
      * Creates a new PDFStreamEngine.
      */
@@ -112,6 +115,26 @@ public abstract class PDFStreamEngine
         operators.put(op.getName(), op);
     }
 
+    /**
+     * Sets the cache to be used to replay content streams which were processed before instead of parsing them again.
+     *
+     * @param contentStreamCache the cache of the document to be processed, or null to parse all streams
+     */
+    public void setContentStreamCache(ContentStreamCache contentStreamCache)
+    {
+        this.contentStreamCache = contentStreamCache;
+    }
+
+    /**
+     * Returns the cache used to replay content streams.
+     *
+     * @return the cache or null if none is used
+     */
+    public ContentStreamCache getContentStreamCache()
+    {
+        return contentStreamCache;
+    }
+
     /**
      * Initializes the stream engine for the given page.
      */
@@ -533,9 +556,11 @@ public abstract class PDFStreamEngine
      */
     private void processStreamOperators(PDContentStream contentStream) throws IOException
     {
-        List<COSBase> arguments = new ArrayList<>();
-        PDFStreamParser parser = new PDFStreamParser(contentStream);
-        Object token = parser.parseNextToken();
+        OperandStack arguments = new OperandStack();
+        ContentStreamCache.OperatorReader reader = contentStreamCache != null
+                ? contentStreamCache.openReader(contentStream)
+                : new PDFStreamParser(contentStream)::parseNextOperator;
+        Operator operator = reader.read(arguments);
 
         boolean isFirstOperator = true;
         boolean oldShouldProcessColorOperators = shouldProcessColorOperators;
@@ -547,24 +572,17 @@ public abstract class PDFStreamEngine
         }
         try
         {
-            while (token != null)
+            while (operator != null && !isProcessingCancelled())
             {
-                if (token instanceof Operator)
-                {
-                    if (isFirstOperator && contentStream instanceof PDType3CharProc &&
-                            OperatorName.TYPE3_D1.equals(((Operator) token).getName()))
-                    {
-                        shouldProcessColorOperators = false;
-                    }
-                    isFirstOperator = false;
-                    processOperator((Operator) token, arguments);
-                    arguments.clear();
-                }
-                else
+                if (isFirstOperator && contentStream instanceof PDType3CharProc &&
+                        OperatorName.TYPE3_D1.equals(operator.getName()))
                 {
-                    arguments.add((COSBase) token);
+                    shouldProcessColorOperators = false;
                 }
-                token = parser.parseNextToken();
+                isFirstOperator = false;
+                processOperator(operator, arguments);
+                arguments.clear();
+                operator = reader.read(arguments);
             }
         }
         finally
@@ -573,6 +591,18 @@ public abstract class PDFStreamEngine
         }
     }
 
+    /**
+     * Returns whether processing should stop, e.g. because a time budget is exhausted. This is
+     * checked before each operator, once it returns true the remaining operators of all content
+     * streams being processed are skipped. The default implementation returns false.
+     *
+     * @return true if the remaining operators are to be skipped
+     */
+    protected boolean isProcessingCancelled()
+    {
+        return false;
+    }
+
     /**
      * Pushes the given stream's resources, returning the previous resources.
      */
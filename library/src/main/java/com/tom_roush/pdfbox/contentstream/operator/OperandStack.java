@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.contentstream.operator;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import com.tom_roush.pdfbox.cos.COSBase;
+import com.tom_roush.pdfbox.cos.COSFloat;
+import com.tom_roush.pdfbox.cos.COSInteger;
+import com.tom_roush.pdfbox.cos.COSNumber;
+
+/**
+ * The operands of a content stream operator, numeric operands are kept as primitive values.
+ *
+ * <p>The stack is reused for all operators of a content stream. Numbers pushed using {@link #pushInteger(long)} or
+ * {@link #pushReal(float)} are only wrapped into a {@link COSNumber} if they are requested using {@link #get(int)},
+ * operator processors reading them using {@link #getFloat(int)} don't create any object at all.</p>
+ */
+public final class OperandStack extends AbstractList<COSBase> implements RandomAccess
+{
+    private static final byte OBJECT = 0;
+    private static final byte INTEGER = 1;
+    private static final byte REAL = 2;
+
+    private COSBase[] objects = new COSBase[16];
+    private byte[] types = new byte[16];
+    private long[] integers = new long[16];
+    private float[] reals = new float[16];
+    private int size = 0;
+
+    /**
+     * Pushes an integer operand.
+     *
+     * @param value the value of the operand
+     */
+    public void pushInteger(long value)
+    {
+        int index = grow();
+        types[index] = INTEGER;
+        integers[index] = value;
+        reals[index] = value;
+    }
+
+    /**
+     * Pushes a real operand.
+     *
+     * @param value the value of the operand
+     */
+    public void pushReal(float value)
+    {
+        int index = grow();
+        types[index] = REAL;
+        reals[index] = value;
+    }
+
+    /**
+     * Checks whether the operand at the given index is a number.
+     *
+     * @param index the index of the operand
+     * @return true if the operand is a number
+     */
+    public boolean isNumber(int index)
+    {
+        checkIndex(index);
+        return types[index] != OBJECT || objects[index] instanceof COSNumber;
+    }
+
+    /**
+     * Checks whether the operand at the given index is a number pushed as primitive value.
+     *
+     * @param index the index of the operand
+     * @return true if the operand is a primitive number
+     */
+    public boolean isPrimitive(int index)
+    {
+        checkIndex(index);
+        return types[index] != OBJECT;
+    }
+
+    /**
+     * Returns the value of a numeric operand without wrapping it into a {@link COSNumber}.
+     *
+     * @param index the index of the operand
+     * @return the float value of the operand
+     * @throws ClassCastException if the operand isn't a number
+     */
+    public float getFloat(int index)
+    {
+        checkIndex(index);
+        return types[index] == OBJECT ? ((COSNumber) objects[index]).floatValue() : reals[index];
+    }
+
+    /**
+     * Checks whether the operand at the given index is an instance of the given class, without wrapping a numeric
+     * operand.
+     *
+     * @param index the index of the operand
+     * @param clazz the expected class
+     * @return true if the operand is an instance of the given class
+     */
+    public boolean isInstance(int index, Class<?> clazz)
+    {
+        checkIndex(index);
+        switch (types[index])
+        {
+            case INTEGER:
+                return clazz.isAssignableFrom(COSInteger.class);
+            case REAL:
+                return clazz.isAssignableFrom(COSFloat.class);
+            default:
+                return clazz.isInstance(objects[index]);
+        }
+    }
+
+    @Override
+    public COSBase get(int index)
+    {
+        checkIndex(index);
+        COSBase object = objects[index];
+        if (object == null)
+        {
+            object = types[index] == INTEGER ? COSInteger.get(integers[index]) : new COSFloat(reals[index]);
+            objects[index] = object;
+        }
+        return object;
+    }
+
+    @Override
+    public COSBase set(int index, COSBase element)
+    {
+        COSBase previous = get(index);
+        objects[index] = element;
+        types[index] = OBJECT;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, COSBase element)
+    {
+        if (index < 0 || index > size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        grow();
+        int moved = size - 1 - index;
+        System.arraycopy(objects, index, objects, index + 1, moved);
+        System.arraycopy(types, index, types, index + 1, moved);
+        System.arraycopy(integers, index, integers, index + 1, moved);
+        System.arraycopy(reals, index, reals, index + 1, moved);
+        objects[index] = element;
+        types[index] = OBJECT;
+    }
+
+    @Override
+    public COSBase remove(int index)
+    {
+        COSBase previous = get(index);
+        int moved = size - 1 - index;
+        System.arraycopy(objects, index + 1, objects, index, moved);
+        System.arraycopy(types, index + 1, types, index, moved);
+        System.arraycopy(integers, index + 1, integers, index, moved);
+        System.arraycopy(reals, index + 1, reals, index, moved);
+        objects[--size] = null;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear()
+    {
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    private int grow()
+    {
+        if (size == objects.length)
+        {
+            int capacity = size * 2;
+            objects = Arrays.copyOf(objects, capacity);
+            types = Arrays.copyOf(types, capacity);
+            integers = Arrays.copyOf(integers, capacity);
+            reals = Arrays.copyOf(reals, capacity);
+        }
+        objects[size] = null;
+        modCount++;
+        return size++;
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
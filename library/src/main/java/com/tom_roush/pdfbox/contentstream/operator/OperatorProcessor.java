@@ -21,6 +21,7 @@ import java.util.List;
 
 import com.tom_roush.pdfbox.contentstream.PDFStreamEngine;
 import com.tom_roush.pdfbox.cos.COSBase;
+import com.tom_roush.pdfbox.cos.COSNumber;
 
 /**
  * Processes a PDF operator.
@@ -81,6 +82,52 @@ public abstract class OperatorProcessor
      */
     public boolean checkArrayTypesClass(List<COSBase> operands, Class<?> clazz)
     {
+        if (operands instanceof OperandStack)
+        {
+            // don't wrap primitive numbers just to check their type
+            OperandStack stack = (OperandStack) operands;
+            for (int i = 0; i < stack.size(); i++)
+            {
+                if (!stack.isInstance(i, clazz))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
         return operands.stream().allMatch(clazz::isInstance);
     }
+
+    /**
+     * Check whether the operand at the given index is a number.
+     *
+     * @param operands The operands list.
+     * @param index The index of the operand.
+     * @return true if the operand is an instance of {@link COSNumber}
+     */
+    protected static boolean isNumber(List<COSBase> operands, int index)
+    {
+        if (operands instanceof OperandStack)
+        {
+            return ((OperandStack) operands).isNumber(index);
+        }
+        return operands.get(index) instanceof COSNumber;
+    }
+
+    /**
+     * Returns the float value of a numeric operand. Primitive operands of an {@link OperandStack} are read without
+     * wrapping them into a {@link COSNumber}.
+     *
+     * @param operands The operands list.
+     * @param index The index of the operand, which has to be a number.
+     * @return the float value of the operand
+     */
+    protected static float floatValue(List<COSBase> operands, int index)
+    {
+        if (operands instanceof OperandStack)
+        {
+            return ((OperandStack) operands).getFloat(index);
+        }
+        return ((COSNumber) operands.get(index)).floatValue();
+    }
 }
@@ -52,17 +52,12 @@ public final class AppendRectangleToPath extends GraphicsOperatorProcessor
         {
             return;
         }
-        COSNumber x = (COSNumber) operands.get(0);
-        COSNumber y = (COSNumber) operands.get(1);
-        COSNumber w = (COSNumber) operands.get(2);
-        COSNumber h = (COSNumber) operands.get(3);
-
-        float x1 = x.floatValue();
-        float y1 = y.floatValue();
+        float x1 = floatValue(operands, 0);
+        float y1 = floatValue(operands, 1);
 
         // create a pair of coordinates for the transformation
-        float x2 = w.floatValue() + x1;
-        float y2 = h.floatValue() + y1;
+        float x2 = floatValue(operands, 2) + x1;
+        float y2 = floatValue(operands, 3) + y1;
 
         PDFGraphicsStreamEngine context = getGraphicsContext();
         PointF p0 = context.transformedPoint(x1, y1);
@@ -52,16 +52,11 @@ public final class CurveToReplicateFinalPoint extends GraphicsOperatorProcessor
         {
             return;
         }
-        COSNumber x1 = (COSNumber)operands.get(0);
-        COSNumber y1 = (COSNumber)operands.get(1);
-        COSNumber x3 = (COSNumber)operands.get(2);
-        COSNumber y3 = (COSNumber)operands.get(3);
-
         PDFGraphicsStreamEngine context = getGraphicsContext();
         PointF currentPoint = context.getCurrentPoint();
 
-        PointF point1 = context.transformedPoint(x1.floatValue(), y1.floatValue());
-        PointF point3 = context.transformedPoint(x3.floatValue(), y3.floatValue());
+        PointF point1 = context.transformedPoint(floatValue(operands, 0), floatValue(operands, 1));
+        PointF point3 = context.transformedPoint(floatValue(operands, 2), floatValue(operands, 3));
 
         if (currentPoint == null)
         {
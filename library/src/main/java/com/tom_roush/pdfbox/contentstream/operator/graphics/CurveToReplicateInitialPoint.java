@@ -52,16 +52,11 @@ public class CurveToReplicateInitialPoint extends GraphicsOperatorProcessor
         {
             return;
         }
-        COSNumber x2 = (COSNumber)operands.get(0);
-        COSNumber y2 = (COSNumber)operands.get(1);
-        COSNumber x3 = (COSNumber)operands.get(2);
-        COSNumber y3 = (COSNumber)operands.get(3);
-
         PDFGraphicsStreamEngine context = getGraphicsContext();
         PointF currentPoint = context.getCurrentPoint();
 
-        PointF point2 = context.transformedPoint(x2.floatValue(), y2.floatValue());
-        PointF point3 = context.transformedPoint(x3.floatValue(), y3.floatValue());
+        PointF point2 = context.transformedPoint(floatValue(operands, 0), floatValue(operands, 1));
+        PointF point3 = context.transformedPoint(floatValue(operands, 2), floatValue(operands, 3));
 
         if (currentPoint == null)
         {
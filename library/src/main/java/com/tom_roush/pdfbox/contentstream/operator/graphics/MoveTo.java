@@ -26,7 +26,6 @@ import com.tom_roush.pdfbox.contentstream.operator.MissingOperandException;
 import com.tom_roush.pdfbox.contentstream.operator.Operator;
 import com.tom_roush.pdfbox.contentstream.operator.OperatorName;
 import com.tom_roush.pdfbox.cos.COSBase;
-import com.tom_roush.pdfbox.cos.COSNumber;
 
 /**
  * m Begins a new subpath.
@@ -47,20 +46,12 @@ public final class MoveTo extends GraphicsOperatorProcessor
         {
             throw new MissingOperandException(operator, operands);
         }
-        COSBase base0 = operands.get(0);
-        if (!(base0 instanceof COSNumber))
+        if (!isNumber(operands, 0) || !isNumber(operands, 1))
         {
             return;
         }
-        COSBase base1 = operands.get(1);
-        if (!(base1 instanceof COSNumber))
-        {
-            return;
-        }
-        COSNumber x = (COSNumber) base0;
-        COSNumber y = (COSNumber) base1;
         PDFGraphicsStreamEngine context = getGraphicsContext();
-        PointF pos = context.transformedPoint(x.floatValue(), y.floatValue());
+        PointF pos = context.transformedPoint(floatValue(operands, 0), floatValue(operands, 1));
         context.moveTo(pos.x, pos.y);
     }
 
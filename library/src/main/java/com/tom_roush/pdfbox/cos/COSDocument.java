@@ -24,10 +24,10 @@ import com.tom_roush.pdfbox.io.RandomAccessStreamCache;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -47,13 +47,12 @@ public class COSDocument extends COSBase implements Closeable
      * are also stored in COSDictionary objects that map a name to a specific object.
      */
     private final Map<COSObjectKey, COSObject> objectPool =
-            new HashMap<>();
+            new ConcurrentHashMap<>();
 
     /**
      * Maps object and generation id to object byte offsets.
      */
-    private final Map<COSObjectKey, Long> xrefTable =
-            new HashMap<>();
+    private final CompactXrefTable xrefTable = new CompactXrefTable();
 
     /**
      * List containing all streams which are created when creating a new pdf.
@@ -508,6 +507,20 @@ public class COSDocument extends COSBase implements Closeable
         return obj;
     }
 
+    /**
+     * Tells whether the object with the given key was read already. Unlike {@link #getObjectFromPool(COSObjectKey)}
+     * this doesn't add a proxy to the pool for an unknown key.
+     *
+     * @param key The object key.
+     *
+     * @return true if the pool holds the parsed object, false if it wasn't read yet or was released
+     */
+    public boolean isObjectLoaded(COSObjectKey key)
+    {
+        COSObject obj = key != null ? objectPool.get(key) : null;
+        return obj != null && !obj.isObjectNull();
+    }
+
     /**
      * Populate XRef HashMap with given values.
      * Each entry maps ObjectKeys to byte offsets in the file.
@@ -599,4 +612,24 @@ public class COSDocument extends COSBase implements Closeable
         return documentState;
     }
 
+    /**
+     * Returns how many compressed objects of this document were taken from an already decompressed object stream.
+     *
+     * @return the number of cache hits of the parser, 0 if the document wasn't parsed
+     */
+    public long getObjectStreamCacheHits()
+    {
+        return parser != null ? parser.getObjectStreamCacheHits() : 0;
+    }
+
+    /**
+     * Returns how many compressed objects of this document required to decompress and parse their object stream.
+     *
+     * @return the number of cache misses of the parser, 0 if the document wasn't parsed
+     */
+    public long getObjectStreamCacheMisses()
+    {
+        return parser != null ? parser.getObjectStreamCacheMisses() : 0;
+    }
+
 }
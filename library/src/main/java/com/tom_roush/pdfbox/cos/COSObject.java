@@ -28,9 +28,9 @@ import java.io.IOException;
  */
 public class COSObject extends COSBase implements COSUpdateInfo
 {
-    private COSBase baseObject;
-    private ICOSParser parser;
-    private boolean isDereferenced = false;
+    private volatile COSBase baseObject;
+    private volatile ICOSParser parser;
+    private volatile boolean isDereferenced = false;
     private final COSUpdateState updateState;
 
     /**
@@ -71,7 +71,8 @@ public class COSObject extends COSBase implements COSUpdateInfo
         updateState = new COSUpdateState(this);
         baseObject = object;
         isDereferenced = object != null;
-        this.parser = parser;
+        // the parser is only needed to load the object on demand
+        this.parser = object != null ? null : parser;
     }
 
     /**
@@ -105,22 +106,32 @@ public class COSObject extends COSBase implements COSUpdateInfo
      */
     public COSBase getObject()
     {
-        if (!isDereferenced && parser != null)
+        ICOSParser p = parser;
+        if (p == null)
         {
-            try
-            {
-                // mark as dereferenced to avoid endless recursions
-                isDereferenced = true;
-                baseObject = parser.dereferenceCOSObject(this);
-                getUpdateState().dereferenceChild(baseObject);
-            }
-            catch (IOException e)
-            {
-                Log.e("PdfBox-Android", "Can't dereference " + this, e);
-            }
-            finally
+            return baseObject;
+        }
+        // synchronize on the parser, as it is used by all objects of the document. Other threads wait until the
+        // object was loaded, the loading thread itself gets null in case of an endless recursion
+        synchronized (p)
+        {
+            if (!isDereferenced && parser != null)
             {
-                parser = null;
+                try
+                {
+                    // mark as dereferenced to avoid endless recursions
+                    isDereferenced = true;
+                    baseObject = parser.dereferenceCOSObject(this);
+                    getUpdateState().dereferenceChild(baseObject);
+                }
+                catch (IOException e)
+                {
+                    Log.e("PdfBox-Android", "Can't dereference " + this, e);
+                }
+                finally
+                {
+                    parser = null;
+                }
             }
         }
         return baseObject;
@@ -139,6 +150,26 @@ public class COSObject extends COSBase implements COSUpdateInfo
         parser = null;
     }
 
+    /**
+     * Releases the referenced object, so that it is parsed again using the given parser if it is accessed later on.
+     * Objects which were changed after parsing them are kept as they can't be restored from the source.
+     *
+     * @param parser The parser to be used to load the object on demand
+     * @return true if the referenced object was released
+     */
+    public boolean unload(ICOSParser parser)
+    {
+        if (parser == null || getKey() == null || updateState.isUpdated()
+                || (baseObject instanceof COSUpdateInfo && ((COSUpdateInfo) baseObject).isNeedToBeUpdated()))
+        {
+            return false;
+        }
+        baseObject = null;
+        isDereferenced = false;
+        this.parser = parser;
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
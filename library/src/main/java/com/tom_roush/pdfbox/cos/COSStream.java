@@ -141,8 +141,8 @@ public class COSStream extends COSDictionary implements Closeable
         {
             if (randomAccessReadView != null)
             {
-                randomAccessReadView.seek(0);
-                return new RandomAccessInputStream(randomAccessReadView);
+                // the view of the current thread doesn't interfere with readers on other threads
+                return new RandomAccessInputStream(createSourceView());
             }
             else
             {
@@ -186,8 +186,7 @@ public class COSStream extends COSDictionary implements Closeable
         {
             if (randomAccess == null && randomAccessReadView != null)
             {
-                return new RandomAccessReadView(randomAccessReadView, 0,
-                        randomAccessReadView.length());
+                return createSourceView();
             }
             else
             {
@@ -197,6 +196,15 @@ public class COSStream extends COSDictionary implements Closeable
         return Filter.decode(createRawInputStream(), filterList, this, DecodeOptions.DEFAULT, null);
     }
 
+    /**
+     * Creates a view of the stream data within the source of the document. The views of the source are created per
+     * thread, so that several threads may read the stream without any locking.
+     */
+    private RandomAccessReadView createSourceView() throws IOException
+    {
+        return randomAccessReadView.createView(0, randomAccessReadView.length());
+    }
+
     /**
      * Returns a new OutputStream for writing stream data, using the current filters.
      *
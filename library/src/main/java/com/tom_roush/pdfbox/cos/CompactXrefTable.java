@@ -0,0 +1,425 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.cos;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A memory efficient map of object keys to byte offsets (or the negated object number of the object stream holding
+ * the object) as used for cross reference tables.
+ *
+ * <p>The entries are stored in primitive arrays sorted by the internal hash of the object key (object number and
+ * generation), so that no {@link COSObjectKey} and {@link Long} instances are kept per entry. Keys and values are
+ * created on the fly when iterating over the map.</p>
+ *
+ * <p>Entries added in ascending order are appended to the sorted arrays. Other entries are collected in a small sorted
+ * buffer which is merged into the sorted arrays if it is full.</p>
+ *
+ * <p>This class isn't thread safe.</p>
+ */
+public class CompactXrefTable extends AbstractMap<COSObjectKey, Long>
+{
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_PENDING_CAPACITY = 64;
+    private static final long GENERATION_MASK = 0xFFFF;
+
+    // sorted entries
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private int[] streamIndexes = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // sorted entries added out of order, not yet merged
+    private long[] pendingKeys = new long[MIN_PENDING_CAPACITY];
+    private long[] pendingOffsets = new long[MIN_PENDING_CAPACITY];
+    private int[] pendingStreamIndexes = new int[MIN_PENDING_CAPACITY];
+    private int pendingSize = 0;
+
+    private Set<Map.Entry<COSObjectKey, Long>> entrySet;
+
+    /**
+     * Constructor.
+     */
+    public CompactXrefTable()
+    {
+    }
+
+    @Override
+    public int size()
+    {
+        return size + pendingSize;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return key instanceof COSObjectKey && containsKey(((COSObjectKey) key).getInternalHash());
+    }
+
+    /**
+     * Returns <code>true</code> if the map contains an entry for the given internal hash of an object key.
+     *
+     * @param internalHash the internal hash of the object key, see {@link COSObjectKey#getInternalHash()}
+     * @return true if there is an entry for the given key
+     */
+    public boolean containsKey(long internalHash)
+    {
+        return Arrays.binarySearch(keys, 0, size, internalHash) >= 0
+                || Arrays.binarySearch(pendingKeys, 0, pendingSize, internalHash) >= 0;
+    }
+
+    @Override
+    public Long get(Object key)
+    {
+        if (!(key instanceof COSObjectKey))
+        {
+            return null;
+        }
+        long internalHash = ((COSObjectKey) key).getInternalHash();
+        int index = Arrays.binarySearch(keys, 0, size, internalHash);
+        if (index >= 0)
+        {
+            return offsets[index];
+        }
+        index = Arrays.binarySearch(pendingKeys, 0, pendingSize, internalHash);
+        return index >= 0 ? pendingOffsets[index] : null;
+    }
+
+    /**
+     * Returns the object key for the given object and generation number including the index within the object stream
+     * if the key is part of this map.
+     *
+     * @param num the object number
+     * @param gen the generation number
+     * @return the object key or null if there isn't any entry for the given numbers
+     */
+    public COSObjectKey getObjectKey(long num, int gen)
+    {
+        long internalHash = COSObjectKey.computeInternalHash(num, gen);
+        int index = Arrays.binarySearch(keys, 0, size, internalHash);
+        if (index >= 0)
+        {
+            return new COSObjectKey(num, gen, streamIndexes[index]);
+        }
+        index = Arrays.binarySearch(pendingKeys, 0, pendingSize, internalHash);
+        return index >= 0 ? new COSObjectKey(num, gen, pendingStreamIndexes[index]) : null;
+    }
+
+    @Override
+    public Long put(COSObjectKey key, Long value)
+    {
+        return put(key.getInternalHash(), value, key.getStreamIndex());
+    }
+
+    private Long put(long internalHash, long value, int streamIndex)
+    {
+        int index = Arrays.binarySearch(keys, 0, size, internalHash);
+        if (index >= 0)
+        {
+            long oldValue = offsets[index];
+            offsets[index] = value;
+            streamIndexes[index] = streamIndex;
+            return oldValue;
+        }
+        if (pendingSize == 0 && -(index + 1) == size)
+        {
+            // the most common case, the entries are added in ascending order
+            ensureCapacity(size + 1);
+            keys[size] = internalHash;
+            offsets[size] = value;
+            streamIndexes[size] = streamIndex;
+            size++;
+            return null;
+        }
+        index = Arrays.binarySearch(pendingKeys, 0, pendingSize, internalHash);
+        if (index >= 0)
+        {
+            long oldValue = pendingOffsets[index];
+            pendingOffsets[index] = value;
+            pendingStreamIndexes[index] = streamIndex;
+            return oldValue;
+        }
+        index = -(index + 1);
+        int numMoved = pendingSize - index;
+        System.arraycopy(pendingKeys, index, pendingKeys, index + 1, numMoved);
+        System.arraycopy(pendingOffsets, index, pendingOffsets, index + 1, numMoved);
+        System.arraycopy(pendingStreamIndexes, index, pendingStreamIndexes, index + 1, numMoved);
+        pendingKeys[index] = internalHash;
+        pendingOffsets[index] = value;
+        pendingStreamIndexes[index] = streamIndex;
+        pendingSize++;
+        if (pendingSize == pendingKeys.length)
+        {
+            mergePending();
+        }
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends COSObjectKey, ? extends Long> map)
+    {
+        if (map instanceof CompactXrefTable)
+        {
+            // avoid the creation of key and value objects
+            CompactXrefTable other = (CompactXrefTable) map;
+            other.mergePending();
+            ensureCapacity(size + other.size);
+            for (int i = 0; i < other.size; i++)
+            {
+                put(other.keys[i], other.offsets[i], other.streamIndexes[i]);
+            }
+        }
+        else
+        {
+            super.putAll(map);
+        }
+    }
+
+    @Override
+    public Long remove(Object key)
+    {
+        if (!(key instanceof COSObjectKey))
+        {
+            return null;
+        }
+        long internalHash = ((COSObjectKey) key).getInternalHash();
+        int index = Arrays.binarySearch(keys, 0, size, internalHash);
+        if (index >= 0)
+        {
+            long oldValue = offsets[index];
+            removeAt(index);
+            return oldValue;
+        }
+        index = Arrays.binarySearch(pendingKeys, 0, pendingSize, internalHash);
+        if (index >= 0)
+        {
+            long oldValue = pendingOffsets[index];
+            int numMoved = pendingSize - index - 1;
+            System.arraycopy(pendingKeys, index + 1, pendingKeys, index, numMoved);
+            System.arraycopy(pendingOffsets, index + 1, pendingOffsets, index, numMoved);
+            System.arraycopy(pendingStreamIndexes, index + 1, pendingStreamIndexes, index, numMoved);
+            pendingSize--;
+            return oldValue;
+        }
+        return null;
+    }
+
+    private void removeAt(int index)
+    {
+        int numMoved = size - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, numMoved);
+        System.arraycopy(offsets, index + 1, offsets, index, numMoved);
+        System.arraycopy(streamIndexes, index + 1, streamIndexes, index, numMoved);
+        size--;
+    }
+
+    @Override
+    public void clear()
+    {
+        keys = new long[INITIAL_CAPACITY];
+        offsets = new long[INITIAL_CAPACITY];
+        streamIndexes = new int[INITIAL_CAPACITY];
+        size = 0;
+        pendingSize = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<COSObjectKey, Long>> entrySet()
+    {
+        if (entrySet == null)
+        {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private void ensureCapacity(int minCapacity)
+    {
+        if (minCapacity > keys.length)
+        {
+            int newCapacity = (int) Math.min(Math.max((long) keys.length * 3 / 2, minCapacity),
+                    Integer.MAX_VALUE - 8);
+            keys = Arrays.copyOf(keys, newCapacity);
+            offsets = Arrays.copyOf(offsets, newCapacity);
+            streamIndexes = Arrays.copyOf(streamIndexes, newCapacity);
+        }
+    }
+
+    /**
+     * Merges the pending entries into the sorted arrays. Both parts are sorted and don't share any key, so that they
+     * can be merged backwards in place.
+     */
+    private void mergePending()
+    {
+        if (pendingSize == 0)
+        {
+            return;
+        }
+        ensureCapacity(size + pendingSize);
+        int i = size - 1;
+        int j = pendingSize - 1;
+        int target = size + pendingSize - 1;
+        while (j >= 0)
+        {
+            if (i >= 0 && keys[i] > pendingKeys[j])
+            {
+                keys[target] = keys[i];
+                offsets[target] = offsets[i];
+                streamIndexes[target] = streamIndexes[i];
+                i--;
+            }
+            else
+            {
+                keys[target] = pendingKeys[j];
+                offsets[target] = pendingOffsets[j];
+                streamIndexes[target] = pendingStreamIndexes[j];
+                j--;
+            }
+            target--;
+        }
+        size += pendingSize;
+        pendingSize = 0;
+        // grow the buffer with the table to keep the number of merges low
+        int pendingCapacity = Math.max(MIN_PENDING_CAPACITY, (int) Math.sqrt(size));
+        if (pendingCapacity > pendingKeys.length)
+        {
+            pendingKeys = new long[pendingCapacity];
+            pendingOffsets = new long[pendingCapacity];
+            pendingStreamIndexes = new int[pendingCapacity];
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<COSObjectKey, Long>>
+    {
+        @Override
+        public Iterator<Map.Entry<COSObjectKey, Long>> iterator()
+        {
+            mergePending();
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size()
+        {
+            return CompactXrefTable.this.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            CompactXrefTable.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<COSObjectKey, Long>>
+    {
+        private int nextIndex = 0;
+        private int lastIndex = -1;
+
+        @Override
+        public boolean hasNext()
+        {
+            return nextIndex < size;
+        }
+
+        @Override
+        public Map.Entry<COSObjectKey, Long> next()
+        {
+            if (nextIndex >= size)
+            {
+                throw new NoSuchElementException();
+            }
+            lastIndex = nextIndex++;
+            return new Entry(lastIndex);
+        }
+
+        @Override
+        public void remove()
+        {
+            if (lastIndex < 0)
+            {
+                throw new IllegalStateException();
+            }
+            removeAt(lastIndex);
+            nextIndex = lastIndex;
+            lastIndex = -1;
+        }
+    }
+
+    private final class Entry implements Map.Entry<COSObjectKey, Long>
+    {
+        private final COSObjectKey key;
+        private final int index;
+
+        private Entry(int index)
+        {
+            this.index = index;
+            long internalHash = keys[index];
+            key = new COSObjectKey(internalHash >>> Short.SIZE, (int) (internalHash & GENERATION_MASK),
+                    streamIndexes[index]);
+        }
+
+        @Override
+        public COSObjectKey getKey()
+        {
+            return key;
+        }
+
+        @Override
+        public Long getValue()
+        {
+            return offsets[index];
+        }
+
+        @Override
+        public Long setValue(Long value)
+        {
+            long oldValue = offsets[index];
+            offsets[index] = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Map.Entry))
+            {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            return key.equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return key.hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -27,4 +27,24 @@ public interface ICOSParser
     RandomAccessReadView createRandomAccessReadView(long startPosition, long streamLength)
             throws IOException;
 
+    /**
+     * Returns how many compressed objects were taken from an already decompressed object stream.
+     *
+     * @return the number of cache hits, 0 if the parser doesn't cache object streams
+     */
+    default long getObjectStreamCacheHits()
+    {
+        return 0;
+    }
+
+    /**
+     * Returns how many compressed objects required to decompress and parse their object stream.
+     *
+     * @return the number of cache misses, 0 if the parser doesn't cache object streams
+     */
+    default long getObjectStreamCacheMisses()
+    {
+        return 0;
+    }
+
 }
\ No newline at end of file
@@ -25,6 +25,28 @@ import java.io.IOException;
  */
 public final class MemoryUsageSetting
 {
+    /**
+     * Policy deciding which pages are kept in main memory if the number of pages exceeds the
+     * main memory limit.
+     */
+    public enum PageEvictionPolicy
+    {
+        /**
+         * The pages allocated first are kept in main memory, all additional pages are stored in the
+         * temporary file.
+         */
+        FIXED,
+
+        /**
+         * The most recently used pages are kept in main memory, the least recently used page is
+         * written to the temporary file if the main memory limit is reached.
+         */
+        LEAST_RECENTLY_USED
+    }
+
+    /** default size of a single page in bytes */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+
     private final boolean useMainMemory;
     private final boolean useTempFile;
 
@@ -39,6 +61,14 @@ public final class MemoryUsageSetting
     /** directory to be used for scratch file */
     private File tempDir;
 
+    /** size of a single page in bytes */
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    /** if <code>true</code> main-memory pages are stored in direct buffers outside of the java heap */
+    private boolean useDirectMemory = false;
+
+    private PageEvictionPolicy pageEvictionPolicy = PageEvictionPolicy.FIXED;
+
     /**
      * Implementation of the function to create an instance of ScratchFile using the current settings.
      */
@@ -186,6 +216,51 @@ public final class MemoryUsageSetting
         return this;
     }
 
+    /**
+     * Sets the size of a single page used for buffering. Larger pages reduce the bookkeeping overhead
+     * for large streams, smaller ones reduce the memory wasted by small streams.
+     *
+     * @param pageSize the page size in bytes
+     *
+     * @return this instance
+     * @throws IllegalArgumentException if the page size isn't positive
+     */
+    public MemoryUsageSetting setPageSize(int pageSize)
+    {
+        if (pageSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid page size " + pageSize);
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Sets whether main-memory pages are stored in direct buffers outside of the java heap.
+     *
+     * @param useDirectMemory <code>true</code> to store pages in direct buffers
+     *
+     * @return this instance
+     */
+    public MemoryUsageSetting setUseDirectMemory(boolean useDirectMemory)
+    {
+        this.useDirectMemory = useDirectMemory;
+        return this;
+    }
+
+    /**
+     * Sets the policy deciding which pages are kept in main memory in mixed mode.
+     *
+     * @param pageEvictionPolicy the eviction policy to be used
+     *
+     * @return this instance
+     */
+    public MemoryUsageSetting setPageEvictionPolicy(PageEvictionPolicy pageEvictionPolicy)
+    {
+        this.pageEvictionPolicy = pageEvictionPolicy;
+        return this;
+    }
+
     /**
      * Returns <code>true</code> if main-memory is to be used.
      *
@@ -264,6 +339,36 @@ public final class MemoryUsageSetting
         return tempDir;
     }
 
+    /**
+     * Returns the size of a single page in bytes.
+     *
+     * @return the page size in bytes
+     */
+    public int getPageSize()
+    {
+        return pageSize;
+    }
+
+    /**
+     * Returns <code>true</code> if main-memory pages are stored in direct buffers outside of the java heap.
+     *
+     * @return true if this instance is set up to use direct memory
+     */
+    public boolean useDirectMemory()
+    {
+        return useDirectMemory;
+    }
+
+    /**
+     * Returns the policy deciding which pages are kept in main memory in mixed mode.
+     *
+     * @return the page eviction policy
+     */
+    public PageEvictionPolicy getPageEvictionPolicy()
+    {
+        return pageEvictionPolicy;
+    }
+
     @Override
     public String toString()
     {
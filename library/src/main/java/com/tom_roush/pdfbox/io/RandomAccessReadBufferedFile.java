@@ -19,19 +19,24 @@ package com.tom_roush.pdfbox.io;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * Provides random access to portions of a file combined with buffered reading of content. Start of next bytes to read
  * can be set via seek method.
  * 
- * File is accessed via {@link FileChannel} and is read in ByteBuffer chunks which are cached.
+ * File is accessed via {@link FileChannel} and is read in chunks which are cached. Chunks are read using positional
+ * reads, so that all views created by {@link #createView(long, long)} share the file handle and the page cache. Each
+ * view has its own position and may be used by a different thread. An interrupt of a reading thread closes the file
+ * channel, which is then reopened, so that only the reads of the interrupted thread fail.
  * 
  * @author Timo Boehme
  */
@@ -42,37 +47,13 @@ public class RandomAccessReadBufferedFile implements RandomAccessRead
     private static final long PAGE_OFFSET_MASK = -1L << PAGE_SIZE_SHIFT;
     private static final int MAX_CACHED_PAGES = 1000;
 
-    // map holding all copies of the current buffered file
-    private final ConcurrentMap<Long, RandomAccessReadBufferedFile> rafCopies = new ConcurrentHashMap<>();
-
-    private ByteBuffer lastRemovedCachePage = null;
-
-    /** Create a LRU page cache. */
-    private final Map<Long, ByteBuffer> pageCache = new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f,
-            true)
-    {
-        private static final long serialVersionUID = -6302488539257741101L;
-
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<Long, ByteBuffer> eldest)
-        {
-            final boolean doRemove = size() > MAX_CACHED_PAGES;
-            if (doRemove)
-            {
-                lastRemovedCachePage = eldest.getValue();
-                lastRemovedCachePage.clear();
-            }
-            return doRemove;
-        }
-    };
-
     private long curPageOffset = -1;
-    private ByteBuffer curPage;
+    private byte[] curPage;
     private int offsetWithinPage = 0;
 
-    private final FileChannel fileChannel;
-    private final Path path;
+    private final PageCache pageCache;
     private final long fileLength;
+    private final RandomAccessReadBufferedFile parent;
     private long fileOffset = 0;
     private boolean isClosed;
 
@@ -106,9 +87,20 @@ public class RandomAccessReadBufferedFile implements RandomAccessRead
      */
     public RandomAccessReadBufferedFile(Path path) throws IOException
     {
-        this.path = path;
-        fileChannel = FileChannel.open(path, StandardOpenOption.READ);
-        fileLength = fileChannel.size();
+        pageCache = new PageCache(path);
+        fileLength = pageCache.fileLength;
+        parent = null;
+        seek(0);
+    }
+
+    /**
+     * Create a copy with its own position sharing the file channel and the page cache of the given instance.
+     */
+    private RandomAccessReadBufferedFile(RandomAccessReadBufferedFile parent) throws IOException
+    {
+        this.parent = parent;
+        fileLength = parent.fileLength;
+        pageCache = parent.pageCache;
         seek(0);
     }
 
@@ -137,55 +129,14 @@ public class RandomAccessReadBufferedFile implements RandomAccessRead
         final long newPageOffset = position & PAGE_OFFSET_MASK;
         if ( newPageOffset != curPageOffset )
         {
-            ByteBuffer newPage = pageCache.get(newPageOffset);
-            if ( newPage == null )
-            {
-                fileChannel.position(newPageOffset);
-                newPage = readPage();
-                pageCache.put( newPageOffset, newPage );
-            }
+            curPage = pageCache.getPage(newPageOffset);
             curPageOffset = newPageOffset;
-            curPage = newPage;
         }
 
         fileOffset = Math.min(position, fileLength);
         offsetWithinPage = (int) (fileOffset - curPageOffset);
     }
 
-    /**
-     * Reads a page with data from current file position. If we have a
-     * previously removed page from cache the buffer of this page is reused.
-     * Otherwise a new byte buffer is created.
-     */
-    private ByteBuffer readPage() throws IOException
-    {
-        ByteBuffer page;
-
-        if ( lastRemovedCachePage != null )
-        {
-            page = lastRemovedCachePage;
-            lastRemovedCachePage = null;
-        }
-        else
-        {
-            page = ByteBuffer.allocate(PAGE_SIZE);
-        }
-
-        int readBytes = 0;
-        while (readBytes < PAGE_SIZE)
-        {
-            int curBytesRead = fileChannel.read(page);
-            if (curBytesRead < 0)
-            {
-                // EOF
-                break;
-            }
-            readBytes += curBytesRead;
-        }
-
-        return page;
-    }
-
     @Override
     public int read() throws IOException
     {
@@ -201,7 +152,7 @@ public class RandomAccessReadBufferedFile implements RandomAccessRead
         }
 
         fileOffset++;
-        return curPage.get(offsetWithinPage++) & 0xff;
+        return curPage[offsetWithinPage++] & 0xff;
     }
 
     @Override
@@ -224,8 +175,7 @@ public class RandomAccessReadBufferedFile implements RandomAccessRead
             commonLen = Math.min( commonLen, (int) ( fileLength - fileOffset ) );
         }
 
-        curPage.position(offsetWithinPage);
-        curPage.get(b, off, commonLen);
+        System.arraycopy(curPage, offsetWithinPage, b, off, commonLen);
 
         offsetWithinPage += commonLen;
         fileOffset += commonLen;
@@ -242,12 +192,14 @@ public class RandomAccessReadBufferedFile implements RandomAccessRead
     @Override
     public void close() throws IOException
     {
-        if (!isClosed())
+        if (!isClosed)
         {
-            rafCopies.values().forEach(IOUtils::closeQuietly);
-            rafCopies.clear();
-            fileChannel.close();
-            pageCache.clear();
+            // copies share the file channel and the page cache of the parent
+            if (parent == null)
+            {
+                pageCache.close();
+            }
+            curPage = null;
             isClosed = true;
         }
     }
@@ -255,7 +207,7 @@ public class RandomAccessReadBufferedFile implements RandomAccessRead
     @Override
     public boolean isClosed()
     {
-        return isClosed;
+        return isClosed || (parent != null && parent.isClosed());
     }
 
     /**
@@ -264,7 +216,7 @@ public class RandomAccessReadBufferedFile implements RandomAccessRead
      */
     private void checkClosed() throws IOException
     {
-        if (isClosed)
+        if (isClosed())
         {
             throw new IOException(getClass().getName() + " already closed");
         }
@@ -280,14 +232,145 @@ public class RandomAccessReadBufferedFile implements RandomAccessRead
     public RandomAccessReadView createView(long startPosition, long streamLength) throws IOException
     {
         checkClosed();
-        Long currentThreadID = Thread.currentThread().getId();
-        RandomAccessReadBufferedFile randomAccessReadBufferedFile = rafCopies.get(currentThreadID);
-        if (randomAccessReadBufferedFile == null || randomAccessReadBufferedFile.isClosed())
+        // each view gets its own position, the file channel and the page cache are shared
+        RandomAccessReadBufferedFile root = parent != null ? parent : this;
+        return new RandomAccessReadView(new RandomAccessReadBufferedFile(root), startPosition,
+                streamLength, true);
+    }
+
+    /**
+     * A LRU page cache which may be shared between several threads. The cache is split into stripes with a lock each
+     * so that concurrent readers of different pages rarely contend. Pages are read using positional reads which don't
+     * depend on the position of the file channel.
+     */
+    private static final class PageCache
+    {
+        private static final int NUMBER_OF_STRIPES = 16;
+        private static final int MAX_CACHED_PAGES_PER_STRIPE = MAX_CACHED_PAGES / NUMBER_OF_STRIPES;
+
+        private final Path path;
+        private final long fileLength;
+        private final List<Map<Long, byte[]>> stripes = new ArrayList<>(NUMBER_OF_STRIPES);
+
+        // guarded by this
+        private FileChannel fileChannel;
+        private boolean closed = false;
+
+        PageCache(Path path) throws IOException
         {
-            randomAccessReadBufferedFile = new RandomAccessReadBufferedFile(path);
-            rafCopies.put(currentThreadID, randomAccessReadBufferedFile);
+            this.path = path;
+            fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+            fileLength = fileChannel.size();
+            for (int i = 0; i < NUMBER_OF_STRIPES; i++)
+            {
+                stripes.add(new LinkedHashMap<Long, byte[]>(MAX_CACHED_PAGES_PER_STRIPE, 0.75f, true)
+                {
+                    private static final long serialVersionUID = -6302488539257741101L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest)
+                    {
+                        return size() > MAX_CACHED_PAGES_PER_STRIPE;
+                    }
+                });
+            }
+        }
+
+        /**
+         * Returns the page starting at the given offset. The returned page must not be modified.
+         */
+        byte[] getPage(long pageOffset) throws IOException
+        {
+            // consecutive pages are spread over all stripes
+            Map<Long, byte[]> stripe = stripes.get((int) (pageOffset >>> PAGE_SIZE_SHIFT) % NUMBER_OF_STRIPES);
+            byte[] page;
+            synchronized (stripe)
+            {
+                page = stripe.get(pageOffset);
+            }
+            if (page == null)
+            {
+                // read outside of the lock, a concurrent reader of the same page reads it twice at worst
+                page = readPage(pageOffset);
+                synchronized (stripe)
+                {
+                    stripe.put(pageOffset, page);
+                }
+            }
+            return page;
+        }
+
+        private byte[] readPage(long pageOffset) throws IOException
+        {
+            byte[] page = new byte[PAGE_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(page);
+            FileChannel channel = getFileChannel();
+            while (true)
+            {
+                try
+                {
+                    long position = pageOffset + buffer.position();
+                    while (buffer.hasRemaining() && position < fileLength)
+                    {
+                        int curBytesRead = channel.read(buffer, position);
+                        if (curBytesRead < 0)
+                        {
+                            // EOF
+                            break;
+                        }
+                        position += curBytesRead;
+                    }
+                    return page;
+                }
+                catch (ClosedChannelException e)
+                {
+                    // an interrupt of any reading thread closes the channel for all of them,
+                    // reopen it so that only the interrupted thread fails
+                    channel = reopenFileChannel(channel);
+                    if (e instanceof ClosedByInterruptException)
+                    {
+                        throw e;
+                    }
+                }
+            }
         }
-        return new RandomAccessReadView(randomAccessReadBufferedFile, startPosition, streamLength);
-    }
 
+        private synchronized FileChannel getFileChannel() throws IOException
+        {
+            if (closed)
+            {
+                throw new IOException("File already closed");
+            }
+            return fileChannel;
+        }
+
+        private synchronized FileChannel reopenFileChannel(FileChannel closedChannel) throws IOException
+        {
+            if (closed)
+            {
+                throw new IOException("File already closed");
+            }
+            if (fileChannel == closedChannel)
+            {
+                fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            return fileChannel;
+        }
+
+        void close() throws IOException
+        {
+            synchronized (this)
+            {
+                closed = true;
+                fileChannel.close();
+            }
+            for (Map<Long, byte[]> stripe : stripes)
+            {
+                synchronized (stripe)
+                {
+                    stripe.clear();
+                }
+            }
+        }
+    }
 }
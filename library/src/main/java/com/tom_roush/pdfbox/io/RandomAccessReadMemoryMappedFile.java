@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An implementation of the RandomAccessRead interface backed by a memory mapped file.
+ *
+ * The file is mapped read only using {@link FileChannel#map}. As a single mapping is limited to
+ * {@link Integer#MAX_VALUE} bytes, larger files are mapped as a sequence of segments. The data isn't copied to the
+ * java heap, reading is served by the page cache of the operating system which is shared between all instances
+ * mapping the same file.
+ */
+public class RandomAccessReadMemoryMappedFile implements RandomAccessRead
+{
+    // default segment size is 1GB
+    static final int DEFAULT_SEGMENT_SIZE_SHIFT = 30;
+
+    private final int segmentSizeShift;
+    private final long segmentOffsetMask;
+    private final long fileLength;
+    private ByteBuffer[] segments;
+    private long position = 0;
+
+    // map holding all copies of the current mapped file
+    private final ConcurrentMap<Long, RandomAccessReadMemoryMappedFile> rafCopies = new ConcurrentHashMap<>();
+
+    /**
+     * Create a random access memory mapped file instance for the file with the given name.
+     *
+     * @param filename the filename of the file to be read.
+     * @throws IOException if something went wrong while accessing the given file.
+     */
+    public RandomAccessReadMemoryMappedFile(String filename) throws IOException
+    {
+        this(new File(filename));
+    }
+
+    /**
+     * Create a random access memory mapped file instance for the given file.
+     *
+     * @param file the file to be read.
+     * @throws IOException if something went wrong while accessing the given file.
+     */
+    public RandomAccessReadMemoryMappedFile(File file) throws IOException
+    {
+        this(file.toPath());
+    }
+
+    /**
+     * Create a random access memory mapped file instance using the given path.
+     *
+     * @param path path of the file to be read.
+     * @throws IOException if something went wrong while accessing the given file.
+     */
+    public RandomAccessReadMemoryMappedFile(Path path) throws IOException
+    {
+        this(path, DEFAULT_SEGMENT_SIZE_SHIFT);
+    }
+
+    /**
+     * Create a random access memory mapped file instance using the given path and segment size.
+     *
+     * @param path path of the file to be read.
+     * @param segmentSizeShift the size of a single mapped segment as power of two.
+     * @throws IOException if something went wrong while accessing the given file.
+     */
+    RandomAccessReadMemoryMappedFile(Path path, int segmentSizeShift) throws IOException
+    {
+        this.segmentSizeShift = segmentSizeShift;
+        segmentOffsetMask = (1L << segmentSizeShift) - 1;
+        // the mapping stays valid after the channel is closed, so that no file handle is kept open
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            fileLength = fileChannel.size();
+            long segmentSize = 1L << segmentSizeShift;
+            int numberOfSegments = (int) ((fileLength + segmentSize - 1) >>> segmentSizeShift);
+            // map at least one (empty) segment to simplify seeking
+            segments = new ByteBuffer[Math.max(numberOfSegments, 1)];
+            for (int i = 0; i < segments.length; i++)
+            {
+                long segmentStart = (long) i << segmentSizeShift;
+                long mappedSize = Math.min(segmentSize, fileLength - segmentStart);
+                segments[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY, segmentStart,
+                        Math.max(mappedSize, 0));
+            }
+        }
+    }
+
+    private RandomAccessReadMemoryMappedFile(RandomAccessReadMemoryMappedFile parent)
+    {
+        segmentSizeShift = parent.segmentSizeShift;
+        segmentOffsetMask = parent.segmentOffsetMask;
+        fileLength = parent.fileLength;
+        // duplicates share the mapped memory but have their own position
+        segments = new ByteBuffer[parent.segments.length];
+        for (int i = 0; i < segments.length; i++)
+        {
+            segments[i] = parent.segments[i].duplicate();
+        }
+    }
+
+    @Override
+    public long getPosition() throws IOException
+    {
+        checkClosed();
+        return position;
+    }
+
+    @Override
+    public void seek(long position) throws IOException
+    {
+        checkClosed();
+        if (position < 0)
+        {
+            throw new IOException("Invalid position " + position);
+        }
+        // it is allowed to jump beyond the end of the file
+        this.position = Math.min(position, fileLength);
+    }
+
+    @Override
+    public int read() throws IOException
+    {
+        checkClosed();
+        if (position >= fileLength)
+        {
+            return -1;
+        }
+        ByteBuffer segment = segments[(int) (position >>> segmentSizeShift)];
+        int value = segment.get((int) (position & segmentOffsetMask)) & 0xff;
+        position++;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] b, int offset, int length) throws IOException
+    {
+        checkClosed();
+        if (position >= fileLength)
+        {
+            return -1;
+        }
+        int bytesRead = 0;
+        int remaining = (int) Math.min(length, fileLength - position);
+        while (remaining > 0)
+        {
+            ByteBuffer segment = segments[(int) (position >>> segmentSizeShift)];
+            int offsetWithinSegment = (int) (position & segmentOffsetMask);
+            int chunkLength = Math.min(remaining, segment.limit() - offsetWithinSegment);
+            segment.position(offsetWithinSegment);
+            segment.get(b, offset + bytesRead, chunkLength);
+            bytesRead += chunkLength;
+            remaining -= chunkLength;
+            position += chunkLength;
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long length() throws IOException
+    {
+        checkClosed();
+        return fileLength;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (!isClosed())
+        {
+            rafCopies.values().forEach(IOUtils::closeQuietly);
+            rafCopies.clear();
+            // the mapping itself is released by the garbage collector
+            segments = null;
+        }
+    }
+
+    @Override
+    public boolean isClosed()
+    {
+        return segments == null;
+    }
+
+    /**
+     * Ensure that the RandomAccessReadMemoryMappedFile is not closed
+     * @throws IOException If RandomAccessReadMemoryMappedFile already closed
+     */
+    private void checkClosed() throws IOException
+    {
+        if (isClosed())
+        {
+            throw new IOException(getClass().getName() + " already closed");
+        }
+    }
+
+    @Override
+    public boolean isEOF() throws IOException
+    {
+        checkClosed();
+        return position >= fileLength;
+    }
+
+    @Override
+    public RandomAccessReadView createView(long startPosition, long streamLength) throws IOException
+    {
+        checkClosed();
+        Long currentThreadID = Thread.currentThread().getId();
+        RandomAccessReadMemoryMappedFile randomAccessReadMemoryMappedFile = rafCopies.get(currentThreadID);
+        if (randomAccessReadMemoryMappedFile == null || randomAccessReadMemoryMappedFile.isClosed())
+        {
+            randomAccessReadMemoryMappedFile = new RandomAccessReadMemoryMappedFile(this);
+            rafCopies.put(currentThreadID, randomAccessReadMemoryMappedFile);
+        }
+        return new RandomAccessReadView(randomAccessReadMemoryMappedFile, startPosition, streamLength);
+    }
+
+}
@@ -183,10 +183,23 @@ public class RandomAccessReadView implements RandomAccessRead
         }
     }
 
+    /**
+     * Creates a view of a part of this view. It is created by the underlying random access read for the current
+     * thread, see {@link RandomAccessRead#createView(long, long)}, so that it may be read by the current thread while
+     * other threads read this view or other views of the same data.
+     *
+     * @param startPosition start position within this view
+     * @param streamLength stream length
+     * @return the new view
+     * @throws IOException If the view is closed or the underlying random access read doesn't support views.
+     */
     @Override
     public RandomAccessReadView createView(long startPosition, long streamLength) throws IOException
     {
-        throw new IOException(getClass().getName() + ".createView isn't supported.");
+        checkClosed();
+        long start = Math.min(Math.max(startPosition, 0), this.streamLength);
+        return randomAccessRead.createView(this.startPosition + start,
+                Math.min(streamLength, this.streamLength - start));
     }
 
 }
\ No newline at end of file
@@ -43,6 +43,12 @@ import java.util.List;
  * <p>If a temporary file was created (done with the first page to be stored
  * in temporary file) it is deleted when {@link ScratchFile#close()} is called.</p>
  *
+ * <p>Main memory pages may be stored in direct buffers outside of the java heap
+ * (see {@link MemoryUsageSetting#setUseDirectMemory(boolean)}). In mixed mode
+ * the least recently used pages may be moved to the temporary file instead of
+ * keeping the pages allocated first in main memory
+ * (see {@link MemoryUsageSetting#setPageEvictionPolicy(MemoryUsageSetting.PageEvictionPolicy)}).</p>
+ *
  * <p>Using this class for {@link RandomAccess} buffers allows for a direct control
  * on the maximum memory usage and allows processing large files for which we
  * otherwise would get an {@link OutOfMemoryError} in case of using {@link RandomAccessReadBuffer}.</p>
@@ -57,7 +63,8 @@ public class ScratchFile implements RandomAccessStreamCache
     /** in case of unrestricted main memory usage this is the initial number of pages
      *  {@link #inMemoryPages} is setup for */
     private static final int INIT_UNRESTRICTED_MAINMEM_PAGECOUNT = 100000;
-    private static final int PAGE_SIZE = 4096;
+
+    private final int pageSize;
 
     private final Object ioLock = new Object();
     private final File scratchFileDirectory;
@@ -75,6 +82,14 @@ public class ScratchFile implements RandomAccessStreamCache
     private final int maxPageCount;
     private final boolean useScratchFile;
     private final boolean maxMainMemoryIsRestricted;
+    /** holds main memory pages if direct memory or LRU eviction is used, otherwise <code>null</code>
+     *  and {@link #inMemoryPages} is used; only to be accessed under synchronization of {@link #ioLock} */
+    private final ScratchFilePagePool pagePool;
+    /** if <code>true</code> any page may be in main memory or in the scratch file */
+    private final boolean evictLeastRecentlyUsed;
+    /** reused to write evicted direct pages to the scratch file; only to be accessed under synchronization
+     *  of {@link #ioLock} */
+    private byte[] evictedPageCopy;
 
     private final List<ScratchFileBuffer> buffers = new ArrayList<>();
 
@@ -100,7 +115,7 @@ public class ScratchFile implements RandomAccessStreamCache
      * Initializes page handler. If a <code>scratchFileDirectory</code> is supplied,
      * then the scratch file will be created in that directory.
      *
-     * <p>Depending on the size of allowed memory usage a number of pages (memorySize/{@link #PAGE_SIZE})
+     * <p>Depending on the size of allowed memory usage a number of pages (memorySize/page size)
      * will be stored in-memory and only additional pages will be written to/read from scratch file.</p>
      *
      * @param memUsageSetting set how memory/temporary files are used for buffering streams etc.
@@ -109,6 +124,7 @@ public class ScratchFile implements RandomAccessStreamCache
      */
     public ScratchFile(MemoryUsageSetting memUsageSetting) throws IOException
     {
+        pageSize = memUsageSetting.getPageSize();
         maxMainMemoryIsRestricted = !memUsageSetting.useMainMemory()
                 || memUsageSetting.isMainMemoryRestricted();
         useScratchFile = maxMainMemoryIsRestricted && memUsageSetting.useTempFile();
@@ -120,19 +136,26 @@ public class ScratchFile implements RandomAccessStreamCache
         }
 
         maxPageCount = memUsageSetting.isStorageRestricted() ?
-                (int) Math.min(Integer.MAX_VALUE, memUsageSetting.getMaxStorageBytes() / PAGE_SIZE) :
+                (int) Math.min(Integer.MAX_VALUE, memUsageSetting.getMaxStorageBytes() / pageSize) :
                 Integer.MAX_VALUE;
 
         inMemoryMaxPageCount = memUsageSetting.useMainMemory() ?
                 (memUsageSetting.isMainMemoryRestricted() ?
-                        (int) Math.min(Integer.MAX_VALUE, memUsageSetting.getMaxMainMemoryBytes() / PAGE_SIZE) :
+                        (int) Math.min(Integer.MAX_VALUE, memUsageSetting.getMaxMainMemoryBytes() / pageSize) :
                         Integer.MAX_VALUE) :
                 0;
+
+        // LRU eviction is only useful if there is a scratch file to spill pages to
+        evictLeastRecentlyUsed = useScratchFile && inMemoryMaxPageCount > 0
+                && memUsageSetting.getPageEvictionPolicy() == MemoryUsageSetting.PageEvictionPolicy.LEAST_RECENTLY_USED;
+        pagePool = memUsageSetting.useDirectMemory() || evictLeastRecentlyUsed ?
+                new ScratchFilePagePool(pageSize, inMemoryMaxPageCount, memUsageSetting.useDirectMemory()) :
+                null;
     }
 
     private void initPages()
     {
-        if (inMemoryPages == null)
+        if (pagePool == null && inMemoryPages == null)
         {
             inMemoryPages = new byte[maxMainMemoryIsRestricted ? inMemoryMaxPageCount
                     : INIT_UNRESTRICTED_MAINMEM_PAGECOUNT][];
@@ -250,28 +273,23 @@ public class ScratchFile implements RandomAccessStreamCache
                 return;
             }
 
-            if (useScratchFile)
+            if (pagePool != null)
             {
-                // create scratch file is needed
-                if ( raf == null )
+                // the scratch file is created and enlarged when a page has to be written to it
+                int maxPoolPageCount = useScratchFile ? maxPageCount
+                        : Math.min(maxPageCount, inMemoryMaxPageCount);
+                int newPageCount = (int) Math.min((long) pageCount + ENLARGE_PAGE_COUNT, maxPoolPageCount);
+                if (newPageCount > pageCount)
                 {
-                    file = File.createTempFile("PDFBox", ".tmp", scratchFileDirectory);
-                    try
-                    {
-                        raf = new java.io.RandomAccessFile(file, "rw");
-                    }
-                    catch (FileNotFoundException e)
-                    {
-                        if (!file.delete())
-                        {
-                            Log.w("PdfBox-Android","Error deleting scratch file: " +  file.getAbsolutePath());
-                        }
-                        throw e;
-                    }
+                    freePages.set(pageCount, newPageCount);
                 }
+            }
+            else if (useScratchFile)
+            {
+                createScratchFileIfNeeded();
 
                 long fileLen = raf.length();
-                long expectedFileLen = ((long)pageCount - inMemoryMaxPageCount) * PAGE_SIZE;
+                long expectedFileLen = ((long)pageCount - inMemoryMaxPageCount) * pageSize;
 
                 if (expectedFileLen != fileLen)
                 {
@@ -281,7 +299,7 @@ public class ScratchFile implements RandomAccessStreamCache
                 // enlarge if we do not overflow
                 if (pageCount + ENLARGE_PAGE_COUNT > pageCount)
                 {
-                    fileLen += ENLARGE_PAGE_COUNT * PAGE_SIZE;
+                    fileLen += ENLARGE_PAGE_COUNT * pageSize;
 
                     raf.setLength(fileLen);
 
@@ -305,6 +323,31 @@ public class ScratchFile implements RandomAccessStreamCache
         }
     }
 
+    /**
+     * Creates the scratch file if it doesn't exist yet.
+     *
+     * <p>Only to be called under synchronization on {@link #ioLock}.</p>
+     */
+    private void createScratchFileIfNeeded() throws IOException
+    {
+        if ( raf == null )
+        {
+            file = File.createTempFile("PDFBox", ".tmp", scratchFileDirectory);
+            try
+            {
+                raf = new java.io.RandomAccessFile(file, "rw");
+            }
+            catch (FileNotFoundException e)
+            {
+                if (!file.delete())
+                {
+                    Log.w("PdfBox-Android","Error deleting scratch file: " +  file.getAbsolutePath());
+                }
+                throw e;
+            }
+        }
+    }
+
     /**
      * Returns byte size of a page.
      *
@@ -312,19 +355,33 @@ public class ScratchFile implements RandomAccessStreamCache
      */
     int getPageSize()
     {
-        return PAGE_SIZE;
+        return pageSize;
+    }
+
+    /**
+     * Returns <code>true</code> if the content of the pages is copied by {@link #writePage(int, byte[])} and
+     * {@link #readPage(int, byte[])}, i.e. the pages are kept in direct buffers. In this case a buffer may keep
+     * using the same array for all of its pages.
+     *
+     * @return true if the content of the pages is copied
+     */
+    boolean isCopyingPages()
+    {
+        return pagePool != null && pagePool.useDirectMemory();
     }
 
     /**
      * Reads the page with specified index.
      *
      * @param pageIdx index of page to read
+     * @param reusablePage array the page is read into if pages are copied (see {@link #isCopyingPages()}),
+     *                     may be <code>null</code>; ignored otherwise
      *
-     * @return byte array of size {@link #PAGE_SIZE} filled with page data read from file
+     * @return byte array of size {@link #getPageSize()} filled with page data read from file
      *
      * @throws IOException
      */
-    byte[] readPage(int pageIdx) throws IOException
+    byte[] readPage(int pageIdx, byte[] reusablePage) throws IOException
     {
         if ((pageIdx < 0) || (pageIdx >= pageCount))
         {
@@ -332,6 +389,11 @@ public class ScratchFile implements RandomAccessStreamCache
             throw new IOException("Page index out of range: " + pageIdx + ". Max value: " + (pageCount - 1) );
         }
 
+        if (pagePool != null)
+        {
+            return readPoolPage(pageIdx, pagePool.useDirectMemory() ? reusablePage : null);
+        }
+
         // check if we have the page in memory
         if (pageIdx < inMemoryMaxPageCount)
         {
@@ -355,14 +417,100 @@ public class ScratchFile implements RandomAccessStreamCache
                 throw new IOException("Missing scratch file to read page with index " + pageIdx + " from.");
             }
 
-            byte[] page = new byte[PAGE_SIZE];
-            raf.seek(((long)pageIdx - inMemoryMaxPageCount) * PAGE_SIZE);
+            byte[] page = new byte[pageSize];
+            raf.seek(((long)pageIdx - inMemoryMaxPageCount) * pageSize);
             raf.readFully(page);
 
             return page;
         }
     }
 
+    /**
+     * Reads the page with specified index if the page pool is used. In case of LRU eviction a page read
+     * from the scratch file is moved back to main memory.
+     *
+     * @param pageIdx index of page to read
+     * @param target array the page is read into, may be <code>null</code>; must be <code>null</code> unless
+     *               direct buffers are used as heap pages keep a reference to the array
+     *
+     * @return byte array of size {@link #getPageSize()} filled with page data
+     *
+     * @throws IOException
+     */
+    private byte[] readPoolPage(int pageIdx, byte[] target) throws IOException
+    {
+        synchronized (ioLock)
+        {
+            checkClosed();
+            byte[] page = pagePool.get(pageIdx, target);
+            if (page != null)
+            {
+                return page;
+            }
+            if (!evictLeastRecentlyUsed && pageIdx < inMemoryMaxPageCount)
+            {
+                throw new IOException("Requested page with index " + pageIdx + " was not written before.");
+            }
+            if (raf == null)
+            {
+                throw new IOException("Missing scratch file to read page with index " + pageIdx + " from.");
+            }
+
+            page = target != null ? target : new byte[pageSize];
+            raf.seek(getScratchFileOffset(pageIdx));
+            raf.readFully(page);
+
+            if (evictLeastRecentlyUsed)
+            {
+                putPoolPage(pageIdx, page);
+            }
+            return page;
+        }
+    }
+
+    /**
+     * Stores the given page in the page pool. If the pool is full the least recently used page is written
+     * to the scratch file.
+     *
+     * <p>Only to be called under synchronization on {@link #ioLock}.</p>
+     */
+    private void putPoolPage(int pageIdx, byte[] page) throws IOException
+    {
+        if (!pagePool.contains(pageIdx) && pagePool.isFull())
+        {
+            int evictedPageIdx = pagePool.getEldest();
+            if (pagePool.useDirectMemory() && evictedPageCopy == null)
+            {
+                evictedPageCopy = new byte[pageSize];
+            }
+            byte[] evictedPage = pagePool.get(evictedPageIdx, evictedPageCopy);
+            pagePool.remove(evictedPageIdx);
+            writeScratchFilePage(evictedPageIdx, evictedPage);
+        }
+        pagePool.put(pageIdx, page);
+    }
+
+    /**
+     * Writes the given page to the scratch file which is created if needed.
+     *
+     * <p>Only to be called under synchronization on {@link #ioLock}.</p>
+     */
+    private void writeScratchFilePage(int pageIdx, byte[] page) throws IOException
+    {
+        createScratchFileIfNeeded();
+        raf.seek(getScratchFileOffset(pageIdx));
+        raf.write(page);
+    }
+
+    /**
+     * Returns the offset of the given page within the scratch file if the page pool is used. In case of
+     * LRU eviction each page has its own slot, otherwise only pages not fitting into main memory.
+     */
+    private long getScratchFileOffset(int pageIdx)
+    {
+        return ((long) (evictLeastRecentlyUsed ? pageIdx : pageIdx - inMemoryMaxPageCount)) * pageSize;
+    }
+
     /**
      * Writes updated page. Page is either kept in-memory if pageIdx &lt; {@link #inMemoryMaxPageCount}
      * or is written to scratch file.
@@ -371,7 +519,7 @@ public class ScratchFile implements RandomAccessStreamCache
      * store it as is in case of in-memory handling.</p>
      *
      * @param pageIdx index of page to write
-     * @param page page to write (length has to be {@value #PAGE_SIZE})
+     * @param page page to write (length has to be {@link #getPageSize()})
      *
      * @throws IOException in case page index is out of range or page has wrong length
      *                     or writing to file failed
@@ -384,12 +532,27 @@ public class ScratchFile implements RandomAccessStreamCache
             throw new IOException("Page index out of range: " + pageIdx + ". Max value: " + (pageCount - 1) );
         }
 
-        if (page.length != PAGE_SIZE)
+        if (page.length != pageSize)
         {
-            throw new IOException("Wrong page size to write: " + page.length + ". Expected: " + PAGE_SIZE );
+            throw new IOException("Wrong page size to write: " + page.length + ". Expected: " + pageSize );
         }
 
-        if (pageIdx < inMemoryMaxPageCount)
+        if (pagePool != null)
+        {
+            synchronized (ioLock)
+            {
+                checkClosed();
+                if (evictLeastRecentlyUsed || pageIdx < inMemoryMaxPageCount)
+                {
+                    putPoolPage(pageIdx, page);
+                }
+                else
+                {
+                    writeScratchFilePage(pageIdx, page);
+                }
+            }
+        }
+        else if (pageIdx < inMemoryMaxPageCount)
         {
             if (maxMainMemoryIsRestricted)
             {
@@ -412,7 +575,7 @@ public class ScratchFile implements RandomAccessStreamCache
             synchronized (ioLock)
             {
                 checkClosed();
-                raf.seek(((long)pageIdx - inMemoryMaxPageCount) * PAGE_SIZE);
+                raf.seek(((long)pageIdx - inMemoryMaxPageCount) * pageSize);
                 raf.write(page);
             }
         }
@@ -488,7 +651,14 @@ public class ScratchFile implements RandomAccessStreamCache
                 if ((pageIdx>=0) && (pageIdx<pageCount) && (!freePages.get(pageIdx)))
                 {
                     freePages.set(pageIdx);
-                    if (pageIdx < inMemoryMaxPageCount)
+                    if (pagePool != null)
+                    {
+                        synchronized (ioLock)
+                        {
+                            pagePool.remove(pageIdx);
+                        }
+                    }
+                    else if (pageIdx < inMemoryMaxPageCount)
                     {
                         inMemoryPages[pageIdx] = null;  // remark: not in ioLock synchronization since behavior won't
                         // change even in case of parallel called 'enlarge' method
@@ -528,6 +698,10 @@ public class ScratchFile implements RandomAccessStreamCache
                 }
             }
             buffers.clear();
+            if (pagePool != null)
+            {
+                pagePool.clear();
+            }
             if (raf != null)
             {
                 try
@@ -123,7 +123,11 @@ class ScratchFileBuffer implements RandomAccess
         currentPagePositionInPageIndexes = pageCount;
         currentPageOffset = ((long)pageCount) * pageSize;
         pageCount++;
-        currentPage = new byte[pageSize];
+        if (currentPage == null || !pageHandler.isCopyingPages())
+        {
+            // the page handler may keep a reference to the previous page
+            currentPage = new byte[pageSize];
+        }
         positionInPage = 0;
     }
 
@@ -168,7 +172,7 @@ class ScratchFileBuffer implements RandomAccess
             if (currentPagePositionInPageIndexes+1 < pageCount)
             {
                 // we already have more pages assigned (there was a backward seek before)
-                currentPage = pageHandler.readPage(pageIndexes[++currentPagePositionInPageIndexes]);
+                currentPage = pageHandler.readPage(pageIndexes[++currentPagePositionInPageIndexes], currentPage);
                 currentPageOffset = ((long)currentPagePositionInPageIndexes) * pageSize;
                 positionInPage = 0;
             }
@@ -261,7 +265,7 @@ class ScratchFileBuffer implements RandomAccess
         // change to first page if we are not already there
         if (currentPagePositionInPageIndexes > 0)
         {
-            currentPage = pageHandler.readPage(pageIndexes[0]);
+            currentPage = pageHandler.readPage(pageIndexes[0], currentPage);
             currentPagePositionInPageIndexes = 0;
             currentPageOffset = 0;
         }
@@ -323,7 +327,7 @@ class ScratchFileBuffer implements RandomAccess
                 newPagePosition--; // PDFBOX-4756: Prevent seeking a non-yet-existent page...
             }
 
-            currentPage = pageHandler.readPage(pageIndexes[newPagePosition]);
+            currentPage = pageHandler.readPage(pageIndexes[newPagePosition], currentPage);
             currentPagePositionInPageIndexes = newPagePosition;
             currentPageOffset = ((long)currentPagePositionInPageIndexes) * pageSize;
             positionInPage = (int) (seekToPosition - currentPageOffset);
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the main-memory pages of a {@link ScratchFile} which are either stored on the java heap or in direct buffers
+ * outside of the java heap. Released direct buffers are kept for re-use as allocating them is expensive.
+ *
+ * <p>Pages are kept in access order, so that the {@link ScratchFile} can write the least recently used page to the
+ * scratch file if the pool is full.</p>
+ *
+ * <p>This class isn't thread safe, the {@link ScratchFile} has to synchronize the access.</p>
+ */
+final class ScratchFilePagePool
+{
+    private final int pageSize;
+    private final int maxPageCount;
+    private final boolean useDirectMemory;
+    private final Map<Integer, ByteBuffer> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Deque<ByteBuffer> releasedBuffers = new ArrayDeque<>();
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize size of a single page in bytes
+     * @param maxPageCount maximum number of pages held by the pool, {@link Integer#MAX_VALUE} for no restriction
+     * @param useDirectMemory if <code>true</code> pages are stored in direct buffers
+     */
+    ScratchFilePagePool(int pageSize, int maxPageCount, boolean useDirectMemory)
+    {
+        this.pageSize = pageSize;
+        this.maxPageCount = maxPageCount;
+        this.useDirectMemory = useDirectMemory;
+    }
+
+    /**
+     * Returns <code>true</code> if the pages are stored in direct buffers, i.e. the content of a page is copied by
+     * {@link #get(int, byte[])} and {@link #put(int, byte[])}.
+     *
+     * @return true if direct buffers are used
+     */
+    boolean useDirectMemory()
+    {
+        return useDirectMemory;
+    }
+
+    /**
+     * Returns the content of the page with the given index and marks it as most recently used.
+     *
+     * @param pageIdx index of the page
+     * @param target the array a direct page is copied into, a new one is created if it is <code>null</code>;
+     * ignored for heap pages
+     * @return the page content or <code>null</code> if the page isn't held by the pool
+     */
+    byte[] get(int pageIdx, byte[] target)
+    {
+        ByteBuffer buffer = pages.get(pageIdx);
+        if (buffer == null)
+        {
+            return null;
+        }
+        if (buffer.hasArray())
+        {
+            // heap pages are shared with the caller, the same way as done by ScratchFile
+            return buffer.array();
+        }
+        byte[] page = target != null ? target : new byte[pageSize];
+        buffer.clear();
+        buffer.get(page);
+        return page;
+    }
+
+    /**
+     * Returns <code>true</code> if the pool holds the page with the given index.
+     *
+     * @param pageIdx index of the page
+     * @return true if the page is held by the pool
+     */
+    boolean contains(int pageIdx)
+    {
+        return pages.containsKey(pageIdx);
+    }
+
+    /**
+     * Returns <code>true</code> if the pool can't take another page without evicting one.
+     *
+     * @return true if the pool is full
+     */
+    boolean isFull()
+    {
+        return pages.size() >= maxPageCount;
+    }
+
+    /**
+     * Stores the given page content. Heap pages keep a reference to the given array, direct pages copy the
+     * content.
+     *
+     * @param pageIdx index of the page
+     * @param page the page content
+     */
+    void put(int pageIdx, byte[] page)
+    {
+        if (!useDirectMemory)
+        {
+            pages.put(pageIdx, ByteBuffer.wrap(page));
+            return;
+        }
+        ByteBuffer buffer = pages.get(pageIdx);
+        if (buffer == null)
+        {
+            buffer = releasedBuffers.isEmpty() ? ByteBuffer.allocateDirect(pageSize) : releasedBuffers.pop();
+            pages.put(pageIdx, buffer);
+        }
+        buffer.clear();
+        buffer.put(page);
+    }
+
+    /**
+     * Returns the index of the least recently used page without changing the order of the pages.
+     *
+     * @return the index of the least recently used page or -1 if the pool is empty
+     */
+    int getEldest()
+    {
+        Iterator<Integer> iterator = pages.keySet().iterator();
+        return iterator.hasNext() ? iterator.next() : -1;
+    }
+
+    /**
+     * Removes the page with the given index from the pool.
+     *
+     * @param pageIdx index of the page
+     */
+    void remove(int pageIdx)
+    {
+        ByteBuffer buffer = pages.remove(pageIdx);
+        if (buffer != null && useDirectMemory)
+        {
+            releasedBuffers.push(buffer);
+        }
+    }
+
+    /**
+     * Releases all pages.
+     */
+    void clear()
+    {
+        pages.clear();
+        releasedBuffers.clear();
+    }
+}
@@ -16,7 +16,6 @@
  */
 package com.tom_roush.pdfbox.pdfparser;
 
-import android.os.Build;
 import android.util.Log;
 
 import java.io.ByteArrayOutputStream;
@@ -29,7 +28,7 @@ import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 
 import com.tom_roush.pdfbox.cos.COSArray;
@@ -44,6 +43,7 @@ import com.tom_roush.pdfbox.cos.COSNumber;
 import com.tom_roush.pdfbox.cos.COSObject;
 import com.tom_roush.pdfbox.cos.COSObjectKey;
 import com.tom_roush.pdfbox.cos.COSString;
+import com.tom_roush.pdfbox.cos.CompactXrefTable;
 import com.tom_roush.pdfbox.io.RandomAccessRead;
 
 /**
@@ -68,8 +68,6 @@ public abstract class BaseParser
 
     private int recursionDepth = 0;
 
-    private final Map<Long, COSObjectKey> keyCache = new HashMap<>();
-
     static
     {
         Charset cs;
@@ -93,6 +91,11 @@ public abstract class BaseParser
             .onMalformedInput(CodingErrorAction.REPORT)
             .onUnmappableCharacter(CodingErrorAction.REPORT);
 
+    /**
+     * Reusable buffer holding the bytes of the name or number token being parsed.
+     */
+    private byte[] tokenBuffer = new byte[64];
+
     protected static final int E = 'e';
     protected static final int N = 'n';
     protected static final int D = 'd';
@@ -200,18 +203,10 @@ public abstract class BaseParser
         {
             return new COSObjectKey(num, gen);
         }
-        // use a cache to get the COSObjectKey as iterating over the xref-table-map gets slow for big pdfs
-        // in the long run we have to overhaul the object pool or even better remove it
+        // the compact xref table recreates the key including the stream index without a separate key cache
         Map<COSObjectKey, Long> xrefTable = document.getXrefTable();
-        if (xrefTable.size() > keyCache.size())
-        {
-            for (COSObjectKey key : xrefTable.keySet())
-            {
-                keyCache.putIfAbsent(key.getInternalHash(), key);
-            }
-        }
-        long internalHashCode = COSObjectKey.computeInternalHash(num, gen);
-        COSObjectKey foundKey = keyCache.get(internalHashCode);
+        COSObjectKey foundKey = xrefTable instanceof CompactXrefTable
+                ? ((CompactXrefTable) xrefTable).getObjectKey(num, gen) : null;
         return foundKey != null ? foundKey : new COSObjectKey(num, gen);
     }
 
@@ -889,7 +884,7 @@ public abstract class BaseParser
     protected COSName parseCOSName() throws IOException
     {
         readExpectedChar('/');
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int length = 0;
         int c = source.read();
         while (!isEndOfName(c))
         {
@@ -906,15 +901,7 @@ public abstract class BaseParser
                 // valid hex digits.
                 if (isHexDigit((char)ch1) && isHexDigit((char)ch2))
                 {
-                    String hex = Character.toString((char) ch1) + (char) ch2;
-                    try
-                    {
-                        buffer.write(Integer.parseInt(hex, 16));
-                    }
-                    catch (NumberFormatException e)
-                    {
-                        throw new IOException("Error: expected hex digit, actual='" + hex + "'", e);
-                    }
+                    length = appendToToken(length, Character.digit(ch1, 16) * 16 + Character.digit(ch2, 16));
                     c = source.read();
                 }
                 else
@@ -928,12 +915,12 @@ public abstract class BaseParser
                     }
                     source.rewind(1);
                     c = ch1;
-                    buffer.write(ch);
+                    length = appendToToken(length, ch);
                 }
             }
             else
             {
-                buffer.write(ch);
+                length = appendToToken(length, ch);
                 c = source.read();
             }
         }
@@ -941,32 +928,52 @@ public abstract class BaseParser
         {
             source.rewind(1);
         }
+        for (int i = 0; i < length; i++)
+        {
+            if (tokenBuffer[i] < 0)
+            {
+                return COSName.getPDFName(decodeToken(length));
+            }
+        }
+        // the common case, ASCII names are looked up without creating a String
+        return COSNameCache.get(tokenBuffer, length);
+    }
 
-        return COSName.getPDFName(decodeBuffer(buffer));
+    /**
+     * Adds the given byte to the token buffer, the buffer is enlarged if necessary.
+     *
+     * @param length the current length of the token
+     * @param b the byte to be added
+     * @return the new length of the token
+     */
+    private int appendToToken(int length, int b)
+    {
+        if (length == tokenBuffer.length)
+        {
+            tokenBuffer = Arrays.copyOf(tokenBuffer, length * 2);
+        }
+        tokenBuffer[length] = (byte) b;
+        return length + 1;
     }
 
     /**
-     * Tries to decode the buffer content to an UTF-8 String. If that fails, tries the alternative Encoding.
+     * Tries to decode the token buffer content to an UTF-8 String. If that fails, tries the alternative Encoding.
      *
-     * @param buffer the {@link ByteArrayOutputStream} containing the bytes to decode
+     * @param length the length of the token
      * @return the decoded String
      */
-    private String decodeBuffer(ByteArrayOutputStream buffer)
+    private String decodeToken(int length)
     {
         try
         {
-            return utf8Decoder.decode(ByteBuffer.wrap(buffer.toByteArray())).toString();
+            return utf8Decoder.decode(ByteBuffer.wrap(tokenBuffer, 0, length)).toString();
         }
         catch (CharacterCodingException e)
         {
             // some malformed PDFs don't use UTF-8 see PDFBOX-3347
             Log.d(TAG, "Buffer could not be decoded using StandardCharsets.UTF_8 - trying " +
                     ALTERNATIVE_CHARSET.name(), e);
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-                return buffer.toString(ALTERNATIVE_CHARSET);
-            } else {
-                return new String(buffer.toByteArray(), ALTERNATIVE_CHARSET);
-            }
+            return new String(tokenBuffer, 0, length, ALTERNATIVE_CHARSET);
         }
     }
 
@@ -1061,29 +1068,57 @@ public abstract class BaseParser
 
     private COSNumber parseCOSNumber() throws IOException
     {
-        StringBuilder buf = new StringBuilder();
-        int ic = source.read();
-        char c = (char) ic;
-        while (Character.isDigit(c) || c == '-' || c == '+' || c == '.' || c == 'E' || c == 'e')
+        int length = 0;
+        int c = source.read();
+        while (isDigit(c) || c == '-' || c == '+' || c == '.' || c == 'E' || c == 'e')
         {
-            buf.append(c);
-            ic = source.read();
-            c = (char) ic;
+            length = appendToToken(length, c);
+            c = source.read();
         }
-        if (ic != -1)
+        if (c != -1)
         {
             source.rewind(1);
         }
 
         // PDFBOX-5025: catch "74191endobj"
-        char lastc = buf.charAt(buf.length() - 1);
+        int lastc = tokenBuffer[length - 1];
         if (lastc == 'e' || lastc == 'E')
         {
-            buf.deleteCharAt(buf.length() - 1);
+            length--;
             source.rewind(1);
         }
 
-        return COSNumber.get(buf.toString());
+        COSNumber number = parseTokenInteger(length);
+        return number != null ? number
+                : COSNumber.get(new String(tokenBuffer, 0, length, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Parses the token buffer content as integer without creating a String.
+     *
+     * @param length the length of the token
+     * @return the parsed integer or null if the token isn't a plain integer with up to 18 digits, e.g. a real number
+     */
+    private COSInteger parseTokenInteger(int length)
+    {
+        boolean negative = tokenBuffer[0] == '-';
+        int start = negative || tokenBuffer[0] == '+' ? 1 : 0;
+        // up to 18 digits always fit into a long
+        if (length == start || length - start > 18)
+        {
+            return null;
+        }
+        long value = 0;
+        for (int i = start; i < length; i++)
+        {
+            int digit = tokenBuffer[i] - ASCII_ZERO;
+            if (digit < 0 || digit > 9)
+            {
+                return null;
+            }
+            value = value * 10 + digit;
+        }
+        return COSInteger.get(negative ? -value : value);
     }
 
     /**
@@ -1386,22 +1421,17 @@ public abstract class BaseParser
     protected int readInt() throws IOException
     {
         skipSpaces();
-        int retval = 0;
-
-        StringBuilder intBuffer = readStringNumber();
-
-        try
-        {
-            retval = Integer.parseInt( intBuffer.toString() );
-        }
-        catch( NumberFormatException e )
+        int length = readDigitsToken();
+        long retval = parseTokenDigits(length, Integer.MAX_VALUE);
+        if (retval < 0)
         {
-            source.rewind(intBuffer.toString().getBytes(StandardCharsets.ISO_8859_1).length);
+            String intBuffer = new String(tokenBuffer, 0, length, StandardCharsets.ISO_8859_1);
+            source.rewind(length);
             throw new IOException("Error: Expected an integer type at offset " +
                     source.getPosition() +
-                    ", instead got '" + intBuffer + "'", e);
+                    ", instead got '" + intBuffer + "'");
         }
-        return retval;
+        return (int) retval;
     }
 
 
@@ -1415,19 +1445,14 @@ public abstract class BaseParser
     protected long readLong() throws IOException
     {
         skipSpaces();
-        long retval = 0;
-
-        StringBuilder longBuffer = readStringNumber();
-
-        try
+        int length = readDigitsToken();
+        long retval = parseTokenDigits(length, Long.MAX_VALUE);
+        if (retval < 0)
         {
-            retval = Long.parseLong( longBuffer.toString() );
-        }
-        catch( NumberFormatException e )
-        {
-            source.rewind(longBuffer.toString().getBytes(StandardCharsets.ISO_8859_1).length);
+            String longBuffer = new String(tokenBuffer, 0, length, StandardCharsets.ISO_8859_1);
+            source.rewind(length);
             throw new IOException( "Error: Expected a long type at offset "
-                    + source.getPosition() + ", instead got '" + longBuffer + "'", e);
+                    + source.getPosition() + ", instead got '" + longBuffer + "'");
         }
         return retval;
     }
@@ -1458,4 +1483,56 @@ public abstract class BaseParser
         }
         return buffer;
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads a token consisting of digits into the token buffer, the same way as {@link #readStringNumber()} does.
+     *
+     * @return the length of the token
+     * @throws IOException throws by the {@link #source} methods or if the token is too long.
+     */
+    private int readDigitsToken() throws IOException
+    {
+        int lastByte;
+        int length = 0;
+        while (isDigit(lastByte = source.read()))
+        {
+            length = appendToToken(length, lastByte);
+            if (length > MAX_LENGTH_LONG)
+            {
+                throw new IOException("Number '" + new String(tokenBuffer, 0, length, StandardCharsets.ISO_8859_1)
+                        + "' is getting too long, stop reading at offset " + source.getPosition());
+            }
+        }
+        if (lastByte != -1)
+        {
+            source.rewind(1);
+        }
+        return length;
+    }
+
+    /**
+     * Parses the digits of the token buffer without creating a String.
+     *
+     * @param length the length of the token
+     * @param maxValue the maximum allowed value
+     * @return the parsed value or -1 if the token is empty or the value exceeds the given maximum
+     */
+    private long parseTokenDigits(int length, long maxValue)
+    {
+        if (length == 0)
+        {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++)
+        {
+            int digit = tokenBuffer[i] - ASCII_ZERO;
+            if (value > (maxValue - digit) / 10)
+            {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.pdfparser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.tom_roush.pdfbox.cos.COSName;
+
+/**
+ * A small intern table mapping the raw bytes of ASCII names to their {@link COSName}, so that parsing a name which
+ * was seen before doesn't create any String.
+ *
+ * <p>The table is direct mapped, a new name replaces the entry with the same slot. Entries are immutable, so that the
+ * table can be shared by all parsers without any locking, a lost update only leads to another lookup later.</p>
+ */
+final class COSNameCache
+{
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private static final Entry[] ENTRIES = new Entry[SIZE];
+
+    private COSNameCache()
+    {
+    }
+
+    /**
+     * Returns the name for the given bytes, which must be ASCII only.
+     *
+     * @param bytes buffer holding the bytes of the name
+     * @param length the number of bytes to be used
+     * @return the corresponding name
+     */
+    static COSName get(byte[] bytes, int length)
+    {
+        int hash = 0;
+        for (int i = 0; i < length; i++)
+        {
+            hash = 31 * hash + bytes[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & MASK;
+        Entry entry = ENTRIES[slot];
+        if (entry != null && entry.matches(bytes, length))
+        {
+            return entry.name;
+        }
+        COSName name = COSName.getPDFName(new String(bytes, 0, length, StandardCharsets.ISO_8859_1));
+        ENTRIES[slot] = new Entry(Arrays.copyOf(bytes, length), name);
+        return name;
+    }
+
+    private static final class Entry
+    {
+        private final byte[] bytes;
+        private final COSName name;
+
+        private Entry(byte[] bytes, COSName name)
+        {
+            this.bytes = bytes;
+            this.name = name;
+        }
+
+        private boolean matches(byte[] other, int length)
+        {
+            if (bytes.length != length)
+            {
+                return false;
+            }
+            for (int i = 0; i < length; i++)
+            {
+                if (bytes[i] != other[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -23,11 +23,18 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import com.tom_roush.pdfbox.cos.COSArray;
 import com.tom_roush.pdfbox.cos.COSBase;
@@ -39,6 +46,7 @@ import com.tom_roush.pdfbox.cos.COSNumber;
 import com.tom_roush.pdfbox.cos.COSObject;
 import com.tom_roush.pdfbox.cos.COSObjectKey;
 import com.tom_roush.pdfbox.cos.COSStream;
+import com.tom_roush.pdfbox.cos.CompactXrefTable;
 import com.tom_roush.pdfbox.cos.ICOSParser;
 import com.tom_roush.pdfbox.io.IOUtils;
 import com.tom_roush.pdfbox.io.RandomAccessRead;
@@ -92,6 +100,13 @@ public class COSParser extends BaseParser implements ICOSParser
     public static final String SYSPROP_EOFLOOKUPRANGE =
             "org.apache.pdfbox.pdfparser.nonSequentialPDFParser.eofLookupRange";
 
+    /**
+     * The maximum number of decompressed object streams kept in memory. Less recently used object streams are
+     * evicted and parsed again if needed. All object streams are kept if not set.
+     */
+    public static final String SYSPROP_OBJECTSTREAMCACHESIZE =
+            "org.apache.pdfbox.pdfparser.objectStreamCacheSize";
+
     /**
      * How many trailing bytes to read for EOF marker.
      */
@@ -121,13 +136,39 @@ public class COSParser extends BaseParser implements ICOSParser
 
     private BruteForceParser bruteForceParser = null;
     private PDEncryption encryption = null;
-    private final Map<COSObjectKey, Long> xrefTable = new HashMap<>();
+    private final Map<COSObjectKey, Long> xrefTable = new CompactXrefTable();
 
     /**
      * Intermediate cache. Contains all objects of already read compressed object streams. Objects are removed after
-     * dereferencing them.
+     * dereferencing them. The object streams are kept in access order, so that the least recently used one can be
+     * evicted if the number of object streams is limited.
+     */
+    private final Map<Long, Map<COSObjectKey, COSBase>> decompressedObjects =
+            new LinkedHashMap<Long, Map<COSObjectKey, COSBase>>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Map<COSObjectKey, COSBase>> eldest)
+        {
+            return objectStreamCacheSize > 0 && size() > objectStreamCacheSize;
+        }
+    };
+
+    /**
+     * Maximum number of object streams within the intermediate cache, -1 for no restriction.
      */
-    private final Map<Long, Map<COSObjectKey, COSBase>> decompressedObjects = new HashMap<>();
+    private int objectStreamCacheSize = -1;
+    private long objectStreamCacheHits = 0;
+    private long objectStreamCacheMisses = 0;
+
+    /**
+     * Objects read from the source since the tracking was started, null if the objects aren't tracked.
+     */
+    private List<COSObject> trackedObjects = null;
+
+    /**
+     * Executor used to decompress and parse all object streams in parallel, null if disabled.
+     */
+    private Executor objectStreamPrefetchExecutor = null;
 
     /**
      * The security handler.
@@ -206,6 +247,20 @@ public class COSParser extends BaseParser implements ICOSParser
 
             }
         }
+        String objectStreamCacheSizeStr = System.getProperty(SYSPROP_OBJECTSTREAMCACHESIZE);
+        if (objectStreamCacheSizeStr != null)
+        {
+            try
+            {
+                setObjectStreamCacheSize(Integer.parseInt(objectStreamCacheSizeStr));
+            }
+            catch (NumberFormatException nfe)
+            {
+                Log.w(TAG, String.format(
+                    "System property %s does not contain an integer value, but: '%s'",
+                    SYSPROP_OBJECTSTREAMCACHESIZE, objectStreamCacheSizeStr));
+            }
+        }
         document = new COSDocument(streamCacheCreateFunction, this);
     }
 
@@ -232,6 +287,123 @@ public class COSParser extends BaseParser implements ICOSParser
         }
     }
 
+    /**
+     * Limits the number of decompressed object streams kept in memory. If the limit is reached the least recently used
+     * object stream is evicted and parsed again if one of its objects is needed later. All object streams are kept by
+     * default.
+     *
+     * <p>In case system property {@link #SYSPROP_OBJECTSTREAMCACHESIZE} is defined this value will be set on
+     * initialization but can be overwritten later.</p>
+     *
+     * @param maxObjectStreams the maximum number of object streams, a value less than 1 to keep all object streams
+     */
+    public synchronized void setObjectStreamCacheSize(int maxObjectStreams)
+    {
+        objectStreamCacheSize = maxObjectStreams > 0 ? maxObjectStreams : -1;
+        if (objectStreamCacheSize > 0)
+        {
+            Iterator<Long> iterator = decompressedObjects.keySet().iterator();
+            while (decompressedObjects.size() > objectStreamCacheSize)
+            {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of decompressed object streams kept in memory.
+     *
+     * @return the maximum number of object streams or -1 if all object streams are kept
+     */
+    public synchronized int getObjectStreamCacheSize()
+    {
+        return objectStreamCacheSize;
+    }
+
+    /**
+     * Returns how many compressed objects were taken from an already decompressed object stream.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getObjectStreamCacheHits()
+    {
+        return objectStreamCacheHits;
+    }
+
+    /**
+     * Returns how many compressed objects required to decompress and parse their object stream.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getObjectStreamCacheMisses()
+    {
+        return objectStreamCacheMisses;
+    }
+
+    /**
+     * Returns the number of decompressed objects kept in memory, which weren't dereferenced yet.
+     *
+     * @return the number of cached objects of all object streams
+     */
+    synchronized int getCachedObjectStreamObjectCount()
+    {
+        int count = 0;
+        for (Map<COSObjectKey, COSBase> streamObjects : decompressedObjects.values())
+        {
+            count += streamObjects.size();
+        }
+        return count;
+    }
+
+    /**
+     * Starts to track all objects read from the source, so that they can be released using
+     * {@link #releaseTrackedObjects()}.
+     */
+    synchronized void startObjectTracking()
+    {
+        if (trackedObjects == null)
+        {
+            trackedObjects = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Releases all objects read from the source since the tracking was started or since the last call of this method.
+     * The released objects are parsed again if they are accessed later on, released streams are closed. The
+     * decompressed objects of the object streams are dropped as well, as parsing a released object of an object stream
+     * again adds all other objects of the stream to the cache, including the ones which won't be needed anymore.
+     */
+    synchronized void releaseTrackedObjects()
+    {
+        if (trackedObjects == null)
+        {
+            return;
+        }
+        for (COSObject trackedObject : trackedObjects)
+        {
+            COSBase object = trackedObject.getObject();
+            if (trackedObject.unload(this) && object instanceof COSStream)
+            {
+                IOUtils.closeQuietly((COSStream) object);
+            }
+        }
+        trackedObjects.clear();
+        decompressedObjects.clear();
+    }
+
+    /**
+     * Enables the parallel pre-fetch of all object streams when loading the document. All object streams referenced
+     * by the xref table are decompressed and parsed using the given executor, so that the compressed objects are
+     * available before the first page is accessed. The pre-fetch is disabled by default.
+     *
+     * @param executor the executor to be used to parse the object streams, null to disable the pre-fetch
+     */
+    public void setObjectStreamPrefetchExecutor(Executor executor)
+    {
+        objectStreamPrefetchExecutor = executor;
+    }
+
     /**
      * Read the trailer information and provide a COSDictionary containing the trailer information.
      *
@@ -485,6 +657,10 @@ public class COSParser extends BaseParser implements ICOSParser
                 referencedObject = parseObjectStreamObject(-offsetOrObjstmObNr, objKey);
             }
         }
+        if (trackedObjects != null)
+        {
+            trackedObjects.add(pdfObject);
+        }
         if (referencedObject == null || referencedObject instanceof COSNull)
         {
             // not defined object -> NULL object (Spec. 1.7, chap. 3.2.9)
@@ -621,14 +797,19 @@ public class COSParser extends BaseParser implements ICOSParser
      */
     protected COSBase parseObjectStreamObject(long objstmObjNr, COSObjectKey key) throws IOException
     {
-        Map<COSObjectKey, COSBase> streamObjects = decompressedObjects.computeIfAbsent(objstmObjNr,
-                n -> new HashMap<>());
         // did we already read the compressed object stream?
-        COSBase objectStreamObject = streamObjects.remove(key);
+        Map<COSObjectKey, COSBase> streamObjects = decompressedObjects.get(objstmObjNr);
+        COSBase objectStreamObject = streamObjects != null ? streamObjects.remove(key) : null;
         if (objectStreamObject != null)
         {
+            objectStreamCacheHits++;
+            if (streamObjects.isEmpty())
+            {
+                decompressedObjects.remove(objstmObjNr);
+            }
             return objectStreamObject;
         }
+        objectStreamCacheMisses++;
         final COSObjectKey objKey = getObjectKey(objstmObjNr, 0);
         final COSBase objstmBaseObj = document.getObjectFromPool(objKey).getObject();
         if (objstmBaseObj instanceof COSStream)
@@ -639,8 +820,7 @@ public class COSParser extends BaseParser implements ICOSParser
                         document);
                 Map<COSObjectKey, COSBase> allStreamObjects = parser.parseAllObjects();
                 objectStreamObject = allStreamObjects.remove(key);
-                allStreamObjects.entrySet().stream()
-                        .forEach(e -> streamObjects.putIfAbsent(e.getKey(), e.getValue()));
+                cacheObjectStreamObjects(objstmObjNr, allStreamObjects);
             }
             catch (IOException ex)
             {
@@ -657,6 +837,109 @@ public class COSParser extends BaseParser implements ICOSParser
         return objectStreamObject;
     }
 
+    /**
+     * Keeps the given objects of an object stream until they are dereferenced. Objects which were read already are
+     * skipped, e.g. the other objects of an evicted object stream which is parsed again.
+     *
+     * @param objstmObjNr the number of the object stream
+     * @param streamObjects the parsed objects of the object stream
+     */
+    private void cacheObjectStreamObjects(long objstmObjNr, Map<COSObjectKey, COSBase> streamObjects)
+    {
+        Map<COSObjectKey, COSBase> cachedObjects = null;
+        for (Map.Entry<COSObjectKey, COSBase> entry : streamObjects.entrySet())
+        {
+            if (document.isObjectLoaded(entry.getKey()))
+            {
+                continue;
+            }
+            if (cachedObjects == null)
+            {
+                cachedObjects = decompressedObjects.computeIfAbsent(objstmObjNr, n -> new HashMap<>());
+            }
+            cachedObjects.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Decompresses and parses all object streams referenced by the xref table in parallel using the executor set by
+     * {@link #setObjectStreamPrefetchExecutor(Executor)}. Nothing is done if there isn't any executor.
+     *
+     * <p>The dictionaries of the object streams are parsed by the current thread. The data of every object stream is
+     * read, decompressed and parsed by the executor, using a view of the source created for the thread of the executor.
+     * This method waits until all object streams are processed.</p>
+     *
+     * @throws IOException if an object stream could not be parsed and the parser isn't lenient
+     */
+    protected void prefetchObjectStreams() throws IOException
+    {
+        if (objectStreamPrefetchExecutor == null)
+        {
+            return;
+        }
+        // negative xref values are the object numbers of the object streams holding the object
+        Set<Long> objectStreamNumbers = new TreeSet<>();
+        for (Long offsetOrObjstmObNr : document.getXrefTable().values())
+        {
+            if (offsetOrObjstmObNr != null && offsetOrObjstmObNr < 0)
+            {
+                objectStreamNumbers.add(-offsetOrObjstmObNr);
+            }
+        }
+        Map<Long, COSStream> objectStreams = new HashMap<>();
+        for (Long objstmObjNr : objectStreamNumbers)
+        {
+            COSBase objstmBaseObj = document.getObjectFromPool(getObjectKey(objstmObjNr, 0)).getObject();
+            if (objstmBaseObj instanceof COSStream)
+            {
+                objectStreams.put(objstmObjNr, (COSStream) objstmBaseObj);
+            }
+        }
+        Map<Long, FutureTask<Map<COSObjectKey, COSBase>>> tasks = new HashMap<>();
+        for (Map.Entry<Long, COSStream> entry : objectStreams.entrySet())
+        {
+            COSStream objectStream = entry.getValue();
+            FutureTask<Map<COSObjectKey, COSBase>> task = new FutureTask<>(
+                    () -> new PDFObjectStreamParser(objectStream, document).parseAllObjects());
+            objectStreamPrefetchExecutor.execute(task);
+            tasks.put(entry.getKey(), task);
+        }
+        for (Map.Entry<Long, FutureTask<Map<COSObjectKey, COSBase>>> entry : tasks.entrySet())
+        {
+            Long objstmObjNr = entry.getKey();
+            try
+            {
+                Map<COSObjectKey, COSBase> allStreamObjects = entry.getValue().get();
+                synchronized (this)
+                {
+                    cacheObjectStreamObjects(objstmObjNr, allStreamObjects);
+                }
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing object stream " + objstmObjNr, ex);
+            }
+            catch (ExecutionException ex)
+            {
+                if (isLenient)
+                {
+                    // the object stream is parsed again on demand
+                    Log.e(TAG, "object stream " + objstmObjNr + " could not be parsed due to an exception",
+                            ex.getCause());
+                }
+                else if (ex.getCause() instanceof IOException)
+                {
+                    throw (IOException) ex.getCause();
+                }
+                else
+                {
+                    throw new IOException(ex.getCause());
+                }
+            }
+        }
+    }
+
     /**
      * Returns length value referred to or defined in given object.
      */
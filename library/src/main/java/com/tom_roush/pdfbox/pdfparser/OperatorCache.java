@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.pdfparser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.tom_roush.pdfbox.contentstream.operator.Operator;
+
+/**
+ * A small table mapping the raw bytes of content stream operators to their {@link Operator}, so that reading an
+ * operator doesn't create any String. It works like the {@link COSNameCache}.
+ *
+ * <p>The inline image operators must not be looked up here, as they aren't singletons.</p>
+ */
+final class OperatorCache
+{
+    private static final int SIZE = 256;
+    private static final int MASK = SIZE - 1;
+
+    private static final Entry[] ENTRIES = new Entry[SIZE];
+
+    private OperatorCache()
+    {
+    }
+
+    /**
+     * Returns the operator for the given bytes.
+     *
+     * @param bytes buffer holding the bytes of the operator
+     * @param length the number of bytes to be used
+     * @return the corresponding operator
+     */
+    static Operator get(byte[] bytes, int length)
+    {
+        int hash = 0;
+        for (int i = 0; i < length; i++)
+        {
+            hash = 31 * hash + bytes[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & MASK;
+        Entry entry = ENTRIES[slot];
+        if (entry != null && entry.matches(bytes, length))
+        {
+            return entry.operator;
+        }
+        Operator operator = Operator.getOperator(new String(bytes, 0, length, StandardCharsets.ISO_8859_1));
+        ENTRIES[slot] = new Entry(Arrays.copyOf(bytes, length), operator);
+        return operator;
+    }
+
+    private static final class Entry
+    {
+        private final byte[] bytes;
+        private final Operator operator;
+
+        private Entry(byte[] bytes, Operator operator)
+        {
+            this.bytes = bytes;
+            this.operator = operator;
+        }
+
+        private boolean matches(byte[] other, int length)
+        {
+            if (bytes.length != length)
+            {
+                return false;
+            }
+            for (int i = 0; i < length; i++)
+            {
+                if (bytes[i] != other[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
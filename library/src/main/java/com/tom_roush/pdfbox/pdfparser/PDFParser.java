@@ -105,6 +105,7 @@ public class PDFParser extends COSParser
     protected void initialParse() throws IOException
     {
         COSDictionary trailer = retrieveTrailer();
+        prefetchObjectStreams();
 
         COSDictionary root = trailer.getCOSDictionary(COSName.ROOT);
         if (root == null)
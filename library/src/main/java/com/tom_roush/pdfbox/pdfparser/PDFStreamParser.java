@@ -19,6 +19,7 @@ package com.tom_roush.pdfbox.pdfparser;
 import android.util.Log;
 
 import com.tom_roush.pdfbox.contentstream.PDContentStream;
+import com.tom_roush.pdfbox.contentstream.operator.OperandStack;
 import com.tom_roush.pdfbox.contentstream.operator.Operator;
 import com.tom_roush.pdfbox.contentstream.operator.OperatorName;
 import com.tom_roush.pdfbox.cos.COSBase;
@@ -33,6 +34,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -47,6 +49,11 @@ public class PDFStreamParser extends BaseParser
     private final byte[] binCharTestArr = new byte[MAX_BIN_CHAR_TEST_LENGTH];
     private int inlineImageDepth = 0;
     private long inlineOffset = 0;
+    private byte[] lexeme = new byte[16];
+
+    // powers of ten which are exact float values
+    private static final float[] POWERS_OF_TEN = { 1f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+    private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
 
     /**
      * Constructor.
@@ -86,6 +93,184 @@ public class PDFStreamParser extends BaseParser
         return streamObjects;
     }
 
+    /**
+     * This will parse the operands of the next operator into the given stack and return the operator. Numbers and
+     * operators are read without creating any object, numbers are pushed as primitive values. All other operands are
+     * parsed like in {@link #parseNextToken()}.
+     *
+     * @param operands the stack to push the operands to, it isn't cleared before
+     * @return the next operator or null if there are no more operators in the stream.
+     *
+     * @throws IOException If an io error occurs while parsing the stream.
+     */
+    public Operator parseNextOperator(OperandStack operands) throws IOException
+    {
+        while (!source.isClosed())
+        {
+            skipSpaces();
+            if (source.isEOF())
+            {
+                close();
+                return null;
+            }
+            int c = source.peek();
+            switch (c)
+            {
+                case '0':
+                case '1':
+                case '2':
+                case '3':
+                case '4':
+                case '5':
+                case '6':
+                case '7':
+                case '8':
+                case '9':
+                case '-':
+                case '+':
+                case '.':
+                    readNumber(operands);
+                    break;
+                case '<':
+                case '[':
+                case '(':
+                case '/':
+                case 'n':
+                case 't':
+                case 'f':
+                case 'B':
+                case 'I':
+                case ']':
+                    Object token = parseNextToken();
+                    if (token == null || token instanceof Operator)
+                    {
+                        return (Operator) token;
+                    }
+                    operands.add((COSBase) token);
+                    break;
+                default:
+                    return readCachedOperator();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a number like {@link #parseNextToken()} does and pushes it to the given stack. Integers and reals which
+     * can be converted exactly are pushed as primitive values.
+     */
+    private void readNumber(OperandStack operands) throws IOException
+    {
+        int c = source.read();
+        int length = appendToLexeme(0, c);
+        boolean negative = c == '-';
+        // Ignore double negative (this is consistent with Adobe Reader)
+        if (negative && source.peek() == c)
+        {
+            source.read();
+        }
+        boolean dotNotRead = c != '.';
+        long mantissa = c >= '0' && c <= '9' ? c - '0' : 0;
+        int digits = c >= '0' && c <= '9' ? 1 : 0;
+        int scale = 0;
+        boolean exact = true;
+        while ((c = source.peek()) >= '0' && c <= '9' || dotNotRead && c == '.' || c == '-')
+        {
+            source.read();
+            if (c == '-')
+            {
+                // PDFBOX-4064: ignore "-" in the middle of a number
+                continue;
+            }
+            length = appendToLexeme(length, c);
+            if (c == '.')
+            {
+                dotNotRead = false;
+                continue;
+            }
+            digits++;
+            if (!dotNotRead)
+            {
+                scale++;
+            }
+            if (mantissa > (Long.MAX_VALUE - 9) / 10)
+            {
+                exact = false;
+            }
+            else
+            {
+                mantissa = mantissa * 10 + c - '0';
+            }
+        }
+        if (length == 1 && lexeme[0] == '+')
+        {
+            // PDFBOX-5906
+            Log.w(TAG, "isolated '+' is ignored");
+            operands.add(COSNull.NULL);
+        }
+        else if (digits == 0 && length == 1)
+        {
+            // See https://issues.apache.org/jira/browse/PDFBOX-592
+            operands.pushInteger(0);
+        }
+        else if (exact && digits > 0 && dotNotRead)
+        {
+            operands.pushInteger(negative ? -mantissa : mantissa);
+        }
+        else if (exact && digits > 0 && mantissa < MAX_EXACT_FLOAT_MANTISSA && scale < POWERS_OF_TEN.length)
+        {
+            // both values are exact, so that the division is rounded like Float.parseFloat
+            float value = mantissa / POWERS_OF_TEN[scale];
+            // COSFloat converts -0 to 0
+            operands.pushReal(negative && mantissa != 0 ? -value : value);
+        }
+        else
+        {
+            operands.add(COSNumber.get(new String(lexeme, 0, length, StandardCharsets.ISO_8859_1)));
+        }
+    }
+
+    /**
+     * Reads an operator like {@link #readOperator()} does, without creating a String for operators seen before.
+     */
+    private Operator readCachedOperator() throws IOException
+    {
+        int length = 0;
+        boolean trim = false;
+        int nextChar = source.peek();
+        while (nextChar != -1 && !isWhitespace(nextChar) && nextChar != '[' && nextChar != '<'
+                && nextChar != '(' && nextChar != '/' && nextChar != '%' && (nextChar < '0' || nextChar > '9'))
+        {
+            int currentChar = source.read();
+            nextChar = source.peek();
+            length = appendToLexeme(length, currentChar);
+            trim |= currentChar <= ' ';
+            // Type3 Glyph description has operators with a number in the name
+            if (currentChar == 'd' && (nextChar == '0' || nextChar == '1'))
+            {
+                length = appendToLexeme(length, source.read());
+                nextChar = source.peek();
+            }
+        }
+        if (trim)
+        {
+            // rare case, control characters are trimmed like in parseNextToken()
+            String operator = new String(lexeme, 0, length, StandardCharsets.ISO_8859_1).trim();
+            return operator.isEmpty() ? null : Operator.getOperator(operator);
+        }
+        return length == 0 ? null : OperatorCache.get(lexeme, length);
+    }
+
+    private int appendToLexeme(int length, int b)
+    {
+        if (length == lexeme.length)
+        {
+            lexeme = Arrays.copyOf(lexeme, length * 2);
+        }
+        lexeme[length] = (byte) b;
+        return length + 1;
+    }
+
     /**
      * This will parse the next token in the stream.
      *
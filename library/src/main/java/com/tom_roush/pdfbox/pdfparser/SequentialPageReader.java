@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.pdfparser;
+
+import android.util.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.tom_roush.pdfbox.cos.COSArray;
+import com.tom_roush.pdfbox.cos.COSBase;
+import com.tom_roush.pdfbox.cos.COSDictionary;
+import com.tom_roush.pdfbox.cos.COSName;
+import com.tom_roush.pdfbox.cos.COSObject;
+import com.tom_roush.pdfbox.cos.COSObjectKey;
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+
+/**
+ * Reads the pages of a PDF one after another in a single forward pass.
+ *
+ * <p>The page tree is walked lazily, only the nodes on the path to the current page are resolved. All objects read
+ * from the source while a page is the current page are released as soon as the following page is requested using
+ * {@link #hasNext()} or {@link #next()}. Released objects are parsed again if they are needed later on, released
+ * streams are closed. Therefore a page must not be used after the iterator moved on, and the memory needed stays
+ * proportional to a single page instead of the whole document.</p>
+ *
+ * <p>The pages don't use the resource cache of the document, as it would keep the resources of all pages. Objects
+ * changed by the caller are never released.</p>
+ */
+public class SequentialPageReader implements Iterator<PDPage>, Closeable
+{
+    private static final String TAG = "PdfBox-Android";
+
+    private final PDFParser parser;
+    private final PDDocument document;
+    private final Deque<PageTreeNode> nodes = new ArrayDeque<>();
+    private PDPage nextPage = null;
+
+    /**
+     * Constructor. The given parser is used to parse the document, it may be configured before, e.g. to limit the
+     * number of cached object streams.
+     *
+     * @param parser the parser to be used to read the document, must not have parsed the document yet
+     * @throws IOException if the document could not be parsed
+     */
+    public SequentialPageReader(PDFParser parser) throws IOException
+    {
+        this.parser = parser;
+        document = parser.parse();
+        COSDictionary pages = document.getDocumentCatalog().getCOSObject().getCOSDictionary(COSName.PAGES);
+        COSArray kids = pages != null ? pages.getCOSArray(COSName.KIDS) : null;
+        if (kids != null)
+        {
+            nodes.push(new PageTreeNode(kids, pages.getKey()));
+        }
+        // everything read so far belongs to the document and is kept
+        parser.startObjectTracking();
+    }
+
+    /**
+     * Returns the document the pages belong to.
+     *
+     * @return the document
+     */
+    public PDDocument getDocument()
+    {
+        return document;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (nextPage == null)
+        {
+            parser.releaseTrackedObjects();
+            nextPage = findNextPage();
+        }
+        return nextPage != null;
+    }
+
+    @Override
+    public PDPage next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        PDPage page = nextPage;
+        nextPage = null;
+        return page;
+    }
+
+    /**
+     * Releases the objects of the current page and closes the document.
+     *
+     * @throws IOException if the document could not be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        parser.releaseTrackedObjects();
+        nodes.clear();
+        nextPage = null;
+        document.close();
+    }
+
+    private PDPage findNextPage()
+    {
+        while (!nodes.isEmpty())
+        {
+            PageTreeNode node = nodes.peek();
+            if (node.index >= node.kids.size())
+            {
+                nodes.pop();
+                continue;
+            }
+            COSBase kid = node.kids.get(node.index++);
+            COSObjectKey kidKey = kid instanceof COSObject ? kid.getKey() : null;
+            COSBase kidObject = kid instanceof COSObject ? ((COSObject) kid).getObject() : kid;
+            if (!(kidObject instanceof COSDictionary))
+            {
+                continue;
+            }
+            COSDictionary kidDictionary = (COSDictionary) kidObject;
+            // some files don't have Pages set as the Type, so we have to check for the presence of Kids too
+            if (kidDictionary.getCOSName(COSName.TYPE) == COSName.PAGES
+                    || kidDictionary.containsKey(COSName.KIDS))
+            {
+                if (isAncestor(kidKey))
+                {
+                    Log.w(TAG, "Skipped page tree node " + kidKey + " as it is one of its own ancestors");
+                    continue;
+                }
+                COSArray kids = kidDictionary.getCOSArray(COSName.KIDS);
+                if (kids != null)
+                {
+                    nodes.push(new PageTreeNode(kids, kidKey));
+                }
+            }
+            else
+            {
+                COSName type = kidDictionary.getCOSName(COSName.TYPE);
+                if (type == null)
+                {
+                    kidDictionary.setItem(COSName.TYPE, COSName.PAGE);
+                }
+                else if (!COSName.PAGE.equals(type))
+                {
+                    throw new IllegalStateException("Expected 'Page' but found " + type);
+                }
+                return new PDPage(kidDictionary);
+            }
+        }
+        return null;
+    }
+
+    private boolean isAncestor(COSObjectKey key)
+    {
+        if (key == null)
+        {
+            return false;
+        }
+        // the released nodes are parsed again, so that the keys have to be compared instead of the dictionaries
+        for (PageTreeNode node : nodes)
+        {
+            if (key.equals(node.key))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class PageTreeNode
+    {
+        private final COSArray kids;
+        private final COSObjectKey key;
+        private int index = 0;
+
+        private PageTreeNode(COSArray kids, COSObjectKey key)
+        {
+            this.kids = kids;
+            this.key = key;
+        }
+    }
+}
@@ -17,25 +17,33 @@
 
 package com.tom_roush.pdfbox.pdmodel;
 
+import android.graphics.Bitmap;
+
 import java.io.IOException;
 import java.lang.ref.SoftReference;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.tom_roush.pdfbox.cos.COSObject;
 import com.tom_roush.pdfbox.pdmodel.documentinterchange.markedcontent.PDPropertyList;
 import com.tom_roush.pdfbox.pdmodel.font.PDFont;
 import com.tom_roush.pdfbox.pdmodel.graphics.PDXObject;
 import com.tom_roush.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import com.tom_roush.pdfbox.pdmodel.graphics.image.ImageCacheKey;
 import com.tom_roush.pdfbox.pdmodel.graphics.pattern.PDAbstractPattern;
 import com.tom_roush.pdfbox.pdmodel.graphics.shading.PDShading;
 import com.tom_roush.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
 
 /**
  * A resource cached based on SoftReference, retains resources until memory pressure causes them
- * to be garbage collected.
+ * to be garbage collected. The cache can be used by several threads, e.g. when rendering pages
+ * concurrently.
+ *
+ * <p>Decoded images are kept in a separate cache, bounded by the size of the images in bytes,
+ * the least recently used images are evicted first.</p>
  *
  * @author John Hewson
  */
@@ -43,42 +51,51 @@ public class DefaultResourceCache implements ResourceCache
 {
     private static final int maxRemovals = 3;
 
+    /**
+     * The default maximum size of all cached decoded images in bytes.
+     */
+    public static final long DEFAULT_MAX_IMAGE_CACHE_SIZE = 16L * 1024 * 1024;
+
     private final boolean stableCacheEnabled;
 
     private final Map<COSObject, SoftReference<PDFont>> fonts =
-            new HashMap<>();
-    private final Map<Long, Integer> removedFonts = new HashMap<>();
-    private final Set<Long> stableFonts = new HashSet<>();
+            new ConcurrentHashMap<>();
+    private final Map<Long, Integer> removedFonts = new ConcurrentHashMap<>();
+    private final Set<Long> stableFonts = ConcurrentHashMap.newKeySet();
 
     private final Map<COSObject, SoftReference<PDColorSpace>> colorSpaces =
-            new HashMap<>();
-    private final Map<Long, Integer> removedColorSpaces = new HashMap<>();
-    private final Set<Long> stableColorSpaces = new HashSet<>();
+            new ConcurrentHashMap<>();
+    private final Map<Long, Integer> removedColorSpaces = new ConcurrentHashMap<>();
+    private final Set<Long> stableColorSpaces = ConcurrentHashMap.newKeySet();
 
     private final Map<COSObject, SoftReference<PDXObject>> xobjects =
-            new HashMap<>();
-    private final Map<Long, Integer> removedXObjects = new HashMap<>();
-    private final Set<Long> stableXObject = new HashSet<>();
+            new ConcurrentHashMap<>();
+    private final Map<Long, Integer> removedXObjects = new ConcurrentHashMap<>();
+    private final Set<Long> stableXObject = ConcurrentHashMap.newKeySet();
 
     private final Map<COSObject, SoftReference<PDExtendedGraphicsState>> extGStates =
-            new HashMap<>();
-    private final Map<Long, Integer> removedExtGStates = new HashMap<>();
-    private final Set<Long> stableExtGStates = new HashSet<>();
+            new ConcurrentHashMap<>();
+    private final Map<Long, Integer> removedExtGStates = new ConcurrentHashMap<>();
+    private final Set<Long> stableExtGStates = ConcurrentHashMap.newKeySet();
 
     private final Map<COSObject, SoftReference<PDShading>> shadings =
-            new HashMap<>();
-    private final Map<Long, Integer> removedShadings = new HashMap<>();
-    private final Set<Long> stableShadings = new HashSet<>();
+            new ConcurrentHashMap<>();
+    private final Map<Long, Integer> removedShadings = new ConcurrentHashMap<>();
+    private final Set<Long> stableShadings = ConcurrentHashMap.newKeySet();
 
     private final Map<COSObject, SoftReference<PDAbstractPattern>> patterns =
-            new HashMap<>();
-    private final Map<Long, Integer> removedPatterns = new HashMap<>();
-    private final Set<Long> stablePatterns = new HashSet<>();
+            new ConcurrentHashMap<>();
+    private final Map<Long, Integer> removedPatterns = new ConcurrentHashMap<>();
+    private final Set<Long> stablePatterns = ConcurrentHashMap.newKeySet();
 
     private final Map<COSObject, SoftReference<PDPropertyList>> properties =
-            new HashMap<>();
-    private final Map<Long, Integer> removedProperties = new HashMap<>();
-    private final Set<Long> stableProperties = new HashSet<>();
+            new ConcurrentHashMap<>();
+    private final Map<Long, Integer> removedProperties = new ConcurrentHashMap<>();
+    private final Set<Long> stableProperties = ConcurrentHashMap.newKeySet();
+
+    private final Map<ImageCacheKey, Bitmap> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long imageCacheSize = 0;
+    private long maxImageCacheSize = DEFAULT_MAX_IMAGE_CACHE_SIZE;
 
     /**
      * Default constructor.
@@ -380,4 +397,90 @@ public class DefaultResourceCache implements ResourceCache
         return xobject != null ? xobject.get() : null;
     }
 
+    @Override
+    public Bitmap getImage(ImageCacheKey key)
+    {
+        synchronized (images)
+        {
+            return images.get(key);
+        }
+    }
+
+    @Override
+    public void put(ImageCacheKey key, Bitmap image)
+    {
+        long byteCount = image.getAllocationByteCount();
+        synchronized (images)
+        {
+            if (byteCount > maxImageCacheSize)
+            {
+                return;
+            }
+            Bitmap previous = images.put(key, image);
+            if (previous != null)
+            {
+                imageCacheSize -= previous.getAllocationByteCount();
+            }
+            imageCacheSize += byteCount;
+            trimImages();
+        }
+    }
+
+    /**
+     * Returns the maximum size of all cached decoded images.
+     *
+     * @return the maximum size in bytes
+     */
+    public long getMaxImageCacheSize()
+    {
+        synchronized (images)
+        {
+            return maxImageCacheSize;
+        }
+    }
+
+    /**
+     * Sets the maximum size of all cached decoded images, 0 disables caching of decoded images.
+     * Images exceeding the new size are evicted immediately.
+     *
+     * @param maxImageCacheSize the maximum size in bytes
+     */
+    public void setMaxImageCacheSize(long maxImageCacheSize)
+    {
+        if (maxImageCacheSize < 0)
+        {
+            throw new IllegalArgumentException("maxImageCacheSize must not be negative: "
+                + maxImageCacheSize);
+        }
+        synchronized (images)
+        {
+            this.maxImageCacheSize = maxImageCacheSize;
+            trimImages();
+        }
+    }
+
+    /**
+     * Returns the size of all cached decoded images.
+     *
+     * @return the size in bytes
+     */
+    public long getImageCacheSize()
+    {
+        synchronized (images)
+        {
+            return imageCacheSize;
+        }
+    }
+
+    private void trimImages()
+    {
+        Iterator<Bitmap> iterator = images.values().iterator();
+        while (imageCacheSize > maxImageCacheSize && iterator.hasNext())
+        {
+            // the image isn't recycled, it may still be used by a page being rendered
+            imageCacheSize -= iterator.next().getAllocationByteCount();
+            iterator.remove();
+        }
+    }
+
 }
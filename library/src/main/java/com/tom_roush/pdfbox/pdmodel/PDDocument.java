@@ -38,6 +38,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.tom_roush.fontbox.ttf.TrueTypeFont;
+import com.tom_roush.pdfbox.contentstream.ContentStreamCache;
 import com.tom_roush.pdfbox.cos.COSArray;
 import com.tom_roush.pdfbox.cos.COSBase;
 import com.tom_roush.pdfbox.cos.COSDictionary;
@@ -160,6 +161,9 @@ public class PDDocument implements Closeable
     // document-wide cached resources
     private ResourceCache resourceCache = ResourceCacheFactory.createResourceCache();
 
+    // optional document-wide cache of parsed content streams
+    private ContentStreamCache contentStreamCache;
+
     // to make sure only one signature is added
     private boolean signatureAdded = false;
 
@@ -1506,4 +1510,25 @@ public class PDDocument implements Closeable
     {
         this.resourceCache = resourceCache;
     }
+
+    /**
+     * Returns the cache of parsed content streams used when rendering or extracting text.
+     *
+     * @return the content stream cache of the document, or null if streams are parsed each time they are processed
+     */
+    public ContentStreamCache getContentStreamCache()
+    {
+        return contentStreamCache;
+    }
+
+    /**
+     * Sets the cache of parsed content streams used when rendering or extracting text, so that pages and forms which
+     * are processed more than once are parsed only once. There is no cache by default.
+     *
+     * @param contentStreamCache A content stream cache, or null.
+     */
+    public void setContentStreamCache(ContentStreamCache contentStreamCache)
+    {
+        this.contentStreamCache = contentStreamCache;
+    }
 }
@@ -17,12 +17,15 @@
 
 package com.tom_roush.pdfbox.pdmodel;
 
+import android.graphics.Bitmap;
+
 import java.io.IOException;
 import com.tom_roush.pdfbox.cos.COSObject;
 import com.tom_roush.pdfbox.pdmodel.documentinterchange.markedcontent.PDPropertyList;
 import com.tom_roush.pdfbox.pdmodel.font.PDFont;
 import com.tom_roush.pdfbox.pdmodel.graphics.PDXObject;
 import com.tom_roush.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import com.tom_roush.pdfbox.pdmodel.graphics.image.ImageCacheKey;
 import com.tom_roush.pdfbox.pdmodel.graphics.pattern.PDAbstractPattern;
 import com.tom_roush.pdfbox.pdmodel.graphics.shading.PDShading;
 import com.tom_roush.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
@@ -209,4 +212,26 @@ public interface ResourceCache
      */
     PDXObject removeXObject(COSObject indirect);
 
+    /**
+     * Returns the decoded image for the given key, if it is in the cache. The returned image is
+     * shared and must not be modified.
+     *
+     * @param key the key of the decoded image
+     * @return the cached image, if available
+     */
+    default Bitmap getImage(ImageCacheKey key)
+    {
+        return null;
+    }
+
+    /**
+     * Puts the given decoded image in the cache.
+     *
+     * @param key the key of the decoded image
+     * @param image the decoded image to be cached
+     */
+    default void put(ImageCacheKey key, Bitmap image)
+    {
+    }
+
 }
@@ -21,8 +21,8 @@ import android.util.Log;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.tom_roush.fontbox.cff.CFFFont;
 import com.tom_roush.fontbox.cff.Type2CharString;
@@ -57,7 +57,7 @@ public class PDCIDFontType2 extends PDCIDFont
     private final CmapLookup cmap; // may be null
     private Matrix fontMatrix;
     private BoundingBox fontBBox;
-    private final Set<Integer> noMapping = new HashSet<>();
+    private final Set<Integer> noMapping = ConcurrentHashMap.newKeySet();
 
     /**
      * Constructor.
@@ -21,9 +21,9 @@ import android.graphics.Rect;
 import android.util.Log;
 
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.tom_roush.fontbox.FontBoxFont;
 import com.tom_roush.pdfbox.cos.COSBase;
@@ -48,7 +48,7 @@ public abstract class PDSimpleFont extends PDFont
     protected Encoding encoding;
     protected GlyphList glyphList;
     private Boolean isSymbolic;
-    private final Set<Integer> noUnicode = new HashSet<>(); // for logging
+    private final Set<Integer> noUnicode = ConcurrentHashMap.newKeySet(); // for logging
 
     /**
      * Constructor for embedding.
@@ -22,9 +22,9 @@ import android.util.Log;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.tom_roush.Global;
 import com.tom_roush.fontbox.cmap.CMap;
@@ -53,7 +53,7 @@ public class PDType0Font extends PDFont implements PDVectorFont
 {
 
     private final PDCIDFont descendantFont;
-    private final Set<Integer> noUnicode = new HashSet<>();
+    private final Set<Integer> noUnicode = ConcurrentHashMap.newKeySet();
     private final GsubData gsubData;
     private final CmapLookup cmapLookup;
     private CMap cMap, cMapUCS2;
@@ -92,7 +92,7 @@ public class PDType1Font extends PDSimpleFont implements PDVectorFont
     /**
      * to improve encoding speed.
      */
-    private final Map<Integer, byte[]> codeToBytesMap = new HashMap<>();
+    private final Map<Integer, byte[]> codeToBytesMap = new ConcurrentHashMap<>();
     private Matrix fontMatrix;
     private BoundingBox fontBBox;
 
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.pdmodel.graphics.image;
+
+import com.tom_roush.pdfbox.cos.COSBase;
+import com.tom_roush.pdfbox.cos.COSStream;
+
+/**
+ * The key of a decoded image in the {@link com.tom_roush.pdfbox.pdmodel.ResourceCache}.
+ *
+ * <p>A decoded image depends on the image stream, the subsampling and the masks applied to it, and
+ * on the color space, which may be resolved using the resources of the page. All of them are
+ * compared by identity, so that the same image used on several pages is decoded only once.</p>
+ */
+public final class ImageCacheKey
+{
+    private final COSStream stream;
+    private final int subsampling;
+    private final COSBase softMask;
+    private final COSBase mask;
+    private final COSBase colorSpace;
+
+    ImageCacheKey(COSStream stream, int subsampling, COSBase softMask, COSBase mask,
+        COSBase colorSpace)
+    {
+        this.stream = stream;
+        this.subsampling = subsampling;
+        this.softMask = softMask;
+        this.mask = mask;
+        this.colorSpace = colorSpace;
+    }
+
+    /**
+     * Returns the stream of the image.
+     *
+     * @return the image stream
+     */
+    public COSStream getStream()
+    {
+        return stream;
+    }
+
+    /**
+     * Returns the subsampling the image was decoded with.
+     *
+     * @return the subsampling, 1 if the image wasn't subsampled
+     */
+    public int getSubsampling()
+    {
+        return subsampling;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (!(obj instanceof ImageCacheKey))
+        {
+            return false;
+        }
+        ImageCacheKey other = (ImageCacheKey) obj;
+        return stream == other.stream && subsampling == other.subsampling
+            && softMask == other.softMask && mask == other.mask
+            && colorSpace == other.colorSpace;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * System.identityHashCode(stream) + subsampling;
+    }
+}
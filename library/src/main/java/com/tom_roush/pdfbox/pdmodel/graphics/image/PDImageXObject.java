@@ -46,6 +46,7 @@ import com.tom_roush.pdfbox.filter.DecodeResult;
 import com.tom_roush.pdfbox.io.IOUtils;
 import com.tom_roush.pdfbox.pdmodel.PDDocument;
 import com.tom_roush.pdfbox.pdmodel.PDResources;
+import com.tom_roush.pdfbox.pdmodel.ResourceCache;
 import com.tom_roush.pdfbox.pdmodel.common.PDMetadata;
 import com.tom_roush.pdfbox.pdmodel.common.PDStream;
 import com.tom_roush.pdfbox.pdmodel.documentinterchange.markedcontent.PDPropertyList;
@@ -468,7 +469,8 @@ public final class PDImageXObject extends PDXObject implements PDImage
 
     /**
      * {@inheritDoc}
-     * The returned images are cached via a SoftReference.
+     * The returned images are cached via a SoftReference and in the {@link ResourceCache} of the
+     * document, so they must not be modified.
      */
     @Override
     public Bitmap getImage() throws IOException
@@ -491,6 +493,20 @@ public final class PDImageXObject extends PDXObject implements PDImage
             }
         }
 
+        // images used on several pages are shared using the resource cache of the document
+        ResourceCache resourceCache = region == null && resources != null ?
+            resources.getResourceCache() : null;
+        ImageCacheKey key = null;
+        if (resourceCache != null)
+        {
+            key = createCacheKey(subsampling);
+            Bitmap cached = resourceCache.getImage(key);
+            if (cached != null)
+            {
+                return cached;
+            }
+        }
+
         // get RGB image w/o reference because applyMask might modify it, take long time and a lot of memory.
         final Bitmap image;
         final PDImageXObject softMask = getSoftMask();
@@ -519,10 +535,28 @@ public final class PDImageXObject extends PDXObject implements PDImage
             cachedImageSubsampling = subsampling;
             cachedImage = new SoftReference<Bitmap>(image);
         }
+        if (key != null)
+        {
+            resourceCache.put(key, image);
+        }
 
         return image;
     }
 
+    private ImageCacheKey createCacheKey(int subsampling) throws IOException
+    {
+        COSStream stream = getCOSObject();
+        // a named color space may be resolved differently using the resources of another page
+        COSBase colorSpaceKey = null;
+        if (!isStencil() && stream.getItem(COSName.COLORSPACE, COSName.CS) != null)
+        {
+            colorSpaceKey = getColorSpace().getCOSObject();
+        }
+        return new ImageCacheKey(stream, subsampling,
+            stream.getDictionaryObject(COSName.SMASK), stream.getDictionaryObject(COSName.MASK),
+            colorSpaceKey);
+    }
+
     /**
      * Extract the matte color from a softmask.
      *
@@ -575,6 +609,21 @@ public final class PDImageXObject extends PDXObject implements PDImage
         return SampledImageReader.getRGBImage(this, null);
     }
 
+    /**
+     * Returns an RGB buffered image containing the opaque image stream without any masks applied,
+     * like {@link #getOpaqueImage()}, but only the given region and subsampled.
+     *
+     * @param region The region of the image to be read, null for the whole image
+     * @param subsampling The amount of rows and columns to advance for every output pixel, a value
+     * of 1 meaning every pixel will be read
+     * @return the image without any masks applied
+     * @throws IOException if the image cannot be read
+     */
+    public Bitmap getOpaqueImage(Rect region, int subsampling) throws IOException
+    {
+        return SampledImageReader.getRGBImage(this, region, subsampling, null);
+    }
+
     /**
      * @param image The image to apply the mask to as alpha channel.
      * @param mask A mask image in 8 bit Gray. Even for a stencil mask image due to
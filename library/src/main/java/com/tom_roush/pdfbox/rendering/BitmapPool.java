@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A pool of the intermediate bitmaps used while drawing a page, e.g. the surfaces of masked
+ * images, so that they aren't allocated for every single drawing operation.
+ *
+ * <p>The bitmaps are bucketed by their allocation size in powers of two. A pooled bitmap is
+ * reconfigured to the requested size and config if its allocation is large enough. It is taken
+ * from the bucket of the needed size or from the next larger one, so that its allocation is less
+ * than four times the needed size. The pool is bounded by the total allocation size of the pooled
+ * bitmaps, the largest bitmaps are recycled first. It can be used by several threads.</p>
+ */
+final class BitmapPool
+{
+    private static final int BUCKET_COUNT = 32;
+
+    private final List<ArrayDeque<Bitmap>> buckets = new ArrayList<>(BUCKET_COUNT);
+    private long maxSize;
+    private long size = 0;
+
+    BitmapPool(long maxSize)
+    {
+        this.maxSize = maxSize;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    synchronized long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    synchronized void setMaxSize(long maxSize)
+    {
+        this.maxSize = maxSize;
+        trim();
+    }
+
+    /**
+     * Returns the total allocation size of the pooled bitmaps.
+     */
+    synchronized long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Returns a mutable bitmap of the given size and config, cleared to transparent.
+     */
+    Bitmap acquire(int width, int height, Bitmap.Config config)
+    {
+        long needed = (long) width * height * getBytesPerPixel(config);
+        Bitmap bitmap = take(needed);
+        if (bitmap == null)
+        {
+            return Bitmap.createBitmap(width, height, config);
+        }
+        bitmap.reconfigure(width, height, config);
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+    }
+
+    /**
+     * Returns the given bitmap to the pool. The bitmap must not be used by the caller anymore,
+     * e.g. it must not have been drawn onto a hardware accelerated canvas, which keeps a
+     * reference to it.
+     */
+    void release(Bitmap bitmap)
+    {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable())
+        {
+            return;
+        }
+        int byteCount = bitmap.getAllocationByteCount();
+        synchronized (this)
+        {
+            if (byteCount <= maxSize)
+            {
+                buckets.get(getBucket(byteCount)).addLast(bitmap);
+                size += byteCount;
+                trim();
+                return;
+            }
+        }
+        bitmap.recycle();
+    }
+
+    private synchronized Bitmap take(long needed)
+    {
+        int bucket = getBucket(needed);
+        // the bitmaps of the matching bucket may be too small, those of the next one are not
+        Iterator<Bitmap> iterator = buckets.get(bucket).iterator();
+        while (iterator.hasNext())
+        {
+            Bitmap bitmap = iterator.next();
+            if (bitmap.getAllocationByteCount() >= needed)
+            {
+                iterator.remove();
+                size -= bitmap.getAllocationByteCount();
+                return bitmap;
+            }
+        }
+        if (bucket + 1 < BUCKET_COUNT && !buckets.get(bucket + 1).isEmpty())
+        {
+            Bitmap bitmap = buckets.get(bucket + 1).removeLast();
+            size -= bitmap.getAllocationByteCount();
+            return bitmap;
+        }
+        return null;
+    }
+
+    private void trim()
+    {
+        for (int i = BUCKET_COUNT - 1; i >= 0 && size > maxSize; i--)
+        {
+            while (size > maxSize && !buckets.get(i).isEmpty())
+            {
+                Bitmap bitmap = buckets.get(i).removeFirst();
+                size -= bitmap.getAllocationByteCount();
+                bitmap.recycle();
+            }
+        }
+    }
+
+    private static int getBucket(long byteCount)
+    {
+        return Math.min(63 - Long.numberOfLeadingZeros(Math.max(byteCount, 1)), BUCKET_COUNT - 1);
+    }
+
+    private static int getBytesPerPixel(Bitmap.Config config)
+    {
+        switch (config)
+        {
+            case ALPHA_8:
+                return 1;
+            case RGB_565:
+            case ARGB_4444:
+                return 2;
+            case RGBA_F16:
+                return 8;
+            default:
+                return 4;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops rendering of a page when it is cancelled or when its deadline has passed.
+ *
+ * <p>The token is checked between the operators of the content streams, the page drawn so far is
+ * kept. A single operator, e.g. decoding a huge image, isn't interrupted. A token may be cancelled
+ * from any thread and may be shared by several pages.</p>
+ *
+ * @see PDFRenderer#renderImage(int, float, ImageType, RenderDestination, CancellationToken)
+ */
+public final class CancellationToken
+{
+    private final boolean hasDeadline;
+    private final long deadline;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Creates a token without deadline, which only stops rendering when it is cancelled.
+     */
+    public CancellationToken()
+    {
+        hasDeadline = false;
+        deadline = 0;
+    }
+
+    /**
+     * Creates a token which stops rendering when the given time has passed or it is cancelled.
+     *
+     * @param timeout the time budget, starting now
+     * @param unit the unit of the timeout
+     */
+    public CancellationToken(long timeout, TimeUnit unit)
+    {
+        hasDeadline = true;
+        deadline = System.nanoTime() + unit.toNanos(timeout);
+    }
+
+    /**
+     * Cancels rendering of all pages using this token.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether the token was cancelled or its deadline has passed.
+     *
+     * @return true if rendering is to be stopped
+     */
+    public boolean isCancelled()
+    {
+        if (!cancelled && hasDeadline && System.nanoTime() - deadline >= 0)
+        {
+            cancelled = true;
+        }
+        return cancelled;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.tom_roush.pdfbox.cos.COSDictionary;
+import com.tom_roush.pdfbox.pdmodel.font.PDFont;
+import com.tom_roush.pdfbox.pdmodel.font.PDVectorFont;
+
+/**
+ * The glyph outline caches of all fonts of a document, so that the outlines are built only once for all pages.
+ *
+ * <p>The caches are keyed by the font dictionary, as the same font may be loaded more than once. The total number of
+ * cached glyphs is bounded, the glyphs of the least recently used font are evicted first, in the order they were
+ * added. A font whose glyphs were all evicted is removed, so that a font with more glyphs than the bound keeps its
+ * most recent ones.</p>
+ */
+final class DocumentGlyphCache
+{
+    private final Map<COSDictionary, GlyphCache> caches = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicInteger glyphCount = new AtomicInteger();
+    private volatile int maxGlyphs;
+
+    DocumentGlyphCache(int maxGlyphs)
+    {
+        this.maxGlyphs = maxGlyphs;
+    }
+
+    /**
+     * Returns the glyph cache of the given font.
+     *
+     * @param font a font implementing {@link PDVectorFont}
+     * @return the glyph cache of the font
+     */
+    synchronized GlyphCache getGlyphCache(PDFont font)
+    {
+        COSDictionary key = font.getCOSObject();
+        GlyphCache cache = caches.get(key);
+        if (cache == null)
+        {
+            cache = new GlyphCache((PDVectorFont) font, this);
+            caches.put(key, cache);
+        }
+        return cache;
+    }
+
+    int getMaxGlyphs()
+    {
+        return maxGlyphs;
+    }
+
+    void setMaxGlyphs(int maxGlyphs)
+    {
+        this.maxGlyphs = maxGlyphs;
+        trim();
+    }
+
+    int getGlyphCount()
+    {
+        return glyphCount.get();
+    }
+
+    /**
+     * Removes the glyphs of all fonts.
+     */
+    synchronized void clear()
+    {
+        for (GlyphCache cache : caches.values())
+        {
+            glyphCount.addAndGet(-cache.evict(Integer.MAX_VALUE));
+        }
+        caches.clear();
+    }
+
+    /**
+     * Called by a glyph cache holding its lock after a glyph was added.
+     *
+     * @return true if the glyphs exceed the bound, so that {@link #trim()} has to be called
+     */
+    boolean glyphAdded()
+    {
+        return glyphCount.incrementAndGet() > maxGlyphs;
+    }
+
+    /**
+     * Evicts glyphs until the bound is met. Must not be called while holding the lock of a glyph
+     * cache.
+     */
+    synchronized void trim()
+    {
+        Iterator<GlyphCache> iterator = caches.values().iterator();
+        while (glyphCount.get() > maxGlyphs && iterator.hasNext())
+        {
+            GlyphCache cache = iterator.next();
+            glyphCount.addAndGet(-cache.evict(glyphCount.get() - maxGlyphs));
+            if (cache.isEvicted())
+            {
+                iterator.remove();
+            }
+        }
+    }
+}
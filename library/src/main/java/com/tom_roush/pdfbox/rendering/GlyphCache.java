@@ -24,11 +24,14 @@ import com.tom_roush.pdfbox.pdmodel.font.PDType0Font;
 import com.tom_roush.pdfbox.pdmodel.font.PDVectorFont;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * A simple glyph outline cache.
+ * A glyph outline cache of a single font. Cached outlines are read without locking, glyphs are built one at a time,
+ * as fonts can't be used by several threads at once.
  *
  * @author John Hewson
  */
@@ -36,11 +39,16 @@ final class GlyphCache
 {
     
     private final PDVectorFont font;
-    private final Map<Integer, Path> cache = new HashMap<>();
+    private final DocumentGlyphCache owner;
+    private final Map<Integer, Path> cache = new ConcurrentHashMap<>();
+    // the codes of the cached glyphs in the order they were added, guarded by this
+    private final Deque<Integer> codes = new ArrayDeque<>();
+    private volatile boolean evicted = false;
 
-    GlyphCache(PDVectorFont font)
+    GlyphCache(PDVectorFont font, DocumentGlyphCache owner)
     {
         this.font = font;
+        this.owner = owner;
     }
     
     public Path getPathForCharacterCode(int code)
@@ -50,7 +58,85 @@ final class GlyphCache
         {
             return path;
         }
+        boolean trim = false;
+        synchronized (this)
+        {
+            path = cache.get(code);
+            if (path == null)
+            {
+                path = createPath(code);
+                if (path != null && !evicted)
+                {
+                    cache.put(code, path);
+                    codes.add(code);
+                    // counted while holding the lock, so that the glyph can't be evicted before it is counted
+                    trim = owner.glyphAdded();
+                }
+            }
+        }
+        // outside of the lock, as the owner locks the caches when trimming
+        if (trim)
+        {
+            owner.trim();
+        }
+        return path;
+    }
 
+    /**
+     * Returns whether this cache was removed from its owner, so that glyphs aren't cached anymore.
+     *
+     * @return true if the cache was evicted
+     */
+    boolean isEvicted()
+    {
+        return evicted;
+    }
+
+    /**
+     * Returns whether the glyph of the given code is cached.
+     *
+     * @param code the character code
+     * @return true if the glyph is cached
+     */
+    boolean isCached(int code)
+    {
+        return cache.containsKey(code);
+    }
+
+    /**
+     * Returns the number of cached glyphs.
+     *
+     * @return the number of glyphs
+     */
+    int size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Removes up to the given number of glyphs, the ones added first. If all glyphs are removed,
+     * new ones aren't cached anymore, as this cache is removed from its owner then.
+     *
+     * @param maxCount the maximum number of glyphs to be removed
+     * @return the number of removed glyphs
+     */
+    synchronized int evict(int maxCount)
+    {
+        int removed = 0;
+        while (removed < maxCount && !codes.isEmpty())
+        {
+            cache.remove(codes.poll());
+            removed++;
+        }
+        if (codes.isEmpty())
+        {
+            evicted = true;
+        }
+        return removed;
+    }
+
+    private Path createPath(int code)
+    {
         try
         {
             if (!font.hasGlyph(code))
@@ -67,9 +153,7 @@ final class GlyphCache
                     if (code == 10 && simpleFont.isStandard14())
                     {
                         // PDFBOX-4001 return empty path for line feed on std14
-                        path = new Path();
-                        cache.put(code, path);
-                        return path;
+                        return new Path();
                     }
                 }
                 else
@@ -77,9 +161,7 @@ final class GlyphCache
                 }
             }
 
-            path = font.getNormalizedPath(code);
-            cache.put(code, path);
-            return path;
+            return font.getNormalizedPath(code);
         }
         catch (IOException e)
         {
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import android.graphics.Bitmap;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+
+/**
+ * Renders several pages of a document concurrently, e.g. to create the thumbnails of all pages.
+ *
+ * <p>Every page is rendered by its own {@link PageDrawer} on a thread of the given executor, the
+ * fonts, images and glyph outlines cached by the {@link PDFRenderer} and the document are shared
+ * by all threads. The pages are looked up on the calling thread before any page is rendered.
+ * The document must not be changed while pages are being rendered.</p>
+ *
+ * <p>The number of pages rendered at the same time, and thus the number of page images held in
+ * memory while rendering, is limited by the number of threads of the executor.</p>
+ */
+public final class PDFBatchRenderer
+{
+    private final PDFRenderer renderer;
+    private final Executor executor;
+
+    /**
+     * Receives the images of rendered pages.
+     */
+    public interface PageHandler
+    {
+        /**
+         * Called on the thread which rendered the page, in the order in which rendering finished.
+         *
+         * @param pageIndex the zero-based index of the page
+         * @param image the rendered page image
+         * @throws IOException if the image could not be handled, no further pages are rendered
+         */
+        void pageRendered(int pageIndex, Bitmap image) throws IOException;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param renderer the renderer of the document, its settings are used for all pages
+     * @param executor the executor running the rendering tasks
+     */
+    public PDFBatchRenderer(PDFRenderer renderer, Executor executor)
+    {
+        this.renderer = renderer;
+        this.executor = executor;
+    }
+
+    /**
+     * Renders the given pages concurrently and waits until all pages are rendered.
+     *
+     * @param pageIndices the zero-based indices of the pages to be rendered
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param imageType the type of the images
+     * @return the page images, in the order of the given page indices
+     * @throws IOException if a page could not be rendered, the first error is thrown
+     */
+    public List<Bitmap> renderImages(int[] pageIndices, float scale, ImageType imageType)
+        throws IOException
+    {
+        final Bitmap[] images = new Bitmap[pageIndices.length];
+        final int[] positions = new int[pageIndices.length];
+        for (int i = 0; i < positions.length; i++)
+        {
+            positions[i] = i;
+        }
+        render(pageIndices, positions, scale, imageType, new PageHandler()
+        {
+            @Override
+            public void pageRendered(int position, Bitmap image)
+            {
+                images[position] = image;
+            }
+        });
+        return Arrays.asList(images);
+    }
+
+    /**
+     * Renders the given pages concurrently and passes every page image to the given handler as
+     * soon as it is rendered. Returns after all pages are rendered and handled.
+     *
+     * @param pageIndices the zero-based indices of the pages to be rendered
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param imageType the type of the images
+     * @param handler the handler receiving the page images
+     * @throws IOException if a page could not be rendered or handled, the first error is thrown
+     */
+    public void renderImages(int[] pageIndices, float scale, ImageType imageType,
+        PageHandler handler) throws IOException
+    {
+        render(pageIndices, pageIndices, scale, imageType, handler);
+    }
+
+    private void render(int[] pageIndices, final int[] keys, final float scale,
+        final ImageType imageType, final PageHandler handler) throws IOException
+    {
+        RenderDestination defaultDestination = renderer.getDefaultDestination();
+        final RenderDestination destination =
+            defaultDestination == null ? RenderDestination.EXPORT : defaultDestination;
+
+        // the page tree may be changed while looking up a page, so don't do that concurrently
+        final PDPage[] pages = new PDPage[pageIndices.length];
+        for (int i = 0; i < pageIndices.length; i++)
+        {
+            pages[i] = renderer.getPage(pageIndices[i]);
+        }
+
+        final CountDownLatch done = new CountDownLatch(pages.length);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < pages.length; i++)
+        {
+            final int index = i;
+            Runnable task = new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        if (failure.get() == null)
+                        {
+                            Bitmap image = renderer.renderImage(pages[index], scale, imageType,
+                                destination, null, false).getImage();
+                            handler.pageRendered(keys[index], image);
+                        }
+                    }
+                    catch (IOException | RuntimeException | Error e)
+                    {
+                        failure.compareAndSet(null, e);
+                    }
+                    finally
+                    {
+                        done.countDown();
+                    }
+                }
+            };
+            try
+            {
+                executor.execute(task);
+            }
+            catch (RuntimeException e)
+            {
+                // e.g. rejected, don't start any further page
+                failure.compareAndSet(null, e);
+                for (int j = i; j < pages.length; j++)
+                {
+                    done.countDown();
+                }
+                break;
+            }
+        }
+
+        try
+        {
+            done.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new InterruptedIOException("Interrupted while rendering"));
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof IOException)
+        {
+            throw (IOException) t;
+        }
+        if (t instanceof RuntimeException)
+        {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error)
+        {
+            throw (Error) t;
+        }
+    }
+}
@@ -20,6 +20,8 @@ import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Picture;
+import android.graphics.PorterDuff;
 
 import java.io.IOException;
 
@@ -29,6 +31,7 @@ import com.tom_roush.pdfbox.pdmodel.PDPage;
 import com.tom_roush.pdfbox.pdmodel.PDPageTree;
 import com.tom_roush.pdfbox.pdmodel.PDResources;
 import com.tom_roush.pdfbox.pdmodel.common.PDRectangle;
+import com.tom_roush.pdfbox.pdmodel.font.PDFont;
 import com.tom_roush.pdfbox.pdmodel.graphics.blend.BlendMode;
 import com.tom_roush.pdfbox.pdmodel.graphics.optionalcontent.PDOptionalContentGroup;
 import com.tom_roush.pdfbox.pdmodel.graphics.optionalcontent.PDOptionalContentProperties;
@@ -44,6 +47,16 @@ import com.tom_roush.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
  */
 public class PDFRenderer
 {
+    /**
+     * The default maximum number of glyph outlines cached for all pages.
+     */
+    public static final int DEFAULT_GLYPH_CACHE_SIZE = 10000;
+
+    /**
+     * The default maximum size of the pooled intermediate bitmaps in bytes.
+     */
+    public static final long DEFAULT_BITMAP_POOL_SIZE = 8L * 1024 * 1024;
+
     protected final PDDocument document;
     // TODO keep rendering state such as caches here
 
@@ -63,12 +76,16 @@ public class PDFRenderer
 
     private RenderDestination defaultDestination;
 
-    private Bitmap pageImage;
-
     private float imageDownscalingOptimizationThreshold = 0.5f;
 
     private final PDPageTree pageTree;
 
+    // glyph outlines shared by all pages
+    private final DocumentGlyphCache glyphCache = new DocumentGlyphCache(DEFAULT_GLYPH_CACHE_SIZE);
+
+    // intermediate bitmaps shared by all pages
+    private final BitmapPool bitmapPool = new BitmapPool(DEFAULT_BITMAP_POOL_SIZE);
+
     /**
      * Creates a new PDFRenderer.
      * @param document the document to render
@@ -168,6 +185,66 @@ public class PDFRenderer
         this.imageDownscalingOptimizationThreshold = imageDownscalingOptimizationThreshold;
     }
 
+    /**
+     * Returns the maximum number of glyph outlines cached for all pages.
+     *
+     * @return the maximum number of cached glyphs
+     */
+    public int getGlyphCacheSize()
+    {
+        return glyphCache.getMaxGlyphs();
+    }
+
+    /**
+     * Sets the maximum number of glyph outlines cached for all pages, the glyphs of the least recently used fonts are
+     * removed first. The glyphs are shared by all pages rendered by this renderer, also when rendering several pages
+     * at once. The default is {@link #DEFAULT_GLYPH_CACHE_SIZE}.
+     *
+     * @param glyphCacheSize the maximum number of cached glyphs, 0 disables the cache
+     */
+    public void setGlyphCacheSize(int glyphCacheSize)
+    {
+        glyphCache.setMaxGlyphs(Math.max(0, glyphCacheSize));
+    }
+
+    /**
+     * Returns the glyph cache of the given font, which is shared by all pages.
+     */
+    GlyphCache getGlyphCache(PDFont font)
+    {
+        return glyphCache.getGlyphCache(font);
+    }
+
+    /**
+     * Returns the maximum size of the pooled intermediate bitmaps.
+     *
+     * @return the maximum size in bytes
+     */
+    public long getBitmapPoolSize()
+    {
+        return bitmapPool.getMaxSize();
+    }
+
+    /**
+     * Sets the maximum size of the intermediate bitmaps kept for reuse, e.g. the surfaces of
+     * masked images or of pages with blend modes, which are otherwise allocated for every single
+     * drawing operation. The default is {@link #DEFAULT_BITMAP_POOL_SIZE}.
+     *
+     * @param bitmapPoolSize the maximum size in bytes, 0 disables the pool
+     */
+    public void setBitmapPoolSize(long bitmapPoolSize)
+    {
+        bitmapPool.setMaxSize(Math.max(0, bitmapPoolSize));
+    }
+
+    /**
+     * Returns the pool of intermediate bitmaps, which is shared by all pages.
+     */
+    BitmapPool getBitmapPool()
+    {
+        return bitmapPool;
+    }
+
     /**
      * Returns the given page as an RGB image at 72 DPI
      * @param pageIndex the zero-based index of the page to be converted.
@@ -244,8 +321,101 @@ public class PDFRenderer
      */
     public Bitmap renderImage(int pageIndex, float scale, ImageType imageType, RenderDestination destination)
         throws IOException
+    {
+        return renderImage(pageTree.get(pageIndex), scale, imageType, destination, null, false)
+            .getImage();
+    }
+
+    /**
+     * Returns the given page as an RGB or ARGB image at the given scale, rendering stops when the
+     * given token is cancelled or its deadline has passed. The result holds the image drawn so far
+     * and whether the page was rendered completely.
+     *
+     * @param pageIndex the zero-based index of the page to be converted
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param imageType the type of image to return
+     * @param destination controlling visibility of optional content groups
+     * @param token the token to stop rendering, may be null
+     * @return the rendered page image and whether rendering was complete
+     * @throws IOException if the PDF cannot be read
+     */
+    public RenderResult renderImage(int pageIndex, float scale, ImageType imageType,
+        RenderDestination destination, CancellationToken token) throws IOException
+    {
+        return renderImage(pageTree.get(pageIndex), scale, imageType, destination, token, false);
+    }
+
+    /**
+     * Renders the given page in two passes, see
+     * {@link #renderImageProgressively(int, float, ImageType, ProgressiveRenderListener, CancellationToken)}.
+     *
+     * @param pageIndex the zero-based index of the page to be converted
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param imageType the type of image to return
+     * @param listener the listener receiving the draft and the final image
+     * @return the image of the page in full quality
+     * @throws IOException if the PDF cannot be read
+     */
+    public Bitmap renderImageProgressively(int pageIndex, float scale, ImageType imageType,
+        ProgressiveRenderListener listener) throws IOException
+    {
+        return renderImageProgressively(pageIndex, scale, imageType, listener, null).getImage();
+    }
+
+    /**
+     * Renders the given page in two passes for interactive viewing. A quick draft is rendered
+     * first, with images subsampled as far as possible and without their soft masks, transparency
+     * groups drawn like forms and without anti-aliasing, so that a page full of scanned images can
+     * be shown almost immediately. Then the page is rendered again in full quality. Both images
+     * are passed to the listener on the calling thread as soon as they are available.
+     *
+     * <p>If the token is cancelled while rendering the page in full quality, the partial image is
+     * dropped and the draft is returned as incomplete result.</p>
+     *
+     * @param pageIndex the zero-based index of the page to be converted
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param imageType the type of image to return
+     * @param listener the listener receiving the draft and the final image
+     * @param token the token to stop rendering, may be null
+     * @return the image of the page in full quality, or the draft if rendering was cut off
+     * @throws IOException if the PDF cannot be read
+     */
+    public RenderResult renderImageProgressively(int pageIndex, float scale, ImageType imageType,
+        ProgressiveRenderListener listener, CancellationToken token) throws IOException
     {
         PDPage page = pageTree.get(pageIndex);
+        RenderDestination destination =
+            defaultDestination == null ? RenderDestination.EXPORT : defaultDestination;
+        RenderResult draft = renderImage(page, scale, imageType, destination, token, true);
+        if (!draft.isComplete())
+        {
+            return draft;
+        }
+        listener.draftRendered(pageIndex, draft.getImage());
+        RenderResult result = renderImage(page, scale, imageType, destination, token, false);
+        if (!result.isComplete())
+        {
+            return new RenderResult(draft.getImage(), false);
+        }
+        listener.pageRendered(pageIndex, result.getImage());
+        return result;
+    }
+
+    /**
+     * Returns the page with the given index.
+     */
+    PDPage getPage(int pageIndex)
+    {
+        return pageTree.get(pageIndex);
+    }
+
+    /**
+     * Returns the given page as an RGB or ARGB image at the given scale. Each call uses its own
+     * PageDrawer, so that several pages of the same document can be rendered concurrently.
+     */
+    RenderResult renderImage(PDPage page, float scale, ImageType imageType, RenderDestination destination,
+        CancellationToken token, boolean draft) throws IOException
+    {
 
         PDRectangle cropBox = page.getCropBox();
         float widthPt = cropBox.getWidth();
@@ -279,17 +449,13 @@ public class PDFRenderer
         }
 
         // swap width and height
-        Bitmap image;
-        if (rotationAngle == 90 || rotationAngle == 270)
-        {
-            image = Bitmap.createBitmap(heightPx, widthPx, bimType);
-        }
-        else
-        {
-            image = Bitmap.createBitmap(widthPx, heightPx, bimType);
-        }
-
-        pageImage = image;
+        boolean swap = rotationAngle == 90 || rotationAngle == 270;
+        int imageWidth = swap ? heightPx : widthPx;
+        int imageHeight = swap ? widthPx : heightPx;
+        // the transparent image is only temporary, see below
+        boolean transparentFirst = bimType != imageType.toBitmapConfig();
+        Bitmap image = transparentFirst ? bitmapPool.acquire(imageWidth, imageHeight, bimType)
+            : Bitmap.createBitmap(imageWidth, imageHeight, bimType);
 
         // use a transparent background if the image type supports alpha
         Paint paint = new Paint();
@@ -311,11 +477,11 @@ public class PDFRenderer
         // the end-user may provide a custom PageDrawer
         PageDrawerParameters parameters =
             new PageDrawerParameters(this, page, subsamplingAllowed, destination,
-                imageDownscalingOptimizationThreshold);
+                imageDownscalingOptimizationThreshold, image, token, draft, false, true);
         PageDrawer drawer = createPageDrawer(parameters);
         drawer.drawPage(paint, canvas, cropBox);
 
-        if (image.getConfig() != imageType.toBitmapConfig())
+        if (transparentFirst)
         {
             // PDFBOX-4095: draw temporary transparent image on white background
             Bitmap newImage =
@@ -325,10 +491,194 @@ public class PDFRenderer
             paint.setStyle(Paint.Style.FILL);
             dstCanvas.drawRect(0, 0, image.getWidth(), image.getHeight(), paint);
             dstCanvas.drawBitmap(image, 0.0f, 0.0f, paint);
+            bitmapPool.release(image);
             image = newImage;
         }
 
-        return image;
+        return new RenderResult(image, !drawer.isCancelled());
+    }
+
+    /**
+     * Renders a region of the given page as RGB image into the given bitmap. See
+     * {@link #renderImageRegion(int, float, int, int, Bitmap, ImageType, RenderDestination)}.
+     *
+     * @param pageIndex the zero-based index of the page to be converted
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param x the left edge of the region, in pixels of the whole page rendered at the given scale
+     * @param y the top edge of the region, in pixels of the whole page rendered at the given scale
+     * @param tile the mutable bitmap to draw the region into, its size is the size of the region
+     * @throws IOException if the PDF cannot be read
+     */
+    public void renderImageRegion(int pageIndex, float scale, int x, int y, Bitmap tile) throws IOException
+    {
+        renderImageRegion(pageIndex, scale, x, y, tile, ImageType.RGB,
+            defaultDestination == null ? RenderDestination.EXPORT : defaultDestination);
+    }
+
+    /**
+     * Renders a region of the given page into the given bitmap. The region is given in pixels of the image
+     * {@link #renderImage(int, float, ImageType, RenderDestination)} would return for the same scale, including the
+     * rotation of the page, but the page is never rendered as a whole. Content outside of the region is skipped before
+     * it is drawn, e.g. images outside of the region aren't decoded at all. This allows to render tiles of a page at a
+     * scale the whole page wouldn't fit into memory at. The bitmap of the region is the backdrop of transparency
+     * groups on the page, like the bitmap of the whole page is when rendering it with
+     * {@link #renderImage(int, float, ImageType, RenderDestination)}.
+     *
+     * @param pageIndex the zero-based index of the page to be converted
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param x the left edge of the region, in pixels of the whole page rendered at the given scale
+     * @param y the top edge of the region, in pixels of the whole page rendered at the given scale
+     * @param tile the mutable bitmap to draw the region into, its size is the size of the region
+     * @param imageType the type of the image, {@link ImageType#ARGB} uses a transparent background
+     * @param destination controlling visibility of optional content groups
+     * @throws IOException if the PDF cannot be read
+     * @throws IllegalArgumentException if the bitmap isn't mutable
+     */
+    public void renderImageRegion(int pageIndex, float scale, int x, int y, Bitmap tile, ImageType imageType,
+        RenderDestination destination) throws IOException
+    {
+        renderImageRegion(pageIndex, scale, x, y, tile, imageType, destination, null);
+    }
+
+    /**
+     * Renders a region of the given page into the given bitmap like
+     * {@link #renderImageRegion(int, float, int, int, Bitmap, ImageType, RenderDestination)}, rendering stops
+     * when the given token is cancelled or its deadline has passed.
+     *
+     * @param pageIndex the zero-based index of the page to be converted
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param x the left edge of the region, in pixels of the whole page rendered at the given scale
+     * @param y the top edge of the region, in pixels of the whole page rendered at the given scale
+     * @param tile the mutable bitmap to draw the region into, its size is the size of the region
+     * @param imageType the type of the image, {@link ImageType#ARGB} uses a transparent background
+     * @param destination controlling visibility of optional content groups
+     * @param token the token to stop rendering, may be null
+     * @return true if the region was rendered completely, false if rendering was cut off
+     * @throws IOException if the PDF cannot be read
+     * @throws IllegalArgumentException if the bitmap isn't mutable
+     */
+    public boolean renderImageRegion(int pageIndex, float scale, int x, int y, Bitmap tile, ImageType imageType,
+        RenderDestination destination, CancellationToken token) throws IOException
+    {
+        if (!tile.isMutable())
+        {
+            throw new IllegalArgumentException("The bitmap to render the region into must be mutable");
+        }
+        PDPage page = pageTree.get(pageIndex);
+        PDRectangle cropBox = page.getCropBox();
+
+        // PDFBOX-4095: with blending on the top level, draw on transparent background first
+        boolean transparentFirst = imageType != ImageType.ARGB && hasBlendMode(page);
+        Bitmap image = transparentFirst
+            ? bitmapPool.acquire(tile.getWidth(), tile.getHeight(), Bitmap.Config.ARGB_8888) : tile;
+
+        // the bitmap may be reused, so that the background replaces the old content
+        Canvas canvas = new Canvas(image);
+        canvas.drawColor(imageType == ImageType.ARGB || transparentFirst ? Color.TRANSPARENT : Color.WHITE,
+            PorterDuff.Mode.SRC);
+        Paint paint = new Paint();
+
+        // move the region to the origin, the canvas clips everything else
+        canvas.translate(-x, -y);
+        transform(canvas, page.getRotation(), cropBox, scale, scale);
+
+        // the end-user may provide a custom PageDrawer
+        PageDrawerParameters parameters =
+            new PageDrawerParameters(this, page, subsamplingAllowed, destination,
+                imageDownscalingOptimizationThreshold, image, token, false, false, true);
+        PageDrawer drawer = createPageDrawer(parameters);
+        drawer.drawPage(paint, canvas, cropBox);
+
+        if (transparentFirst)
+        {
+            Canvas dstCanvas = new Canvas(tile);
+            dstCanvas.drawColor(Color.WHITE, PorterDuff.Mode.SRC);
+            dstCanvas.drawBitmap(image, 0.0f, 0.0f, null);
+            bitmapPool.release(image);
+        }
+        return !drawer.isCancelled();
+    }
+
+    /**
+     * Records the given page into a display list, see
+     * {@link #recordPage(int, RenderDestination)}.
+     *
+     * @param pageIndex the zero-based index of the page to be recorded
+     * @return the display list of the page
+     * @throws IOException if the PDF cannot be read
+     */
+    public PageDisplayList recordPage(int pageIndex) throws IOException
+    {
+        return recordPage(pageIndex,
+            defaultDestination == null ? RenderDestination.VIEW : defaultDestination);
+    }
+
+    /**
+     * Records the given page into a display list, see
+     * {@link #recordPage(int, RenderDestination, float)}. Content which is rasterized while
+     * drawing is recorded at 72 DPI.
+     *
+     * @param pageIndex the zero-based index of the page to be recorded
+     * @param destination controlling visibility of optional content groups
+     * @return the display list of the page
+     * @throws IOException if the PDF cannot be read
+     */
+    public PageDisplayList recordPage(int pageIndex, RenderDestination destination)
+        throws IOException
+    {
+        return recordPage(pageIndex, destination, 1);
+    }
+
+    /**
+     * Records the drawing operations of the given page into a device independent display list,
+     * which can be drawn onto any canvas at any scale, e.g. while zooming, without parsing the
+     * content streams, loading the fonts or decoding the images again.
+     *
+     * <p>Images are recorded without subsampling, so that they look sharp at every zoom level,
+     * the display list keeps them in memory until it is garbage collected.</p>
+     *
+     * <p>The page is drawn as if it was rendered at the given scale, i.e. the tiles of tiling
+     * patterns are rasterized at this scale and look blurry when the display list is drawn at a
+     * larger one, so the largest expected zoom should be passed. The memory needed for the tiles
+     * grows with the square of the scale. Stencil masks filled with a pattern are rasterized at
+     * 72 DPI at any scale, as when rendering a bitmap.</p>
+     *
+     * @param pageIndex the zero-based index of the page to be recorded
+     * @param destination controlling visibility of optional content groups
+     * @param rasterScale the scale of the rasterized content, where 1 = 72 DPI
+     * @return the display list of the page
+     * @throws IOException if the PDF cannot be read
+     */
+    public PageDisplayList recordPage(int pageIndex, RenderDestination destination,
+        float rasterScale) throws IOException
+    {
+        PDPage page = pageTree.get(pageIndex);
+        PDRectangle cropBox = page.getCropBox();
+        int rotationAngle = page.getRotation();
+        boolean swap = rotationAngle == 90 || rotationAngle == 270;
+        float width = swap ? cropBox.getHeight() : cropBox.getWidth();
+        float height = swap ? cropBox.getWidth() : cropBox.getHeight();
+
+        Picture picture = new Picture();
+        Canvas canvas = picture.beginRecording((int) Math.ceil(width * rasterScale),
+            (int) Math.ceil(height * rasterScale));
+        try
+        {
+            // the scale is undone when drawing, PageDrawer takes the DPI of the bitmaps from it
+            transform(canvas, rotationAngle, cropBox, rasterScale, rasterScale);
+
+            // the end-user may provide a custom PageDrawer
+            PageDrawerParameters parameters =
+                new PageDrawerParameters(this, page, false, destination,
+                    imageDownscalingOptimizationThreshold, null, null, false, true, false);
+            PageDrawer drawer = createPageDrawer(parameters);
+            drawer.drawPage(new Paint(), canvas, cropBox);
+        }
+        finally
+        {
+            picture.endRecording();
+        }
+        return new PageDisplayList(picture, width, height, rasterScale);
     }
 
     /**
@@ -462,6 +812,7 @@ public class PDFRenderer
     {
         PageDrawer pageDrawer = new PageDrawer(parameters);
         pageDrawer.setAnnotationFilter(annotationFilter);
+        pageDrawer.setContentStreamCache(document.getContentStreamCache());
         return pageDrawer;
     }
 
@@ -489,14 +840,4 @@ public class PDFRenderer
         }
         return false;
     }
-
-    /**
-     * Returns the image to which the current page is being rendered.
-     * May be null if the page is rendered to a Graphics2D object
-     * instead of a Bitmap.
-     */
-    Bitmap getPageImage()
-    {
-        return pageImage;
-    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Picture;
+
+/**
+ * The recorded drawing operations of a page, i.e. its paths, glyphs, images, clips and state
+ * changes, which can be replayed onto any canvas at any transform.
+ *
+ * <p>The operations are drawn in page units of 1/72 inch, with the origin in the upper left
+ * corner of the cropped and rotated page, as {@link PDFRenderer#renderImage(int)} would draw
+ * them. The tiles of tiling patterns are rasterized at the scale given when recording and are
+ * blurry when drawn at a larger scale. A display list can be drawn by several threads, but not
+ * concurrently.</p>
+ *
+ * @see PDFRenderer#recordPage(int, RenderDestination, float)
+ */
+public final class PageDisplayList
+{
+    private final Picture picture;
+    private final float width;
+    private final float height;
+    private final float rasterScale;
+
+    PageDisplayList(Picture picture, float width, float height, float rasterScale)
+    {
+        this.picture = picture;
+        this.width = width;
+        this.height = height;
+        this.rasterScale = rasterScale;
+    }
+
+    /**
+     * Returns the width of the cropped and rotated page.
+     *
+     * @return the width in 1/72 inch
+     */
+    public float getWidth()
+    {
+        return width;
+    }
+
+    /**
+     * Returns the height of the cropped and rotated page.
+     *
+     * @return the height in 1/72 inch
+     */
+    public float getHeight()
+    {
+        return height;
+    }
+
+    /**
+     * Returns the scale at which the tiles of tiling patterns were rasterized.
+     *
+     * @return the scale given when recording, where 1 = 72 DPI
+     */
+    public float getRasterScale()
+    {
+        return rasterScale;
+    }
+
+    /**
+     * Draws the page using the current transform of the canvas, one unit being 1/72 inch.
+     *
+     * @param canvas the canvas to draw onto
+     */
+    public synchronized void draw(Canvas canvas)
+    {
+        int saveCount = canvas.save();
+        // the operations were recorded at the raster scale
+        canvas.scale(1 / rasterScale, 1 / rasterScale);
+        canvas.drawPicture(picture);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * Draws the page at the given scale, 1 = 72 DPI.
+     *
+     * @param canvas the canvas to draw onto
+     * @param scale the scaling factor
+     */
+    public void draw(Canvas canvas, float scale)
+    {
+        int saveCount = canvas.save();
+        canvas.scale(scale, scale);
+        draw(canvas);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * Renders the page to an image, like {@link PDFRenderer#renderImage(int, float, ImageType)}
+     * would do, but without processing the page again.
+     *
+     * @param scale the scaling factor, where 1 = 72 DPI
+     * @param imageType the type of image to return
+     * @return the rendered page image
+     */
+    public Bitmap renderImage(float scale, ImageType imageType)
+    {
+        // PDFBOX-4306 avoid single blank pixel line on the right or on the bottom
+        int widthPx = (int) Math.max(Math.floor(width * scale), 1);
+        int heightPx = (int) Math.max(Math.floor(height * scale), 1);
+        Bitmap image = Bitmap.createBitmap(widthPx, heightPx, imageType.toBitmapConfig());
+        Canvas canvas = new Canvas(image);
+        canvas.drawColor(imageType == ImageType.ARGB ? Color.TRANSPARENT : Color.WHITE);
+        draw(canvas, scale);
+        return image;
+    }
+}
@@ -29,11 +29,13 @@ import android.graphics.PorterDuffXfermode;
 import android.graphics.RectF;
 import android.graphics.Region;
 import android.graphics.Shader;
+import android.os.Build;
 import android.util.Log;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -41,8 +43,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.tom_roush.fontbox.util.BoundingBox;
 import com.tom_roush.harmony.awt.geom.AffineTransform;
 import com.tom_roush.pdfbox.contentstream.PDFGraphicsStreamEngine;
+import com.tom_roush.pdfbox.contentstream.operator.Operator;
+import com.tom_roush.pdfbox.contentstream.operator.OperatorName;
 import com.tom_roush.pdfbox.cos.COSArray;
 import com.tom_roush.pdfbox.cos.COSBase;
 import com.tom_roush.pdfbox.cos.COSDictionary;
@@ -53,7 +58,6 @@ import com.tom_roush.pdfbox.pdmodel.common.function.PDFunction;
 import com.tom_roush.pdfbox.pdmodel.documentinterchange.markedcontent.PDPropertyList;
 import com.tom_roush.pdfbox.pdmodel.font.PDFont;
 import com.tom_roush.pdfbox.pdmodel.font.PDType3Font;
-import com.tom_roush.pdfbox.pdmodel.font.PDVectorFont;
 import com.tom_roush.pdfbox.pdmodel.graphics.PDLineDashPattern;
 import com.tom_roush.pdfbox.pdmodel.graphics.PDXObject;
 import com.tom_roush.pdfbox.pdmodel.graphics.blend.BlendMode;
@@ -104,9 +108,24 @@ import com.tom_roush.pdfbox.util.Vector;
  */
 public class PageDrawer extends PDFGraphicsStreamEngine
 {
+    // the minimum subsampling of images in a draft
+    private static final int DRAFT_SUBSAMPLING = 8;
+
+    // operators which don't draw anything and don't change the state used to draw a text run
+    private static final Set<String> TEXT_RUN_OPERATORS = new HashSet<>(Arrays.asList(
+        OperatorName.SHOW_TEXT, OperatorName.SHOW_TEXT_ADJUSTED, OperatorName.SHOW_TEXT_LINE,
+        OperatorName.SHOW_TEXT_LINE_AND_SPACE, OperatorName.MOVE_TEXT,
+        OperatorName.MOVE_TEXT_SET_LEADING, OperatorName.SET_MATRIX, OperatorName.NEXT_LINE,
+        OperatorName.SET_CHAR_SPACING, OperatorName.SET_WORD_SPACING,
+        OperatorName.SET_TEXT_HORIZONTAL_SCALING, OperatorName.SET_TEXT_LEADING,
+        OperatorName.SET_TEXT_RISE, OperatorName.SET_FONT_AND_SIZE,
+        OperatorName.SET_TEXT_RENDERINGMODE));
+
     // parent document renderer - note: this is needed for not-yet-implemented resource caching
     private final PDFRenderer renderer;
     private final Map<PDFont, GlyphCache> glyphCaches = new HashMap<>();
+    // enlarged font bounding boxes used for culling glyphs, an empty box disables culling
+    private final Map<PDFont, RectF> glyphBounds = new HashMap<>();
     private final TilingPaintFactory tilingPaintFactory = new TilingPaintFactory(this);
 
     private final boolean subsamplingAllowed;
@@ -139,6 +158,23 @@ public class PageDrawer extends PDFGraphicsStreamEngine
     // shapes of glyphs being drawn to be used for clipping
     private List<Path> textClippings;
 
+    // filled glyphs not drawn yet, which share the font, the graphics state and the clip, so that
+    // they can be drawn with a single call, see appendToTextRun()
+    private final Path textRun = new Path();
+    private final RectF textRunBounds = new RectF();
+    private final RectF textRunGlyphBounds = new RectF();
+    private final android.graphics.Matrix textRunDeviceMatrix = new android.graphics.Matrix();
+    private Paint textRunPaint;
+    private PDFont textRunFont;
+    private PDGraphicsState textRunState;
+    private Canvas textRunCanvas;
+    private boolean textRunMirrored;
+
+    // reused for every glyph, see showFontGlyph()
+    private final android.graphics.Matrix glyphMatrix = new android.graphics.Matrix();
+    private final float[] glyphMatrixValues = new float[9];
+    private final RectF glyphCullBounds = new RectF();
+
     private PointF currentPoint = new PointF();
 
     private final Deque<TransparencyGroup> transparencyGroupStack = new ArrayDeque<>();
@@ -149,6 +185,20 @@ public class PageDrawer extends PDFGraphicsStreamEngine
     private final RenderDestination destination;
     private final float imageDownscalingOptimizationThreshold;
 
+    // the image of the whole page, if any, used as backdrop of transparency groups
+    private final Bitmap pageImage;
+
+    // draws a quick draft, see PageDrawerParameters.isDraft()
+    private final boolean draft;
+
+    // draws into a display list, which keeps references to the bitmaps drawn
+    private final boolean bitmapReuseAllowed;
+
+    // stops rendering between operators, may be null
+    private final CancellationToken cancellationToken;
+    private int operatorCount = 0;
+    private boolean cancelled = false;
+
     /**
      * Default annotations filter, returns all annotations
      */
@@ -175,6 +225,10 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         this.destination = parameters.getDestination();
         this.imageDownscalingOptimizationThreshold =
             parameters.getImageDownscalingOptimizationThreshold();
+        this.pageImage = parameters.getPageImage();
+        this.cancellationToken = parameters.getCancellationToken();
+        this.draft = parameters.isDraft();
+        this.bitmapReuseAllowed = parameters.isBitmapReuseAllowed();
     }
 
     /**
@@ -232,7 +286,7 @@ public class PageDrawer extends PDFGraphicsStreamEngine
 //            RenderingHints.VALUE_INTERPOLATION_BICUBIC);
 //        graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
 //            RenderingHints.VALUE_RENDER_QUALITY);
-        paint.setAntiAlias(true);
+        paint.setAntiAlias(!draft);
     }
 
     /**
@@ -264,14 +318,52 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         canvas.translate(-pageSize.getLowerLeftX(), -pageSize.getLowerLeftY());
 
         processPage(getPage());
+        flushTextRun();
 
         for (PDAnnotation annotation : getPage().getAnnotations(annotationFilter))
         {
+            if (cancelled)
+            {
+                break;
+            }
             showAnnotation(annotation);
         }
         canvas.restore();
     }
 
+    /**
+     * Returns whether drawing was stopped by the {@link CancellationToken} of the parameters, so
+     * that only a part of the page was drawn.
+     *
+     * @return true if drawing was cut off
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    @Override
+    protected void processOperator(Operator operator, List<COSBase> operands) throws IOException
+    {
+        // the pending glyphs are drawn before anything else is drawn or the state is changed
+        if (textRunPaint != null && !TEXT_RUN_OPERATORS.contains(operator.getName()))
+        {
+            flushTextRun();
+        }
+        super.processOperator(operator, operands);
+    }
+
+    @Override
+    protected boolean isProcessingCancelled()
+    {
+        // reading the clock isn't free, so the token is checked only every few operators
+        if (!cancelled && cancellationToken != null && (++operatorCount & 31) == 0)
+        {
+            cancelled = cancellationToken.isCancelled();
+        }
+        return cancelled;
+    }
+
 //    void drawTilingPattern(Graphics2D g, PDTilingPattern pattern, PDColorSpace colorSpace,
 //        PDColor color, Matrix patternMatrix) throws IOException TODO: PdfBox-Android
 
@@ -288,6 +380,7 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         Path savedInitialClip = this.initialClip;
         boolean savedFlipTG = this.flipTG;
 
+        flushTextRun();
         this.canvas = canvas;
         this.linePath = new Path();
         this.clipWindingRule = Path.FillType.WINDING;
@@ -297,6 +390,7 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         setRenderingHints();
 
         processTilingPattern(pattern, color, colorSpace, patternMatrix);
+        flushTextRun();
 
         this.flipTG = savedFlipTG;
         this.canvas = savedCanvas;
@@ -342,7 +436,7 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         }
         else if (!(colorSpace instanceof PDPattern)) {
             android.graphics.Paint paint = new android.graphics.Paint();
-            paint.setAntiAlias(true);
+            paint.setAntiAlias(!draft);
             paint.setColor(color.toARGB((float) getGraphicsState().getAlphaConstant()));
 
             if(state != null){
@@ -398,6 +492,9 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         Region clippingPath = getGraphicsState().getCurrentClippingPath();
         if (clippingPath != lastClip)
         {
+            // the pending glyphs are drawn using the previous clip
+            flushTextRun();
+
             // android canvas manage clips with save/restore in a private stack, we can not
             // modify clip casually, so we store current stack size in `lastStackSize` after setting clip,
             // and restore it before next setting
@@ -475,23 +572,47 @@ public class PageDrawer extends PDFGraphicsStreamEngine
     {
         AffineTransform at = textRenderingMatrix.createAffineTransform();
         at.concatenate(font.getFontMatrix().createAffineTransform());
+        setGlyphMatrix(at);
+
+        // skip glyphs outside of the clip before their outline is built
+        if (isGlyphCulled(font, glyphMatrix))
+        {
+            return;
+        }
 
         // create cache if it does not exist
-        PDVectorFont vectorFont = (PDVectorFont) font;
         GlyphCache cache = glyphCaches.get(font);
-        if (cache == null)
+        if (cache == null || cache.isEvicted())
         {
-            cache = new GlyphCache(vectorFont);
+            cache = renderer.getGlyphCache(font);
             glyphCaches.put(font, cache);
         }
 
         Path path = cache.getPathForCharacterCode(code);
 
-        drawGlyph(path, font, code, displacement, at);
+        drawGlyph(path, font, code, displacement);
     }
 
+    /**
+     * Sets the matrix of the current glyph without allocating a new one.
+     */
+    private void setGlyphMatrix(AffineTransform at)
+    {
+        glyphMatrixValues[android.graphics.Matrix.MSCALE_X] = (float) at.getScaleX();
+        glyphMatrixValues[android.graphics.Matrix.MSKEW_X] = (float) at.getShearX();
+        glyphMatrixValues[android.graphics.Matrix.MTRANS_X] = (float) at.getTranslateX();
+        glyphMatrixValues[android.graphics.Matrix.MSKEW_Y] = (float) at.getShearY();
+        glyphMatrixValues[android.graphics.Matrix.MSCALE_Y] = (float) at.getScaleY();
+        glyphMatrixValues[android.graphics.Matrix.MTRANS_Y] = (float) at.getTranslateY();
+        glyphMatrixValues[android.graphics.Matrix.MPERSP_2] = 1;
+        glyphMatrix.setValues(glyphMatrixValues);
+    }
 
-    private void drawGlyph(Path path, PDFont font, int code, Vector displacement, AffineTransform at) throws IOException
+    /**
+     * Draws a glyph using the glyph matrix set by showFontGlyph(), non-embedded glyphs are
+     * stretched by changing it.
+     */
+    private void drawGlyph(Path path, PDFont font, int code, Vector displacement) throws IOException
     {
         if (path == null)
             return;
@@ -507,16 +628,33 @@ public class PageDrawer extends PDFGraphicsStreamEngine
                     Math.abs(fontWidth - displacement.getX() * 1000) > 0.0001)
             {
                 float pdfWidth = displacement.getX() * 1000;
-                at.scale(pdfWidth / fontWidth, 1);
+                glyphMatrix.preScale(pdfWidth / fontWidth, 1);
             }
         }
 
-        Path glyphPath = new Path();
-        path.transform(at.toMatrix(), glyphPath);
-
+        // a tiling pattern is drawn by this drawer as well, which reuses the glyph matrix, so the
+        // clipping path is transformed before the paint is created
+        Path glyphPath = null;
+        if (renderingMode.isClip())
+        {
+            glyphPath = new Path();
+            path.transform(glyphMatrix, glyphPath);
+            textClippings.add(glyphPath);
+        }
 
-        if (isContentRendered())
+        if (isContentRendered() && renderingMode.isFill() && !renderingMode.isStroke())
+        {
+            appendToTextRun(path, glyphMatrix, font);
+        }
+        else if (isContentRendered())
         {
+            flushTextRun();
+            if (glyphPath == null)
+            {
+                glyphPath = new Path();
+                path.transform(glyphMatrix, glyphPath);
+            }
+
             if (renderingMode.isFill())
             {
                 var paint = getPaint(getGraphicsState().getNonStrokingColor());
@@ -537,19 +675,144 @@ public class PageDrawer extends PDFGraphicsStreamEngine
                 canvas.drawPath(glyphPath, paint);
             }
         }
+    }
 
-        // Режим clip
-        if (renderingMode.isClip())
+    /**
+     * Adds a filled glyph to the current text run, which is drawn with a single call once the
+     * font, the graphics state or the clip changes, or anything else is drawn. Glyphs filled with
+     * a pattern or a translucent color are drawn at once, as overlapping glyphs would look
+     * different when drawn as one path.
+     *
+     * <p>The glyphs of a run are filled with the non-zero winding rule as one path, so that
+     * overlapping glyphs would be merged, and overlapping mirrored glyphs would even cancel each
+     * other out. A new run is started for a glyph whose bounds intersect the bounds of the run so
+     * far, and when the orientation of the glyphs changes. The bounds are compared in device
+     * space and grown by one pixel, so that glyphs sharing an anti-aliased pixel are in different
+     * runs, too. The bounds of the run are a single rectangle, so that text wrapped to a new line
+     * often starts a new run as well.</p>
+     */
+    private void appendToTextRun(Path path, android.graphics.Matrix matrix, PDFont font)
+        throws IOException
+    {
+        PDGraphicsState state = getGraphicsState();
+        path.computeBounds(textRunGlyphBounds, true);
+        matrix.mapRect(textRunGlyphBounds);
+        canvas.getMatrix(textRunDeviceMatrix);
+        textRunDeviceMatrix.mapRect(textRunGlyphBounds);
+        textRunGlyphBounds.inset(-1, -1);
+        // stretching a glyph in drawGlyph() doesn't change its orientation
+        boolean mirrored = glyphMatrixValues[android.graphics.Matrix.MSCALE_X] *
+            glyphMatrixValues[android.graphics.Matrix.MSCALE_Y] -
+            glyphMatrixValues[android.graphics.Matrix.MSKEW_X] *
+            glyphMatrixValues[android.graphics.Matrix.MSKEW_Y] < 0;
+        if (textRunPaint == null || font != textRunFont || state != textRunState ||
+            canvas != textRunCanvas || mirrored != textRunMirrored ||
+            RectF.intersects(textRunBounds, textRunGlyphBounds))
+        {
+            flushTextRun();
+            if (state.getNonStrokingColor().getColorSpace() instanceof PDPattern)
+            {
+                // drawing a tiling pattern changes the shared glyph matrix
+                matrix = new android.graphics.Matrix(matrix);
+            }
+            Paint fillPaint = getPaint(state.getNonStrokingColor());
+            fillPaint.setStyle(Paint.Style.FILL);
+            setClip();
+            if (fillPaint.getShader() != null || Color.alpha(fillPaint.getColor()) != 255)
+            {
+                Path glyphPath = new Path();
+                path.transform(matrix, glyphPath);
+                canvas.drawPath(glyphPath, fillPaint);
+                return;
+            }
+            textRunPaint = fillPaint;
+            textRunFont = font;
+            textRunState = state;
+            textRunCanvas = canvas;
+            textRunMirrored = mirrored;
+        }
+        textRun.addPath(path, matrix);
+        textRunBounds.union(textRunGlyphBounds);
+    }
+
+    /**
+     * Draws the glyphs of the current text run, if any.
+     */
+    private void flushTextRun()
+    {
+        if (textRunPaint != null)
         {
-            textClippings.add(glyphPath);
+            textRunCanvas.drawPath(textRun, textRunPaint);
+            textRun.rewind();
+            textRunBounds.setEmpty();
+            textRunPaint = null;
+            textRunFont = null;
+            textRunState = null;
+            textRunCanvas = null;
+        }
+    }
+
+
+    /**
+     * Checks whether a glyph of the given font is outside of the clip, using the font bounding box.
+     * Glyphs needed for text clipping are never culled.
+     */
+    private boolean isGlyphCulled(PDFont font, android.graphics.Matrix matrix)
+    {
+        if (!isContentRendered() ||
+            getGraphicsState().getTextState().getRenderingMode().isClip())
+        {
+            return false;
+        }
+        RectF fontBounds = glyphBounds.get(font);
+        if (fontBounds == null)
+        {
+            fontBounds = new RectF();
+            BoundingBox bbox = getFontBoundingBox(font);
+            if (bbox != null && bbox.getWidth() > 0 && bbox.getHeight() > 0)
+            {
+                // some glyphs exceed the font bounding box, and non-embedded glyphs may be
+                // stretched, so the box is enlarged by half its size on every side
+                fontBounds.set(bbox.getLowerLeftX(), bbox.getLowerLeftY(),
+                    bbox.getUpperRightX(), bbox.getUpperRightY());
+                fontBounds.inset(-bbox.getWidth() / 2, -bbox.getHeight() / 2);
+            }
+            glyphBounds.put(font, fontBounds);
+        }
+        if (fontBounds.isEmpty())
+        {
+            return false;
+        }
+        RectF bounds = glyphCullBounds;
+        matrix.mapRect(bounds, fontBounds);
+        if (getGraphicsState().getTextState().getRenderingMode().isStroke())
+        {
+            float extent = transformWidth(getGraphicsState().getLineWidth()) / 2 + 1;
+            bounds.inset(-extent, -extent);
         }
+        setClip();
+        return isCulled(bounds);
     }
 
+    private static BoundingBox getFontBoundingBox(PDFont font)
+    {
+        try
+        {
+            return font.getBoundingBox();
+        }
+        catch (IOException e)
+        {
+            // don't cull the glyphs of this font, they may still be drawn
+            Log.w("PdfBox-Android", "Couldn't get the bounding box of font " + font.getName(), e);
+            return null;
+        }
+    }
 
     @Override
     protected void showType3Glyph(Matrix textRenderingMatrix, PDType3Font font, int code,
         Vector displacement) throws IOException
     {
+        flushTextRun();
         PDGraphicsState state = getGraphicsState();
         RenderingMode renderingMode = state.getTextState().getRenderingMode();
         if (!RenderingMode.NEITHER.equals(renderingMode))
@@ -677,6 +940,28 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         return dashArray;
     }
 
+    /**
+     * Checks whether the given bounds lie completely outside of the current clip, including the bounds of the target
+     * bitmap, e.g. when rendering a region of the page. The clip has to be set before.
+     *
+     * @param bounds the bounds of the content in the current user space of the canvas
+     * @return true if the content isn't visible and doesn't need to be drawn
+     */
+    protected boolean isCulled(RectF bounds)
+    {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R)
+        {
+            return canvas.quickReject(bounds);
+        }
+        return quickRejectAntiAliased(bounds);
+    }
+
+    @SuppressWarnings("deprecation")
+    private boolean quickRejectAntiAliased(RectF bounds)
+    {
+        return canvas.quickReject(bounds, Canvas.EdgeType.AA);
+    }
+
     @Override
     public void strokePath() throws IOException
     {
@@ -691,8 +976,16 @@ public class PageDrawer extends PDFGraphicsStreamEngine
             paint.setStrokeWidth(transformWidth(graphicsState.getLineWidth()));
             setClip();
 
-            canvas.drawPath(linePath, paint);
-            PathDebugger.logPath(linePath,1f);
+            // miter joins may exceed the line width
+            RectF bounds = new RectF();
+            linePath.computeBounds(bounds, true);
+            float extent = paint.getStrokeWidth() * Math.max(1, paint.getStrokeMiter()) / 2 + 1;
+            bounds.inset(-extent, -extent);
+            if (!isCulled(bounds))
+            {
+                canvas.drawPath(linePath, paint);
+                PathDebugger.logPath(linePath,1f);
+            }
         }
         linePath.reset();
     }
@@ -721,7 +1014,7 @@ public class PageDrawer extends PDFGraphicsStreamEngine
             paint.setAntiAlias(false);
         }
 
-        if (isContentRendered())
+        if (isContentRendered() && !isCulled(bounds))
         {
             paint.setStyle(Paint.Style.FILL);
             canvas.drawPath(linePath, paint);
@@ -826,7 +1119,16 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         Matrix ctm = getGraphicsState().getCurrentTransformationMatrix();
         AffineTransform at = ctm.createAffineTransform();
 
-        if (!pdImage.getInterpolate())
+        // the image is mapped to the unit square, skip decoding it if it isn't visible
+        setClip();
+        RectF imageBounds = new RectF(0, 0, 1, 1);
+        at.toMatrix().mapRect(imageBounds);
+        if (isCulled(imageBounds))
+        {
+            return;
+        }
+
+        if (!draft && !pdImage.getInterpolate())
         {
             // if the image is scaled down, we use smooth interpolation, eg PDFBOX-2364
             // only when scaled up do we use nearest neighbour, eg PDFBOX-2302 / mori-cvpr01.pdf
@@ -872,7 +1174,7 @@ public class PageDrawer extends PDFGraphicsStreamEngine
                 if (w <= 0 || h <= 0) return;
 
                 // --- render paint ---
-                Bitmap renderedPaint = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+                Bitmap renderedPaint = acquireBitmap(w, h, Bitmap.Config.ARGB_8888);
                 Canvas paintCanvas = new Canvas(renderedPaint);
                 paintCanvas.translate(-bounds.left, -bounds.top);
                 paintCanvas.drawRect(0, 0, 1, 1, paint);
@@ -885,7 +1187,8 @@ public class PageDrawer extends PDFGraphicsStreamEngine
                 imageTransform.postScale(1.0f / mask.getWidth(), -1.0f / mask.getHeight());
                 imageTransform.postTranslate(0, -mask.getHeight());
 
-                Bitmap renderedMask = Bitmap.createBitmap(w, h, Bitmap.Config.ALPHA_8);
+                // only the coverage of the mask is needed
+                Bitmap renderedMask = acquireBitmap(w, h, Bitmap.Config.ALPHA_8);
                 Canvas maskCanvas = new Canvas(renderedMask);
 
                 // scale mask for smooth
@@ -913,6 +1216,8 @@ public class PageDrawer extends PDFGraphicsStreamEngine
                 canvas.translate(bounds.left, bounds.top);
                 canvas.drawBitmap(renderedPaint, 0, 0, null);
                 canvas.restore();
+                releaseBitmap(renderedMask);
+                releaseBitmap(renderedPaint);
             }
             else {
                 var paint = getPaint(getGraphicsState().getNonStrokingColor());
@@ -924,6 +1229,10 @@ public class PageDrawer extends PDFGraphicsStreamEngine
                 drawBufferedImage(pdImage, image, at, canvas);
             }
         }
+        else if (draft)
+        {
+            drawBitmap(getDraftImage(pdImage, at), at);
+        }
         else
         {
             if (subsamplingAllowed)
@@ -1027,6 +1336,22 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         return subsampling;
     }
 
+    /**
+     * Returns the image for a draft, subsampled as far as possible and without its soft mask.
+     */
+    private Bitmap getDraftImage(PDImage pdImage, AffineTransform at) throws IOException
+    {
+        int subsampling = Math.max(getSubsampling(pdImage, at), DRAFT_SUBSAMPLING);
+        subsampling = Math.max(1, Math.min(subsampling,
+            Math.min(pdImage.getWidth(), pdImage.getHeight())));
+        if (pdImage instanceof PDImageXObject &&
+            pdImage.getCOSObject().containsKey(COSName.SMASK))
+        {
+            return ((PDImageXObject) pdImage).getOpaqueImage(null, subsampling);
+        }
+        return pdImage.getImage(null, subsampling);
+    }
+
     private void drawBitmap(Bitmap image, AffineTransform at) throws IOException
     {
         setClip();
@@ -1047,17 +1372,45 @@ public class PageDrawer extends PDFGraphicsStreamEngine
             COSBase transfer = getGraphicsState().getTransfer();
             if (transfer instanceof COSArray || transfer instanceof COSDictionary)
             {
-                image = applyTransferFunction(image, transfer);
+                Bitmap transferred = applyTransferFunction(image, transfer);
+                canvas.drawBitmap(transferred, imageTransform.toMatrix(), paint);
+                releaseBitmap(transferred);
             }
+            else
+            {
+                canvas.drawBitmap(image, imageTransform.toMatrix(), paint);
+            }
+        }
+    }
 
-            canvas.drawBitmap(image, imageTransform.toMatrix(), paint);
+    /**
+     * Returns an intermediate bitmap from the pool of the renderer, cleared to transparent.
+     */
+    private Bitmap acquireBitmap(int width, int height, Bitmap.Config config)
+    {
+        return renderer != null ? renderer.getBitmapPool().acquire(width, height, config)
+            : Bitmap.createBitmap(width, height, config);
+    }
+
+    /**
+     * Returns an intermediate bitmap to the pool of the renderer after it was drawn, if the page is
+     * drawn onto a bitmap of the renderer. Other canvases, e.g. a hardware accelerated one, a
+     * display list or a PDF document, may only record the bitmap to draw it later, so it must not
+     * be reused.
+     */
+    private void releaseBitmap(Bitmap bitmap)
+    {
+        if (renderer != null && bitmapReuseAllowed)
+        {
+            renderer.getBitmapPool().release(bitmap);
         }
     }
 
     private Bitmap applyTransferFunction(Bitmap image, COSBase transfer) throws IOException
     {
-        Bitmap bim = Bitmap.createBitmap(image.getWidth(), image.getHeight(), Bitmap.Config.ARGB_8888);
-        // TODO: Pdfbox-Android - does this always need to be ARGB_8888?
+        // ARGB_8888 is needed, the transfer functions change the colors of the image and keep
+        // its alpha, RGB_565 would lose both precision and alpha
+        Bitmap bim = acquireBitmap(image.getWidth(), image.getHeight(), Bitmap.Config.ARGB_8888);
 
         // prepare transfer functions (either one per color or one for all) 
         // and maps (actually arrays[256] to be faster) to avoid calculating values several times
@@ -1196,6 +1549,20 @@ public class PageDrawer extends PDFGraphicsStreamEngine
             return;
         }
 
+        // skip annotations outside of the clip before constructing their appearance, the
+        // appearance is mapped into the rectangle, unless it doesn't rotate with the page
+        PDRectangle annotationRect = annotation.getRectangle();
+        if (annotationRect != null && !(annotation.isNoRotate() && getCurrentPage().getRotation() != 0))
+        {
+            RectF bounds = new RectF(annotationRect.getLowerLeftX(), annotationRect.getLowerLeftY(),
+                annotationRect.getUpperRightX(), annotationRect.getUpperRightY());
+            setClip();
+            if (isCulled(bounds))
+            {
+                return;
+            }
+        }
+
         //TODO support NoZoom, example can be found in p5 of PDFBOX-2348
         PDAppearanceDictionary appearance = annotation.getAppearance();
         if (appearance == null || appearance.getNormalAppearance() == null)
@@ -1294,7 +1661,7 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         {
             return;
         }
-        if (isContentRendered())
+        if (isContentRendered() && !isFormCulled(form))
         {
             Path savedLinePath = new Path(linePath);
             linePath = new Path();
@@ -1303,6 +1670,25 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         }
     }
 
+    /**
+     * Checks whether the given form is outside of the clip, the content of a form is clipped to
+     * its bounding box.
+     */
+    private boolean isFormCulled(PDFormXObject form)
+    {
+        PDRectangle bbox = form.getBBox();
+        if (bbox == null)
+        {
+            return false;
+        }
+        Matrix transform =
+            Matrix.concatenate(getGraphicsState().getCurrentTransformationMatrix(), form.getMatrix());
+        RectF bounds = new RectF();
+        bbox.transform(transform).computeBounds(bounds, true);
+        setClip();
+        return isCulled(bounds);
+    }
+
     public void setStroke(Paint p, float width, Paint.Cap cap, Paint.Join join, float miterLimit, float[] dash, float dash_phase)
     {
         p.setStrokeWidth(width);
@@ -1335,8 +1721,14 @@ public class PageDrawer extends PDFGraphicsStreamEngine
         {
             return;
         }
-        if (!isContentRendered())
+        if (!isContentRendered() || isFormCulled(form))
+        {
+            return;
+        }
+        if (draft)
         {
+            // draw the content of the group like a form, without checking for blend modes
+            processTransparencyGroup(form);
             return;
         }
         TransparencyGroup group =
@@ -1502,7 +1894,7 @@ public class PageDrawer extends PDFGraphicsStreamEngine
                 if (transparencyGroupStack.isEmpty())
                 {
                     // Use the current page as the parent group.
-                    backdropImage = renderer.getPageImage();
+                    backdropImage = pageImage;
                     if (backdropImage == null)
                     {
                         needsBackdrop = false;
@@ -17,6 +17,8 @@
 
 package com.tom_roush.pdfbox.rendering;
 
+import android.graphics.Bitmap;
+
 import com.tom_roush.pdfbox.pdmodel.PDPage;
 
 /**
@@ -33,6 +35,11 @@ public final class PageDrawerParameters
     private final boolean subsamplingAllowed;
     private final RenderDestination destination;
     private final float imageDownscalingOptimizationThreshold;
+    private final Bitmap pageImage;
+    private final CancellationToken cancellationToken;
+    private final boolean draft;
+    private final boolean recording;
+    private final boolean bitmapReuseAllowed;
 
     /**
      * Package-private constructor.
@@ -40,12 +47,30 @@ public final class PageDrawerParameters
     PageDrawerParameters(PDFRenderer renderer, PDPage page, boolean subsamplingAllowed,
         RenderDestination destination,
         float imageDownscalingOptimizationThreshold)
+    {
+        this(renderer, page, subsamplingAllowed, destination, imageDownscalingOptimizationThreshold, null,
+            null, false, false, false);
+    }
+
+    /**
+     * Package-private constructor.
+     */
+    PageDrawerParameters(PDFRenderer renderer, PDPage page, boolean subsamplingAllowed,
+        RenderDestination destination,
+        float imageDownscalingOptimizationThreshold, Bitmap pageImage,
+        CancellationToken cancellationToken, boolean draft, boolean recording,
+        boolean bitmapReuseAllowed)
     {
         this.renderer = renderer;
         this.page = page;
         this.subsamplingAllowed = subsamplingAllowed;
         this.destination = destination;
         this.imageDownscalingOptimizationThreshold = imageDownscalingOptimizationThreshold;
+        this.pageImage = pageImage;
+        this.cancellationToken = cancellationToken;
+        this.draft = draft;
+        this.recording = recording;
+        this.bitmapReuseAllowed = bitmapReuseAllowed;
     }
 
     /**
@@ -89,4 +114,49 @@ public final class PageDrawerParameters
     {
         return imageDownscalingOptimizationThreshold;
     }
+
+    /**
+     * Returns the image to which the page is being rendered. May be null if the page isn't
+     * rendered to a Bitmap of the whole page.
+     */
+    Bitmap getPageImage()
+    {
+        return pageImage;
+    }
+
+    /**
+     * Returns the token to stop rendering, may be null.
+     */
+    public CancellationToken getCancellationToken()
+    {
+        return cancellationToken;
+    }
+
+    /**
+     * Returns whether a quick draft of the page is to be drawn, with heavily subsampled images,
+     * without soft masks and transparency groups and without anti-aliasing.
+     */
+    public boolean isDraft()
+    {
+        return draft;
+    }
+
+    /**
+     * Returns whether the page is recorded into a display list to be replayed later, so that the
+     * bitmaps drawn must not be reused.
+     */
+    public boolean isRecording()
+    {
+        return recording;
+    }
+
+    /**
+     * Returns whether the page is drawn onto a bitmap owned by the renderer, so that intermediate
+     * bitmaps can be returned to its pool once they were drawn. Other canvases, e.g. of a
+     * {@link android.graphics.Picture} or of a PDF document, may keep a reference to them.
+     */
+    boolean isBitmapReuseAllowed()
+    {
+        return bitmapReuseAllowed;
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import android.graphics.Bitmap;
+
+import java.io.IOException;
+
+/**
+ * Receives the images of a page rendered in two passes, a quick draft followed by the page in
+ * full quality.
+ *
+ * @see PDFRenderer#renderImageProgressively(int, float, ImageType, ProgressiveRenderListener,
+ * CancellationToken)
+ */
+public interface ProgressiveRenderListener
+{
+    /**
+     * Called when the draft of the page was rendered, with heavily subsampled images, without soft
+     * masks and transparency groups and without anti-aliasing.
+     *
+     * @param pageIndex the zero-based index of the page
+     * @param draft the draft image of the page
+     * @throws IOException if the image could not be handled, the page isn't rendered any further
+     */
+    void draftRendered(int pageIndex, Bitmap draft) throws IOException;
+
+    /**
+     * Called when the page was rendered in full quality. Not called if rendering was cancelled
+     * before.
+     *
+     * @param pageIndex the zero-based index of the page
+     * @param image the image of the page
+     * @throws IOException if the image could not be handled
+     */
+    void pageRendered(int pageIndex, Bitmap image) throws IOException;
+}
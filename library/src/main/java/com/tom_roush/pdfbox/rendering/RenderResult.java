@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import android.graphics.Bitmap;
+
+/**
+ * The image of a rendered page and whether the page was rendered completely.
+ */
+public final class RenderResult
+{
+    private final Bitmap image;
+    private final boolean complete;
+
+    RenderResult(Bitmap image, boolean complete)
+    {
+        this.image = image;
+        this.complete = complete;
+    }
+
+    /**
+     * Returns the rendered page image, which is partial if rendering was cancelled.
+     *
+     * @return the page image
+     */
+    public Bitmap getImage()
+    {
+        return image;
+    }
+
+    /**
+     * Returns whether the page was rendered completely.
+     *
+     * @return false if rendering was cut off by a {@link CancellationToken}
+     */
+    public boolean isComplete()
+    {
+        return complete;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.text;
+
+import java.util.Arrays;
+
+/**
+ * The positions of the characters shown on a page, used to find duplicate overlapping text.
+ *
+ * <p>The positions are kept in a hash table of grid cells, with the coordinates stored as
+ * primitive values in parallel arrays. A lookup only visits the cells covered by the tolerance,
+ * so that it costs about the same for every character no matter how many characters are on the
+ * page. The arrays are reused for the following pages.</p>
+ */
+final class OverlappingTextIndex
+{
+    // the size of a grid cell, about twice the tolerance of body text
+    private static final float CELL_SIZE = 4;
+
+    // lookups covering more cells scan all positions instead
+    private static final int MAX_CELLS = 256;
+
+    private static final int END = -1;
+
+    private int[] buckets = new int[256];
+    private int[] next = new int[128];
+    private int[] hashes = new int[128];
+    private float[] xs = new float[128];
+    private float[] ys = new float[128];
+    private String[] texts = new String[128];
+    private int size = 0;
+
+    OverlappingTextIndex()
+    {
+        Arrays.fill(buckets, END);
+    }
+
+    /**
+     * Checks whether the same text was added at a position within the given tolerance, i.e.
+     * with x and y in the half-open ranges [x - tolerance, x + tolerance).
+     *
+     * @param text the text of the character
+     * @param x the x coordinate of the character
+     * @param y the y coordinate of the character
+     * @param tolerance the tolerance of both coordinates
+     * @return true if the text was found
+     */
+    boolean contains(String text, float x, float y, float tolerance)
+    {
+        if (!(tolerance > 0))
+        {
+            return false;
+        }
+        float minX = x - tolerance;
+        float maxX = x + tolerance;
+        float minY = y - tolerance;
+        float maxY = y + tolerance;
+        int minCellX = cell(minX);
+        int maxCellX = cell(maxX);
+        int minCellY = cell(minY);
+        int maxCellY = cell(maxY);
+        if (((long) maxCellX - minCellX + 1) * ((long) maxCellY - minCellY + 1) > MAX_CELLS)
+        {
+            // e.g. very large glyphs
+            for (int i = 0; i < size; i++)
+            {
+                if (matches(i, text, minX, maxX, minY, maxY))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        int textHash = text.hashCode();
+        for (long cellX = minCellX; cellX <= maxCellX; cellX++)
+        {
+            for (long cellY = minCellY; cellY <= maxCellY; cellY++)
+            {
+                int hash = hash(textHash, (int) cellX, (int) cellY);
+                for (int i = buckets[hash & (buckets.length - 1)]; i != END; i = next[i])
+                {
+                    if (hashes[i] == hash && matches(i, text, minX, maxX, minY, maxY))
+                    {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the position of a character.
+     *
+     * @param text the text of the character
+     * @param x the x coordinate of the character
+     * @param y the y coordinate of the character
+     */
+    void add(String text, float x, float y)
+    {
+        if (size == xs.length)
+        {
+            grow();
+        }
+        int hash = hash(text.hashCode(), cell(x), cell(y));
+        int bucket = hash & (buckets.length - 1);
+        hashes[size] = hash;
+        xs[size] = x;
+        ys[size] = y;
+        texts[size] = text;
+        next[size] = buckets[bucket];
+        buckets[bucket] = size;
+        size++;
+    }
+
+    /**
+     * Removes all positions.
+     */
+    void clear()
+    {
+        Arrays.fill(buckets, END);
+        Arrays.fill(texts, 0, size, null);
+        size = 0;
+    }
+
+    private boolean matches(int index, String text, float minX, float maxX, float minY, float maxY)
+    {
+        float otherX = xs[index];
+        float otherY = ys[index];
+        return otherX >= minX && otherX < maxX && otherY >= minY && otherY < maxY
+                && text.equals(texts[index]);
+    }
+
+    private void grow()
+    {
+        int capacity = size * 2;
+        next = Arrays.copyOf(next, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        texts = Arrays.copyOf(texts, capacity);
+
+        // keep the load factor of the table at most 0.5
+        buckets = new int[capacity * 2];
+        Arrays.fill(buckets, END);
+        int mask = buckets.length - 1;
+        for (int i = 0; i < size; i++)
+        {
+            int bucket = hashes[i] & mask;
+            next[i] = buckets[bucket];
+            buckets[bucket] = i;
+        }
+    }
+
+    private static int cell(float coordinate)
+    {
+        // saturates for huge and infinite values, NaN is mapped to 0
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    private static int hash(int textHash, int cellX, int cellY)
+    {
+        int hash = textHash * 31 + cellX;
+        hash = hash * 31 + cellY;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.text;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+
+/**
+ * Extracts the text of the pages of a document concurrently, e.g. to index large documents.
+ *
+ * <p>Every page is processed by a {@link PDFTextStripper} of its own on a thread of the given
+ * executor, the strippers are created by the given factory and reused for further pages. The text
+ * of the pages is written in page order, so that the output is the same as the one of
+ * {@link PDFTextStripper#writeText(PDDocument, Writer)} using a stripper of the factory. The
+ * start and end page and the start and end bookmark of the strippers are respected.</p>
+ *
+ * <p>The pages are looked up on the calling thread, which also writes the text. The number of
+ * pages processed ahead of the page being written is limited, see
+ * {@link #setMaxPendingPages(int)}. The document must not be changed while its text is being
+ * extracted.</p>
+ */
+public final class PDFParallelTextStripper
+{
+    private static final int DEFAULT_MAX_PENDING_PAGES = 64;
+
+    private final Supplier<? extends PDFTextStripper> stripperFactory;
+    private final Executor executor;
+    private int maxPendingPages = DEFAULT_MAX_PENDING_PAGES;
+
+    /**
+     * Constructor.
+     *
+     * @param stripperFactory creates a new, configured stripper on every call, the start and end
+     * page, the bookmarks and all other settings must be the same for all strippers
+     * @param executor the executor running the extraction tasks
+     */
+    public PDFParallelTextStripper(Supplier<? extends PDFTextStripper> stripperFactory,
+            Executor executor)
+    {
+        this.stripperFactory = stripperFactory;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the maximum number of pages being processed or waiting to be written.
+     *
+     * @return the maximum number of pending pages
+     */
+    public int getMaxPendingPages()
+    {
+        return maxPendingPages;
+    }
+
+    /**
+     * Sets the maximum number of pages being processed or waiting to be written, which limits the
+     * memory used for the text of pages processed ahead. It should be larger than the number of
+     * threads of the executor. The default is 64.
+     *
+     * @param maxPendingPages the maximum number of pending pages
+     */
+    public void setMaxPendingPages(int maxPendingPages)
+    {
+        if (maxPendingPages < 1)
+        {
+            throw new IllegalArgumentException("maxPendingPages must be positive: " + maxPendingPages);
+        }
+        this.maxPendingPages = maxPendingPages;
+    }
+
+    /**
+     * This will return the text of a document, see {@link #writeText(PDDocument, Writer)}.
+     *
+     * @param doc The document to get the text from.
+     * @return The text of the PDF document.
+     * @throws IOException if the doc state is invalid or it is encrypted.
+     */
+    public String getText(PDDocument doc) throws IOException
+    {
+        StringWriter outputStream = new StringWriter();
+        writeText(doc, outputStream);
+        return outputStream.toString();
+    }
+
+    /**
+     * Extracts the text of the pages concurrently and writes it to the given writer in page
+     * order. Returns after the text of all pages was written.
+     *
+     * @param doc The document to get the data from.
+     * @param outputStream The location to put the text.
+     * @throws IOException if a page could not be processed or the text could not be written, the
+     * first error is thrown
+     */
+    public void writeText(PDDocument doc, Writer outputStream) throws IOException
+    {
+        PDFTextStripper mainStripper = stripperFactory.get();
+        mainStripper.startWriteText(doc, outputStream);
+
+        // the page tree may be changed while looking up a page, so don't do that concurrently
+        List<PDPage> pages = new ArrayList<>();
+        List<Integer> pageNumbers = new ArrayList<>();
+        int pageNo = 1;
+        for (PDPage page : doc.getPages())
+        {
+            if (page.hasContents() && mainStripper.isPageInRange(pageNo))
+            {
+                pages.add(page);
+                pageNumbers.add(pageNo);
+            }
+            pageNo++;
+        }
+
+        Extraction extraction = new Extraction(doc, pages, pageNumbers);
+        try
+        {
+            for (int i = 0; i < pages.size(); i++)
+            {
+                extraction.submitUpTo(Math.min(i + maxPendingPages, pages.size()));
+                outputStream.write(extraction.awaitText(i));
+            }
+        }
+        finally
+        {
+            extraction.finish();
+        }
+        mainStripper.endWriteText();
+    }
+
+    /**
+     * The state of the extraction of the text of a document.
+     */
+    private final class Extraction
+    {
+        private final PDDocument document;
+        private final List<PDPage> pages;
+        private final List<Integer> pageNumbers;
+        private final String[] texts;
+        private final Queue<PDFTextStripper> idleStrippers = new ConcurrentLinkedQueue<>();
+
+        // only used by the calling thread
+        private int submitted = 0;
+
+        // guarded by this
+        private int running = 0;
+        private Throwable failure;
+        private boolean stopped = false;
+
+        private Extraction(PDDocument document, List<PDPage> pages, List<Integer> pageNumbers)
+        {
+            this.document = document;
+            this.pages = pages;
+            this.pageNumbers = pageNumbers;
+            this.texts = new String[pages.size()];
+        }
+
+        private void submitUpTo(int end)
+        {
+            while (submitted < end)
+            {
+                final int index = submitted++;
+                synchronized (this)
+                {
+                    running++;
+                }
+                try
+                {
+                    executor.execute(() -> extract(index));
+                }
+                catch (RuntimeException e)
+                {
+                    // e.g. rejected
+                    finished(index, null, e);
+                }
+            }
+        }
+
+        private void extract(int index)
+        {
+            String text = null;
+            Throwable error = null;
+            try
+            {
+                if (!isStopped())
+                {
+                    PDFTextStripper stripper = idleStrippers.poll();
+                    if (stripper == null)
+                    {
+                        stripper = stripperFactory.get();
+                    }
+                    StringWriter pageOutput = new StringWriter();
+                    stripper.writePageText(document, pages.get(index), pageNumbers.get(index),
+                            pageOutput);
+                    idleStrippers.add(stripper);
+                    text = pageOutput.toString();
+                }
+            }
+            catch (IOException | RuntimeException | Error e)
+            {
+                error = e;
+            }
+            finished(index, text, error);
+        }
+
+        private synchronized boolean isStopped()
+        {
+            return stopped || failure != null;
+        }
+
+        private synchronized void finished(int index, String text, Throwable error)
+        {
+            texts[index] = text;
+            if (error != null && failure == null)
+            {
+                failure = error;
+            }
+            running--;
+            notifyAll();
+        }
+
+        private synchronized String awaitText(int index) throws IOException
+        {
+            while (texts[index] == null && failure == null)
+            {
+                try
+                {
+                    wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while extracting text");
+                }
+            }
+            if (failure instanceof IOException)
+            {
+                throw (IOException) failure;
+            }
+            if (failure instanceof RuntimeException)
+            {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error)
+            {
+                throw (Error) failure;
+            }
+            String text = texts[index];
+            texts[index] = null;
+            return text;
+        }
+
+        /**
+         * Waits until no page is processed any more, so that the caller may close the document.
+         */
+        private synchronized void finish()
+        {
+            // pages which didn't start yet are skipped, e.g. if the writer failed
+            stopped = true;
+            boolean interrupted = false;
+            while (running > 0)
+            {
+                try
+                {
+                    wait();
+                }
+                catch (InterruptedException e)
+                {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.text;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+
+/**
+ * Extracts the text of a document as a stream of page, paragraph and line events instead of a
+ * single string, so that the text of large documents doesn't have to be kept in memory.
+ *
+ * <p>The text is laid out like by {@link PDFTextStripper}, all of its settings such as the page
+ * range and the sorting by position are respected. The events of a page are sent to the
+ * {@link TextStreamHandler} as soon as the page was processed, the handler may pause the
+ * extraction by blocking, or stop it after any page.</p>
+ */
+public class PDFTextStreamStripper extends PDFTextStripper
+{
+    private TextStreamHandler handler;
+    private boolean includePositions = false;
+    private boolean stopped;
+
+    // the state of the current page
+    private final StringBuilder lineText = new StringBuilder();
+    private final List<TextPosition> linePositions = new ArrayList<>();
+    private boolean hasLine;
+    private boolean inParagraph;
+
+    /**
+     * Returns whether the positions of the text are passed to the handler.
+     *
+     * @return true if the positions are included
+     */
+    public boolean getIncludePositions()
+    {
+        return includePositions;
+    }
+
+    /**
+     * Sets whether the positions of the text of every line are passed to the handler. The default
+     * is false.
+     *
+     * @param includePositions true to include the positions
+     */
+    public void setIncludePositions(boolean includePositions)
+    {
+        this.includePositions = includePositions;
+    }
+
+    /**
+     * Extracts the text of the document and sends it to the given handler. Returns after the last
+     * page was processed or the handler stopped the extraction.
+     *
+     * @param doc The document to get the text from.
+     * @param handler The handler receiving the text.
+     * @throws IOException If the doc is in an invalid state or the handler failed.
+     */
+    public void streamText(PDDocument doc, TextStreamHandler handler) throws IOException
+    {
+        this.handler = handler;
+        stopped = false;
+        try
+        {
+            writeText(doc, new NullWriter());
+        }
+        finally
+        {
+            this.handler = null;
+            clearLine();
+            inParagraph = false;
+        }
+    }
+
+    @Override
+    public void processPage(PDPage page) throws IOException
+    {
+        if (!stopped)
+        {
+            super.processPage(page);
+        }
+    }
+
+    @Override
+    protected void startPage(PDPage page) throws IOException
+    {
+        super.startPage(page);
+        if (handler != null)
+        {
+            handler.startPage(getCurrentPageNo());
+        }
+    }
+
+    @Override
+    protected void endPage(PDPage page) throws IOException
+    {
+        super.endPage(page);
+        if (handler != null)
+        {
+            endParagraph();
+            stopped = !handler.endPage(getCurrentPageNo());
+        }
+    }
+
+    @Override
+    protected void writeString(String text, List<TextPosition> textPositions) throws IOException
+    {
+        super.writeString(text, textPositions);
+        lineText.append(text);
+        if (includePositions && textPositions != null)
+        {
+            linePositions.addAll(textPositions);
+        }
+        hasLine = true;
+    }
+
+    @Override
+    protected void writeWordSeparator() throws IOException
+    {
+        super.writeWordSeparator();
+        lineText.append(getWordSeparator());
+    }
+
+    @Override
+    protected void writeLineSeparator() throws IOException
+    {
+        super.writeLineSeparator();
+        endLine();
+    }
+
+    @Override
+    protected void writeParagraphStart() throws IOException
+    {
+        super.writeParagraphStart();
+        if (handler != null)
+        {
+            endParagraph();
+            handler.startParagraph();
+            inParagraph = true;
+        }
+    }
+
+    @Override
+    protected void writeParagraphEnd() throws IOException
+    {
+        super.writeParagraphEnd();
+        endParagraph();
+    }
+
+    private void endLine() throws IOException
+    {
+        if (handler == null || !hasLine)
+        {
+            clearLine();
+            return;
+        }
+        if (!inParagraph)
+        {
+            handler.startParagraph();
+            inParagraph = true;
+        }
+        List<TextPosition> positions = includePositions
+                ? Collections.unmodifiableList(new ArrayList<>(linePositions)) : null;
+        String text = lineText.toString();
+        clearLine();
+        handler.line(text, positions);
+    }
+
+    private void endParagraph() throws IOException
+    {
+        endLine();
+        if (handler != null && inParagraph)
+        {
+            inParagraph = false;
+            handler.endParagraph();
+        }
+    }
+
+    private void clearLine()
+    {
+        lineText.setLength(0);
+        linePositions.clear();
+        hasLine = false;
+    }
+
+    /**
+     * The output of the underlying stripper isn't needed, the text is passed to the handler.
+     */
+    private static final class NullWriter extends Writer
+    {
+        @Override
+        public void write(char[] cbuf, int off, int len)
+        {
+            // discard
+        }
+
+        @Override
+        public void write(String str)
+        {
+            // discard
+        }
+
+        @Override
+        public void flush()
+        {
+            // nothing to do
+        }
+
+        @Override
+        public void close()
+        {
+            // nothing to do
+        }
+    }
+}
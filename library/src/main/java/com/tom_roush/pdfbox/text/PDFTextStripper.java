@@ -37,11 +37,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.SortedSet;
 import java.util.StringTokenizer;
-import java.util.TreeMap;
-import java.util.TreeSet;
 import java.util.regex.Pattern;
 
 import com.tom_roush.pdfbox.android.PDFBoxResourceLoader;
@@ -57,7 +53,6 @@ import com.tom_roush.pdfbox.pdmodel.common.PDRectangle;
 import com.tom_roush.pdfbox.pdmodel.documentinterchange.markedcontent.PDMarkedContent;
 import com.tom_roush.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
 import com.tom_roush.pdfbox.pdmodel.interactive.pagenavigation.PDThreadBead;
-import com.tom_roush.pdfbox.util.IterativeMergeSort;
 
 /**
  * This class will take a pdf document and strip out all of the text and ignore the formatting and such. Please note; it
@@ -180,7 +175,7 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
      */
     protected ArrayList<List<TextPosition>> charactersByArticle = new ArrayList<>();
 
-    private final Map<String, TreeMap<Float, TreeSet<Float>>> characterListMapping = new HashMap<>();
+    private final OverlappingTextIndex overlappingTextIndex = new OverlappingTextIndex();
 
     protected PDDocument document;
     protected Writer output;
@@ -225,7 +220,7 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
         currentPageNo = 1;
         document = null;
         charactersByArticle.clear();
-        characterListMapping.clear();
+        overlappingTextIndex.clear();
     }
 
     /**
@@ -237,10 +232,19 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
      * @throws IOException If the doc is in an invalid state.
      */
     public void writeText(PDDocument doc, Writer outputStream) throws IOException
+    {
+        prepare(doc, outputStream);
+        startDocument(document);
+        processPages(document.getPages());
+        endDocument(document);
+    }
+
+    private void prepare(PDDocument doc, Writer outputStream)
     {
         resetEngine();
         document = doc;
         output = outputStream;
+        setContentStreamCache(doc.getContentStreamCache());
         if (getAddMoreFormatting())
         {
             paragraphEnd = lineSeparator;
@@ -248,11 +252,55 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
             articleStart = lineSeparator;
             articleEnd = lineSeparator;
         }
+    }
+
+    /**
+     * Starts writing the text of the given document, but doesn't process any page, the pages are
+     * written by {@link #writePageText(PDDocument, PDPage, int, Writer)}. This is used by
+     * {@link PDFParallelTextStripper}.
+     *
+     * @param doc The document to get the data from.
+     * @param outputStream The location to put the text.
+     * @throws IOException If the doc is in an invalid state.
+     */
+    void startWriteText(PDDocument doc, Writer outputStream) throws IOException
+    {
+        prepare(doc, outputStream);
+        findBookmarkPageNumbers(document.getPages());
         startDocument(document);
-        processPages(document.getPages());
+    }
+
+    /**
+     * Finishes writing the text of the document started by
+     * {@link #startWriteText(PDDocument, Writer)}.
+     *
+     * @throws IOException If an IO error occurs.
+     */
+    void endWriteText() throws IOException
+    {
         endDocument(document);
     }
 
+    /**
+     * Writes the text of a single page, the page range and bookmarks have to be checked by the
+     * caller using {@link #isPageInRange(int)}.
+     *
+     * @param doc The document of the page.
+     * @param page The page to process.
+     * @param pageNo The 1-based number of the page.
+     * @param outputStream The location to put the text.
+     * @throws IOException If there is an error processing the page.
+     */
+    void writePageText(PDDocument doc, PDPage page, int pageNo, Writer outputStream)
+            throws IOException
+    {
+        prepare(doc, outputStream);
+        currentPageNo = pageNo;
+        startBookmarkPageNumber = -1;
+        endBookmarkPageNumber = -1;
+        processPage(page);
+    }
+
     /**
      * This will process all of the pages and the text that is in them.
      *
@@ -261,6 +309,20 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
      * @throws IOException If there is an error parsing the text.
      */
     protected void processPages(PDPageTree pages) throws IOException
+    {
+        findBookmarkPageNumbers(pages);
+
+        for (PDPage page : pages)
+        {
+            if (page.hasContents())
+            {
+                processPage(page);
+            }
+            currentPageNo++;
+        }
+    }
+
+    private void findBookmarkPageNumbers(PDPageTree pages) throws IOException
     {
         PDPage startBookmarkPage = startBookmark == null ? null
                 : startBookmark.findDestinationPage(document);
@@ -296,15 +358,20 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
             startBookmarkPageNumber = 0;
             endBookmarkPageNumber = 0;
         }
+    }
 
-        for (PDPage page : pages)
-        {
-            if (page.hasContents())
-            {
-                processPage(page);
-            }
-            currentPageNo++;
-        }
+    /**
+     * Checks whether the text of the page with the given number is to be extracted, according to
+     * the start and end page and the start and end bookmark.
+     *
+     * @param pageNo The 1-based number of the page.
+     * @return true if the text of the page is to be extracted
+     */
+    boolean isPageInRange(int pageNo)
+    {
+        return pageNo >= startPage && pageNo <= endPage
+                && (startBookmarkPageNumber == -1 || pageNo >= startBookmarkPageNumber)
+                && (endBookmarkPageNumber == -1 || pageNo <= endBookmarkPageNumber);
     }
 
     /**
@@ -340,9 +407,7 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
     @Override
     public void processPage(PDPage page) throws IOException
     {
-        if (currentPageNo >= startPage && currentPageNo <= endPage
-                && (startBookmarkPageNumber == -1 || currentPageNo >= startBookmarkPageNumber)
-                && (endBookmarkPageNumber == -1 || currentPageNo <= endBookmarkPageNumber))
+        if (isPageInRange(currentPageNo))
         {
             startPage(page);
 
@@ -375,7 +440,7 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
                     }
                 }
             }
-            characterListMapping.clear();
+            overlappingTextIndex.clear();
             super.processPage(page);
             writePage();
             endPage(page);
@@ -513,19 +578,9 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
         {
             if (getSortByPosition())
             {
-                TextPositionComparator comparator = new TextPositionComparator();
-
-                // because the TextPositionComparator is not transitive, but
-                // JDK7+ enforces transitivity on comparators, we need to use
-                // a custom mergesort implementation (which is slower, unfortunately).
-                try
-                {
-                    textList.sort(comparator);
-                }
-                catch (IllegalArgumentException e)
-                {
-                    IterativeMergeSort.sort(textList, comparator);
-                }
+                // the TextPositionComparator is not transitive, so that sorting with it may fail,
+                // the lines are sorted one after another instead
+                TextPositionSorter.sort(textList);
                 // PDFBOX-5487: Remove all space characters if contained within the adjacent letters
                 removeContainedSpaces(textList);
             }
@@ -591,7 +646,7 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
                 }
 
                 // The current amount of characters in a word
-                int wordCharCount = position.getIndividualWidths().length;
+                int wordCharCount = position.getIndividualWidthCount();
 
                 // Estimate the expected width of the space based on the
                 // space character with some margin.
@@ -916,8 +971,6 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
             String textCharacter = text.getUnicode();
             float textX = text.getX();
             float textY = text.getY();
-            TreeMap<Float, TreeSet<Float>> sameTextCharacters = characterListMapping
-                    .computeIfAbsent(textCharacter, k -> new TreeMap<>());
             // RDD - Here we compute the value that represents the end of the rendered
             // text. This value is used to determine whether subsequent text rendered
             // on the same line overwrites the current text.
@@ -928,24 +981,11 @@ public class PDFTextStripper extends LegacyPDFStreamEngine
             // the TJ just backs up to compensate after each character). Also, we subtract
             // an amount to allow for kerning (a percentage of the width of the last
             // character).
-            boolean suppressCharacter = false;
             float tolerance = text.getWidth() / textCharacter.length() / 3.0f;
 
-            SortedMap<Float, TreeSet<Float>> xMatches = sameTextCharacters.subMap(textX - tolerance,
-                    textX + tolerance);
-            for (TreeSet<Float> xMatch : xMatches.values())
-            {
-                SortedSet<Float> yMatches = xMatch.subSet(textY - tolerance, textY + tolerance);
-                if (!yMatches.isEmpty())
-                {
-                    suppressCharacter = true;
-                    break;
-                }
-            }
-            if (!suppressCharacter)
+            if (!overlappingTextIndex.contains(textCharacter, textX, textY, tolerance))
             {
-                TreeSet<Float> ySet = sameTextCharacters.computeIfAbsent(textX, k -> new TreeSet<>());
-                ySet.add(textY);
+                overlappingTextIndex.add(textCharacter, textX, textY);
                 showCharacter = true;
             }
         }
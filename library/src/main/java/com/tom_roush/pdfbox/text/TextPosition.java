@@ -38,8 +38,14 @@ public final class TextPosition
     private static final Map<Integer, String> DIACRITICS = createDiacritics();
 
     // text matrix for the start of the text object, coordinates are in display units
-    // and have not been adjusted
-    private final Matrix textMatrix;
+    // and have not been adjusted. Its values are kept as fields instead of a Matrix object to
+    // reduce the memory used by the positions of a page, see getTextMatrix()
+    private final float scaleX;
+    private final float shearY;
+    private final float shearX;
+    private final float scaleY;
+    private final float translateX;
+    private final float translateY;
 
     // ending X and Y coordinates in display units
     private final float endX;
@@ -60,7 +66,8 @@ public final class TextPosition
     private final int fontSizePt;
 
     // mutable
-    private float[] widths;
+    private float width;
+    private float[] widths; // only created if needed, see widths()
     private String unicode;
     private float direction = -1;
 
@@ -87,7 +94,12 @@ public final class TextPosition
                         float spaceWidth, String unicode, int[] charCodes, PDFont font,
                         float fontSize, int fontSizeInPt)
     {
-        this.textMatrix = textMatrix;
+        this.scaleX = textMatrix.getScaleX();
+        this.shearY = textMatrix.getShearY();
+        this.shearX = textMatrix.getShearX();
+        this.scaleY = textMatrix.getScaleY();
+        this.translateX = textMatrix.getTranslateX();
+        this.translateY = textMatrix.getTranslateY();
 
         this.endX = endX;
         this.endY = endY;
@@ -98,7 +110,7 @@ public final class TextPosition
         this.pageHeight = pageHeight;
         this.pageWidth = pageWidth;
 
-        this.widths = new float[] { individualWidth };
+        this.width = individualWidth;
         this.widthOfSpace = spaceWidth;
         this.unicode = unicode;
         this.charCodes = charCodes;
@@ -223,11 +235,13 @@ public final class TextPosition
      * is dependent on the current transformation matrix (set by the "cm" operator), the text matrix
      * (set by the "Tm" operator), the font size (set by the "Tf" operator) and the page cropbox).
      *
+     * <p>A new matrix is returned on every call.</p>
+     *
      * @return The Matrix containing the starting text position
      */
     public Matrix getTextMatrix()
     {
-        return textMatrix;
+        return new Matrix(scaleX, shearY, shearX, scaleY, translateX, translateY);
     }
 
     /**
@@ -246,10 +260,10 @@ public final class TextPosition
     {
         if (direction < 0)
         {
-            float a = textMatrix.getScaleY();
-            float b = textMatrix.getShearY();
-            float c = textMatrix.getShearX();
-            float d = textMatrix.getScaleX();
+            float a = scaleY;
+            float b = shearY;
+            float c = shearX;
+            float d = scaleX;
 
             // 12 0   left to right
             // 0 12
@@ -294,19 +308,19 @@ public final class TextPosition
     {
         if (Float.compare(rotation, 0) == 0)
         {
-            return textMatrix.getTranslateX();
+            return translateX;
         }
         else if (Float.compare(rotation, 90) == 0)
         {
-            return textMatrix.getTranslateY();
+            return translateY;
         }
         else if (Float.compare(rotation, 180) == 0)
         {
-            return pageWidth - textMatrix.getTranslateX();
+            return pageWidth - translateX;
         }
         else if (Float.compare(rotation, 270) == 0)
         {
-            return pageHeight - textMatrix.getTranslateY();
+            return pageHeight - translateY;
         }
         return 0;
     }
@@ -357,19 +371,19 @@ public final class TextPosition
     {
         if (Float.compare(rotation, 0) == 0)
         {
-            return textMatrix.getTranslateY();
+            return translateY;
         }
         else if (Float.compare(rotation, 90) == 0)
         {
-            return pageWidth - textMatrix.getTranslateX();
+            return pageWidth - translateX;
         }
         else if (Float.compare(rotation, 180) == 0)
         {
-            return pageHeight - textMatrix.getTranslateY();
+            return pageHeight - translateY;
         }
         else if (Float.compare(rotation, 270) == 0)
         {
-            return textMatrix.getTranslateX();
+            return translateX;
         }
         return 0;
     }
@@ -427,11 +441,11 @@ public final class TextPosition
     {
         if (Float.compare(rotation, 90) == 0 || Float.compare(rotation, 270) == 0)
         {
-            return Math.abs(endY - textMatrix.getTranslateY());
+            return Math.abs(endY - translateY);
         }
         else
         {
-            return Math.abs(endX - textMatrix.getTranslateX());
+            return Math.abs(endX - translateX);
         }
     }
 
@@ -533,7 +547,12 @@ public final class TextPosition
      */
     public float getXScale()
     {
-        return textMatrix.getScalingFactorX();
+        // same as Matrix.getScalingFactorX()
+        if (shearY != 0.0f)
+        {
+            return (float) Math.sqrt(Math.pow(scaleX, 2) + Math.pow(shearY, 2));
+        }
+        return scaleX;
     }
 
     /**
@@ -545,7 +564,12 @@ public final class TextPosition
      */
     public float getYScale()
     {
-        return textMatrix.getScalingFactorY();
+        // same as Matrix.getScalingFactorY()
+        if (shearX != 0.0f)
+        {
+            return (float) Math.sqrt(Math.pow(shearX, 2) + Math.pow(scaleY, 2));
+        }
+        return scaleY;
     }
 
     /**
@@ -555,6 +579,29 @@ public final class TextPosition
      */
     public float[] getIndividualWidths()
     {
+        return widths();
+    }
+
+    /**
+     * Returns the number of individual widths, without creating the array of widths.
+     *
+     * @return the length of the array returned by {@link #getIndividualWidths()}
+     */
+    int getIndividualWidthCount()
+    {
+        return widths != null ? widths.length : 1;
+    }
+
+    /**
+     * Returns the array of widths. Most positions are never merged with a diacritic and have a
+     * single width, so that the array is only created when it is needed.
+     */
+    private float[] widths()
+    {
+        if (widths == null)
+        {
+            widths = new float[] { width };
+        }
         return widths;
     }
 
@@ -672,9 +719,10 @@ public final class TextPosition
         }
 
         float diacXStart = diacritic.getXDirAdj();
-        float diacXEnd = diacXStart + diacritic.widths[0];
+        float diacXEnd = diacXStart + diacritic.widths()[0];
 
         float currCharXStart = getXDirAdj();
+        float[] widths = widths();
 
         int strLen = unicode.length();
         boolean wasAdded = false;
@@ -755,6 +803,7 @@ public final class TextPosition
         StringBuilder sb = new StringBuilder();
         sb.append(unicode, 0, i);
 
+        float[] widths = widths();
         float[] widths2 = new float[widths.length + 1];
         System.arraycopy(widths, 0, widths2, 0, i);
 
@@ -780,7 +829,7 @@ public final class TextPosition
         sb.append(unicode.substring(i + 1));
 
         unicode = sb.toString();
-        widths = widths2;
+        this.widths = widths2;
     }
 
     /**
@@ -955,7 +1004,12 @@ public final class TextPosition
         {
             return false;
         }
-        if (!Objects.equals(textMatrix, that.textMatrix))
+        if (Float.compare(that.scaleX, scaleX) != 0 ||
+            Float.compare(that.shearY, shearY) != 0 ||
+            Float.compare(that.shearX, shearX) != 0 ||
+            Float.compare(that.scaleY, scaleY) != 0 ||
+            Float.compare(that.translateX, translateX) != 0 ||
+            Float.compare(that.translateY, translateY) != 0)
         {
             return false;
         }
@@ -971,7 +1025,12 @@ public final class TextPosition
     @Override
     public int hashCode()
     {
-        int result = textMatrix != null ? textMatrix.hashCode() : 0;
+        int result = Float.floatToIntBits(scaleX);
+        result = 31 * result + Float.floatToIntBits(shearY);
+        result = 31 * result + Float.floatToIntBits(shearX);
+        result = 31 * result + Float.floatToIntBits(scaleY);
+        result = 31 * result + Float.floatToIntBits(translateX);
+        result = 31 * result + Float.floatToIntBits(translateY);
         result = 31 * result + Float.floatToIntBits(endX);
         result = 31 * result + Float.floatToIntBits(endY);
         result = 31 * result + Float.floatToIntBits(maxHeight);
@@ -39,22 +39,18 @@ public class TextPositionComparator implements Comparator<TextPosition>
         }
 
         // get the text direction adjusted coordinates
-        float x1 = pos1.getXDirAdj();
-        float x2 = pos2.getXDirAdj();
-
-        float pos1YBottom = pos1.getYDirAdj();
-        float pos2YBottom = pos2.getYDirAdj();
-
-        // note that the coordinates have been adjusted so 0,0 is in upper left
-        float pos1YTop = pos1YBottom - pos1.getHeightDir();
-        float pos2YTop = pos2YBottom - pos2.getHeightDir();
-
-        float yDifference = Math.abs(pos1YBottom - pos2YBottom);
+        return compareAdjusted(pos1.getXDirAdj(), pos1.getYDirAdj(), pos1.getHeightDir(),
+                pos2.getXDirAdj(), pos2.getYDirAdj(), pos2.getHeightDir());
+    }
 
-        // we will do a simple tolerance comparison
-        if (yDifference < .1 ||
-            pos2YBottom >= pos1YTop && pos2YBottom <= pos1YBottom ||
-            pos1YBottom >= pos2YTop && pos1YBottom <= pos2YBottom)
+    /**
+     * Compares two positions of the same direction using their text direction adjusted
+     * coordinates.
+     */
+    static int compareAdjusted(float x1, float pos1YBottom, float pos1Height,
+            float x2, float pos2YBottom, float pos2Height)
+    {
+        if (isSameLine(pos1YBottom, pos1Height, pos2YBottom, pos2Height))
         {
             return Float.compare(x1, x2);
         }
@@ -67,4 +63,22 @@ public class TextPositionComparator implements Comparator<TextPosition>
             return 1;
         }
     }
+
+    /**
+     * Checks whether two positions of the same direction are on the same line, i.e. ordered by x.
+     */
+    static boolean isSameLine(float pos1YBottom, float pos1Height, float pos2YBottom,
+            float pos2Height)
+    {
+        // note that the coordinates have been adjusted so 0,0 is in upper left
+        float pos1YTop = pos1YBottom - pos1Height;
+        float pos2YTop = pos2YBottom - pos2Height;
+
+        float yDifference = Math.abs(pos1YBottom - pos2YBottom);
+
+        // we will do a simple tolerance comparison
+        return yDifference < .1 ||
+            pos2YBottom >= pos1YTop && pos2YBottom <= pos1YBottom ||
+            pos1YBottom >= pos2YTop && pos1YBottom <= pos2YBottom;
+    }
 }
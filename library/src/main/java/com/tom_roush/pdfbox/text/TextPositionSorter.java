@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.tom_roush.pdfbox.util.IterativeMergeSort;
+
+/**
+ * Sorts text positions in the order of {@link TextPositionComparator}, i.e. grouped by text
+ * direction, into lines from top to bottom and every line from left to right.
+ *
+ * <p>The comparator isn't transitive, so that sorting with it may fail and has to be repeated
+ * with a slower algorithm. This sorter groups the positions into lines instead: the positions are
+ * sorted by their bottom, and a position starts a new line unless it is on the same line as the
+ * first position of the current line, using the tolerances of the comparator. Every line is then
+ * sorted by x, positions with the same x keep their order.</p>
+ *
+ * <p>If every position of a line is on the same line as every other one, and on a different line
+ * than all other positions, which is the common case, the comparator is consistent and the result
+ * is the same as sorting with it. Otherwise, e.g. if a table cell is vertically centered between
+ * two lines of its neighbour, the positions are sorted with the comparator as before. The
+ * coordinates are read only once in both cases.</p>
+ */
+final class TextPositionSorter
+{
+    private TextPositionSorter()
+    {
+    }
+
+    /**
+     * Sorts the given text positions.
+     *
+     * @param textList the text positions to be sorted
+     */
+    static void sort(List<TextPosition> textList)
+    {
+        int size = textList.size();
+        if (size < 2)
+        {
+            return;
+        }
+        TextPosition[] positions = textList.toArray(new TextPosition[size]);
+        float[] dirs = new float[size];
+        float[] xs = new float[size];
+        float[] bottoms = new float[size];
+        float[] heights = new float[size];
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++)
+        {
+            TextPosition position = positions[i];
+            dirs[i] = position.getDir();
+            xs[i] = position.getXDirAdj();
+            bottoms[i] = position.getYDirAdj();
+            heights[i] = position.getHeightDir();
+            keys[i] = key(dirs[i], i);
+        }
+
+        // group by direction
+        Arrays.sort(keys);
+        long[] lineKeys = new long[size];
+        int start = 0;
+        while (start < size)
+        {
+            int end = start + 1;
+            while (end < size && (keys[end] >>> 32) == (keys[start] >>> 32))
+            {
+                end++;
+            }
+
+            // sort the positions of this direction by their bottom
+            for (int i = start; i < end; i++)
+            {
+                int index = (int) keys[i];
+                keys[i] = key(bottoms[index], index);
+            }
+            Arrays.sort(keys, start, end);
+
+            // split them into lines, which are sorted by x
+            int lineStart = start;
+            while (lineStart < end)
+            {
+                int anchor = (int) keys[lineStart];
+                int lineEnd = lineStart + 1;
+                while (lineEnd < end && isSameLine(anchor, (int) keys[lineEnd], bottoms, heights))
+                {
+                    lineEnd++;
+                }
+                for (int i = lineStart; i < lineEnd; i++)
+                {
+                    int index = (int) keys[i];
+                    if (lineStart > start &&
+                        isSameLine((int) keys[lineStart - 1], index, bottoms, heights))
+                    {
+                        // the position is also on a previous line, it's enough to check the
+                        // lowest position of the previous lines, as it is the closest one
+                        sortWithComparator(textList, positions, dirs, xs, bottoms, heights);
+                        return;
+                    }
+                    lineKeys[i] = key(xs[index], index);
+                }
+                Arrays.sort(lineKeys, lineStart, lineEnd);
+                lineStart = lineEnd;
+            }
+            start = end;
+        }
+
+        for (int i = 0; i < size; i++)
+        {
+            textList.set(i, positions[(int) lineKeys[i]]);
+        }
+    }
+
+    private static boolean isSameLine(int pos1, int pos2, float[] bottoms, float[] heights)
+    {
+        return TextPositionComparator.isSameLine(bottoms[pos1], heights[pos1], bottoms[pos2],
+                heights[pos2]);
+    }
+
+    private static void sortWithComparator(List<TextPosition> textList, TextPosition[] positions,
+            final float[] dirs, final float[] xs, final float[] bottoms, final float[] heights)
+    {
+        List<Integer> order = new ArrayList<>(positions.length);
+        for (int i = 0; i < positions.length; i++)
+        {
+            order.add(i);
+        }
+        Comparator<Integer> comparator = (i1, i2) ->
+        {
+            int cmp = Float.compare(dirs[i1], dirs[i2]);
+            if (cmp != 0)
+            {
+                return cmp;
+            }
+            return TextPositionComparator.compareAdjusted(xs[i1], bottoms[i1], heights[i1],
+                    xs[i2], bottoms[i2], heights[i2]);
+        };
+
+        // because the TextPositionComparator is not transitive, but
+        // JDK7+ enforces transitivity on comparators, we need to use
+        // a custom mergesort implementation (which is slower, unfortunately).
+        try
+        {
+            order.sort(comparator);
+        }
+        catch (IllegalArgumentException e)
+        {
+            IterativeMergeSort.sort(order, comparator);
+        }
+        for (int i = 0; i < positions.length; i++)
+        {
+            textList.set(i, positions[order.get(i)]);
+        }
+    }
+
+    /**
+     * Combines a value and an index into a key whose order is the one of
+     * {@link Float#compare(float, float)}, followed by the order of the index.
+     */
+    private static long key(float value, int index)
+    {
+        int bits = Float.floatToIntBits(value);
+        bits ^= (bits >> 31) & 0x7fffffff;
+        return ((long) bits << 32) | index;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.text;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives the text of a document from a {@link PDFTextStreamStripper}, page by page.
+ *
+ * <p>The methods are called on the thread extracting the text, as soon as a page was processed.
+ * The next page isn't processed before the handler returns, so that a handler may pause the
+ * extraction by blocking, e.g. while a bounded queue is full.</p>
+ */
+public interface TextStreamHandler
+{
+    /**
+     * Called before the events of a page.
+     *
+     * @param pageNo The 1-based number of the page.
+     * @throws IOException If an IO error occurs.
+     */
+    default void startPage(int pageNo) throws IOException
+    {
+        // no default implementation
+    }
+
+    /**
+     * Called before the lines of a paragraph.
+     *
+     * @throws IOException If an IO error occurs.
+     */
+    default void startParagraph() throws IOException
+    {
+        // no default implementation
+    }
+
+    /**
+     * Called for every line of text. The words of the line are separated by the word separator of
+     * the stripper, the line doesn't contain a line separator.
+     *
+     * @param text The text of the line.
+     * @param textPositions The positions of the text, or null if the positions aren't included,
+     * see {@link PDFTextStreamStripper#setIncludePositions(boolean)}.
+     * @throws IOException If an IO error occurs.
+     */
+    void line(String text, List<TextPosition> textPositions) throws IOException;
+
+    /**
+     * Called after the lines of a paragraph.
+     *
+     * @throws IOException If an IO error occurs.
+     */
+    default void endParagraph() throws IOException
+    {
+        // no default implementation
+    }
+
+    /**
+     * Called after the events of a page.
+     *
+     * @param pageNo The 1-based number of the page.
+     * @return true to continue with the next page, false to stop the extraction.
+     * @throws IOException If an IO error occurs.
+     */
+    default boolean endPage(int pageNo) throws IOException
+    {
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.contentstream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tom_roush.pdfbox.contentstream.operator.Operator;
+import com.tom_roush.pdfbox.cos.COSBase;
+import com.tom_roush.pdfbox.cos.COSName;
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.common.PDStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link ContentStreamCache}.
+ */
+public class ContentStreamCacheTest
+{
+    private static final String CONTENT = "q 1 0 0 1 72.5 -720 cm 0.1 .5 -.25 RG 10 20 m 30.125 -40 l "
+            + "1 2 3 4 5 6 c 99999999 0 612 792 re S 12345678.9 w [1 2] 0 d /F1 12 Tf (Hello) Tj "
+            + "BI /W 1 /H 1 /BPC 8 /CS /G ID \u0080 EI Q";
+
+    @Test
+    public void testReplay() throws IOException
+    {
+        try (PDDocument doc = new PDDocument())
+        {
+            PDPage page = createPage(doc, CONTENT);
+            List<String> expected = process(page, null);
+
+            ContentStreamCache cache = new ContentStreamCache(100000);
+            Assert.assertEquals(expected, process(page, cache));
+            Assert.assertEquals(1, cache.getMisses());
+            Assert.assertTrue(cache.getSize() > 0);
+            Assert.assertEquals(expected, process(page, cache));
+            Assert.assertEquals(1, cache.getHits());
+
+            cache.remove(page.getCOSObject().getCOSStream(COSName.CONTENTS));
+            Assert.assertEquals(0, cache.getSize());
+        }
+    }
+
+    @Test
+    public void testEviction() throws IOException
+    {
+        try (PDDocument doc = new PDDocument())
+        {
+            PDPage page1 = createPage(doc, CONTENT);
+            PDPage page2 = createPage(doc, CONTENT);
+            ContentStreamCache cache = new ContentStreamCache(1000);
+            process(page1, cache);
+            long size = cache.getSize();
+            Assert.assertTrue(size > 500);
+            process(page2, cache);
+            // the least recently used page was evicted
+            Assert.assertEquals(size, cache.getSize());
+            process(page2, cache);
+            Assert.assertEquals(1, cache.getHits());
+            process(page1, cache);
+            Assert.assertEquals(1, cache.getHits());
+
+            // streams larger than the cache aren't cached at all
+            ContentStreamCache smallCache = new ContentStreamCache(100);
+            process(page1, smallCache);
+            Assert.assertEquals(0, smallCache.getSize());
+        }
+    }
+
+    private static PDPage createPage(PDDocument doc, String content) throws IOException
+    {
+        PDPage page = new PDPage();
+        PDStream contents = new PDStream(doc);
+        try (OutputStream os = contents.createOutputStream())
+        {
+            os.write(content.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        page.setContents(contents);
+        doc.addPage(page);
+        return page;
+    }
+
+    private static List<String> process(PDPage page, ContentStreamCache cache) throws IOException
+    {
+        List<String> operators = new ArrayList<>();
+        PDFStreamEngine engine = new PDFStreamEngine()
+        {
+            @Override
+            protected void processOperator(Operator operator, List<COSBase> operands)
+            {
+                operators.add(operator.getName() + operands);
+            }
+        };
+        engine.setContentStreamCache(cache);
+        engine.processPage(page);
+        return operators;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.contentstream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tom_roush.pdfbox.contentstream.operator.Operator;
+import com.tom_roush.pdfbox.cos.COSBase;
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.common.PDStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link PDFStreamEngine}.
+ */
+public class PDFStreamEngineTest
+{
+    @Test
+    public void testProcessingCancelled() throws IOException
+    {
+        try (PDDocument doc = new PDDocument())
+        {
+            PDPage page = new PDPage();
+            PDStream contents = new PDStream(doc);
+            try (OutputStream os = contents.createOutputStream())
+            {
+                os.write("1 w 2 w 3 w 4 w 5 w".getBytes(StandardCharsets.ISO_8859_1));
+            }
+            page.setContents(contents);
+            doc.addPage(page);
+
+            final List<String> operators = new ArrayList<>();
+            PDFStreamEngine engine = new PDFStreamEngine()
+            {
+                @Override
+                protected void processOperator(Operator operator, List<COSBase> operands)
+                {
+                    operators.add(operator.getName() + operands);
+                }
+
+                @Override
+                protected boolean isProcessingCancelled()
+                {
+                    return operators.size() == 3;
+                }
+            };
+            engine.processPage(page);
+            Assert.assertEquals(3, operators.size());
+            Assert.assertEquals("w[COSInt{3}]", operators.get(2));
+        }
+    }
+}
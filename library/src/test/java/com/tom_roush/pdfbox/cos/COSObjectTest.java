@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.cos;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.tom_roush.pdfbox.Loader;
+import com.tom_roush.pdfbox.pdfwriter.compress.CompressParameters;
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.common.PDStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link COSObject}.
+ */
+public class COSObjectTest
+{
+    private static final int PAGE_COUNT = 50;
+
+    /**
+     * Dereferences the objects of a parsed document and reads their streams from several threads.
+     */
+    @Test
+    public void testConcurrentDereferencing() throws Exception
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument doc = new PDDocument())
+        {
+            for (int i = 0; i < PAGE_COUNT; i++)
+            {
+                PDPage page = new PDPage();
+                PDStream contents = new PDStream(doc);
+                try (OutputStream os = contents.createOutputStream(COSName.FLATE_DECODE))
+                {
+                    os.write(createContent(i));
+                }
+                page.setContents(contents);
+                doc.addPage(page);
+            }
+            doc.save(baos, CompressParameters.NO_COMPRESSION);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (PDDocument doc = Loader.loadPDF(baos.toByteArray()))
+        {
+            final List<PDPage> pages = new ArrayList<>();
+            for (PDPage page : doc.getPages())
+            {
+                pages.add(page);
+            }
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++)
+            {
+                results.add(executor.submit(() ->
+                {
+                    for (int i = 0; i < PAGE_COUNT; i++)
+                    {
+                        try (InputStream is = pages.get(i).getContents())
+                        {
+                            if (!Arrays.equals(createContent(i), is.readAllBytes()))
+                            {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results)
+            {
+                Assert.assertTrue(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private static byte[] createContent(int pageNumber)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++)
+        {
+            sb.append(pageNumber).append(' ').append(i).append(" m ");
+        }
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
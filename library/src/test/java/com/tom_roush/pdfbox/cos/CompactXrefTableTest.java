@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.cos;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unittest for {@link CompactXrefTable}.
+ */
+public class CompactXrefTableTest
+{
+    @Test
+    public void testSameContentAsHashMap()
+    {
+        Map<COSObjectKey, Long> expected = new HashMap<>();
+        CompactXrefTable table = new CompactXrefTable();
+        Random random = new Random(4711);
+        for (int i = 0; i < 5000; i++)
+        {
+            // mix ascending and random keys to cover both ways of adding entries
+            long num = i % 3 == 0 ? i : random.nextInt(20000);
+            COSObjectKey key = new COSObjectKey(num, random.nextInt(3));
+            long offset = random.nextLong();
+            Assert.assertEquals(expected.put(key, offset), table.put(key, offset));
+        }
+        Assert.assertEquals(expected.size(), table.size());
+        Assert.assertEquals(expected, table);
+        for (Map.Entry<COSObjectKey, Long> entry : expected.entrySet())
+        {
+            Assert.assertTrue(table.containsKey(entry.getKey()));
+            Assert.assertEquals(entry.getValue(), table.get(entry.getKey()));
+        }
+        Assert.assertNull(table.get(new COSObjectKey(30000, 0)));
+
+        COSObjectKey previous = null;
+        for (COSObjectKey key : table.keySet())
+        {
+            // the keys are sorted
+            Assert.assertTrue(previous == null || previous.compareTo(key) < 0);
+            previous = key;
+        }
+    }
+
+    @Test
+    public void testRemove()
+    {
+        CompactXrefTable table = new CompactXrefTable();
+        for (int i = 10; i > 0; i--)
+        {
+            table.put(new COSObjectKey(i, 0), (long) i * 100);
+        }
+        Assert.assertEquals(Long.valueOf(500), table.remove(new COSObjectKey(5, 0)));
+        Assert.assertNull(table.remove(new COSObjectKey(5, 0)));
+        Assert.assertEquals(9, table.size());
+
+        Iterator<COSObjectKey> iterator = table.keySet().iterator();
+        while (iterator.hasNext())
+        {
+            if (iterator.next().getNumber() % 2 == 0)
+            {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(4, table.size());
+        Assert.assertFalse(table.containsKey(new COSObjectKey(2, 0)));
+        Assert.assertEquals(Long.valueOf(900), table.get(new COSObjectKey(9, 0)));
+
+        table.clear();
+        Assert.assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void testStreamIndexAndPutAll()
+    {
+        CompactXrefTable table = new CompactXrefTable();
+        table.put(new COSObjectKey(12, 0, 3), -7L);
+        table.put(new COSObjectKey(4, 0), 1234L);
+
+        COSObjectKey key = table.getObjectKey(12, 0);
+        Assert.assertEquals(3, key.getStreamIndex());
+        Assert.assertEquals(-1, table.getObjectKey(4, 0).getStreamIndex());
+        Assert.assertNull(table.getObjectKey(12, 1));
+
+        CompactXrefTable other = new CompactXrefTable();
+        other.put(new COSObjectKey(4, 0), 4321L);
+        other.put(new COSObjectKey(8, 0), 888L);
+        table.putAll(other);
+        Assert.assertEquals(3, table.size());
+        Assert.assertEquals(Long.valueOf(4321), table.get(new COSObjectKey(4, 0)));
+        Assert.assertEquals(3, table.getObjectKey(12, 0).getStreamIndex());
+    }
+}
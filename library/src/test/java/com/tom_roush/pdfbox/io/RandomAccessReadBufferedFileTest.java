@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unittest for {@link RandomAccessReadBufferedFile}.
+ */
+public class RandomAccessReadBufferedFileTest
+{
+    private File file;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        content = new byte[100000];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte) (i * 31);
+        }
+        file = File.createTempFile("buffered", ".bin");
+        Files.write(file.toPath(), content);
+    }
+
+    @After
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Test
+    public void testViewsHaveIndependentPositions() throws IOException
+    {
+        try (RandomAccessRead bufferedFile = new RandomAccessReadBufferedFile(file))
+        {
+            RandomAccessReadView view1 = bufferedFile.createView(0, 5000);
+            RandomAccessReadView view2 = bufferedFile.createView(50000, 5000);
+            view1.seek(4095);
+            view2.seek(10);
+            Assert.assertEquals(content[4095] & 0xff, view1.read());
+            Assert.assertEquals(content[50010] & 0xff, view2.read());
+            Assert.assertEquals(content[4096] & 0xff, view1.read());
+            Assert.assertEquals(0, bufferedFile.getPosition());
+            view1.close();
+            Assert.assertTrue(view1.isClosed());
+            Assert.assertFalse(view2.isClosed());
+            Assert.assertFalse(bufferedFile.isClosed());
+            view2.close();
+        }
+    }
+
+    @Test
+    public void testViewsAreClosedWithParent() throws IOException
+    {
+        RandomAccessRead bufferedFile = new RandomAccessReadBufferedFile(file);
+        RandomAccessReadView view = bufferedFile.createView(0, 100);
+        bufferedFile.close();
+        Assert.assertTrue(view.isClosed());
+        Assert.assertThrows(IOException.class, view::read);
+    }
+
+    @Test
+    public void testInterruptedReaderDoesNotCloseOtherViews() throws Exception
+    {
+        try (RandomAccessRead bufferedFile = new RandomAccessReadBufferedFile(file))
+        {
+            RandomAccessReadView view1 = bufferedFile.createView(0, 50000);
+            RandomAccessReadView view2 = bufferedFile.createView(50000, 50000);
+            AtomicReference<IOException> failure = new AtomicReference<>();
+            Thread thread = new Thread(() ->
+            {
+                Thread.currentThread().interrupt();
+                try
+                {
+                    // reads a page which isn't cached yet, the interrupt closes the file channel
+                    view1.seek(20000);
+                }
+                catch (IOException e)
+                {
+                    failure.set(e);
+                }
+            });
+            thread.start();
+            thread.join();
+            Assert.assertNotNull(failure.get());
+
+            // other views and the interrupted view itself can still read
+            view2.seek(30000);
+            Assert.assertEquals(content[80000] & 0xff, view2.read());
+            view1.seek(20000);
+            Assert.assertEquals(content[20000] & 0xff, view1.read());
+        }
+    }
+
+    @Test
+    public void testConcurrentViews() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (RandomAccessRead bufferedFile = new RandomAccessReadBufferedFile(file))
+        {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++)
+            {
+                final int start = i * 6000;
+                results.add(executor.submit(() ->
+                {
+                    try (RandomAccessReadView view = bufferedFile.createView(start, 6000))
+                    {
+                        byte[] buffer = new byte[6000];
+                        view.readFully(buffer);
+                        for (int j = 0; j < buffer.length; j++)
+                        {
+                            if (buffer[j] != content[start + j])
+                            {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results)
+            {
+                Assert.assertTrue(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unittest for {@link RandomAccessReadMemoryMappedFile}.
+ */
+public class RandomAccessReadMemoryMappedFileTest
+{
+    private File file;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        content = new byte[10000];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte) i;
+        }
+        file = File.createTempFile("mapped", ".bin");
+        Files.write(file.toPath(), content);
+    }
+
+    @After
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Test
+    public void testReadAcrossSegments() throws IOException
+    {
+        // use tiny 1KB segments to cross several segment boundaries
+        try (RandomAccessRead mappedFile = new RandomAccessReadMemoryMappedFile(file.toPath(), 10))
+        {
+            Assert.assertEquals(content.length, mappedFile.length());
+            byte[] buffer = new byte[3000];
+            mappedFile.seek(1000);
+            Assert.assertEquals(3000, mappedFile.read(buffer));
+            for (int i = 0; i < buffer.length; i++)
+            {
+                Assert.assertEquals(content[1000 + i], buffer[i]);
+            }
+            Assert.assertEquals(4000, mappedFile.getPosition());
+            Assert.assertEquals(content[4000] & 0xff, mappedFile.read());
+
+            mappedFile.seek(content.length - 10);
+            Assert.assertEquals(10, mappedFile.read(buffer));
+            Assert.assertTrue(mappedFile.isEOF());
+            Assert.assertEquals(-1, mappedFile.read());
+            Assert.assertEquals(-1, mappedFile.read(buffer));
+
+            // seeking beyond the end is allowed
+            mappedFile.seek(content.length + 100);
+            Assert.assertEquals(content.length, mappedFile.getPosition());
+        }
+    }
+
+    @Test
+    public void testView() throws IOException
+    {
+        try (RandomAccessRead mappedFile = new RandomAccessReadMemoryMappedFile(file))
+        {
+            mappedFile.seek(50);
+            try (RandomAccessReadView view = mappedFile.createView(2000, 100))
+            {
+                Assert.assertEquals(100, view.length());
+                Assert.assertEquals(content[2000] & 0xff, view.read());
+                view.seek(99);
+                Assert.assertEquals(content[2099] & 0xff, view.read());
+                Assert.assertEquals(-1, view.read());
+            }
+            // the view doesn't change the position of the parent
+            Assert.assertEquals(50, mappedFile.getPosition());
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException
+    {
+        RandomAccessRead mappedFile = new RandomAccessReadMemoryMappedFile(file);
+        mappedFile.close();
+        Assert.assertTrue(mappedFile.isClosed());
+        Assert.assertThrows(IOException.class, mappedFile::read);
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException
+    {
+        File emptyFile = File.createTempFile("empty", ".bin");
+        try (RandomAccessRead mappedFile = new RandomAccessReadMemoryMappedFile(emptyFile))
+        {
+            Assert.assertEquals(0, mappedFile.length());
+            Assert.assertTrue(mappedFile.isEOF());
+            Assert.assertEquals(-1, mappedFile.read());
+        }
+        finally
+        {
+            emptyFile.delete();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unittest for {@link RandomAccessReadView}.
+ */
+public class RandomAccessReadViewTest
+{
+    private static byte[] createContent()
+    {
+        byte[] content = new byte[100000];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte) (i * 31);
+        }
+        return content;
+    }
+
+    @Test
+    public void testCreateView() throws IOException
+    {
+        byte[] content = createContent();
+        try (RandomAccessRead buffer = new RandomAccessReadBuffer(content))
+        {
+            RandomAccessReadView view = buffer.createView(1000, 500);
+            view.seek(100);
+            try (RandomAccessReadView subView = view.createView(200, 1000))
+            {
+                // the sub view is limited to the view
+                Assert.assertEquals(300, subView.length());
+                Assert.assertEquals(content[1200] & 0xff, subView.read());
+                subView.seek(299);
+                Assert.assertEquals(content[1499] & 0xff, subView.read());
+                Assert.assertEquals(-1, subView.read());
+            }
+            // the position of the view isn't changed
+            Assert.assertEquals(100, view.getPosition());
+            Assert.assertEquals(content[1100] & 0xff, view.read());
+        }
+    }
+
+    /**
+     * Views created by one thread share the underlying instance. Views created from them by other threads can be
+     * read concurrently.
+     */
+    @Test
+    public void testConcurrentViews() throws Exception
+    {
+        byte[] content = createContent();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (RandomAccessRead buffer = new RandomAccessReadBuffer(content))
+        {
+            List<RandomAccessReadView> views = new ArrayList<>();
+            for (int i = 0; i < 16; i++)
+            {
+                views.add(buffer.createView(i * 6000L, 6000));
+            }
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < views.size(); i++)
+            {
+                final int start = i * 6000;
+                final RandomAccessReadView view = views.get(i);
+                results.add(executor.submit(() ->
+                {
+                    try (RandomAccessReadView threadView = view.createView(0, view.length()))
+                    {
+                        for (int j = 0; j < 6000; j++)
+                        {
+                            if (threadView.read() != (content[start + j] & 0xff))
+                            {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results)
+            {
+                Assert.assertTrue(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -58,4 +58,85 @@ public class ScratchFileBufferTest
       }
       scratchFile.close();
    }
+
+   /**
+    * Check that the content survives being moved between main memory and the scratch file for
+    * all page pool configurations.
+    *
+    * @throws IOException
+    */
+   @Test
+   public void testPagePoolSettings() throws IOException
+   {
+      checkContent(MemoryUsageSetting.setupMixed(4 * PAGE_SIZE).setUseDirectMemory(true));
+      checkContent(MemoryUsageSetting.setupMixed(4 * PAGE_SIZE)
+              .setPageEvictionPolicy(MemoryUsageSetting.PageEvictionPolicy.LEAST_RECENTLY_USED));
+      checkContent(MemoryUsageSetting.setupMixed(4 * PAGE_SIZE).setUseDirectMemory(true)
+              .setPageEvictionPolicy(MemoryUsageSetting.PageEvictionPolicy.LEAST_RECENTLY_USED));
+      checkContent(MemoryUsageSetting.setupMainMemoryOnly().setUseDirectMemory(true).setPageSize(1000));
+   }
+
+   /**
+    * Direct pages are copied into a page array which is reused by the buffer, check that
+    * rewritten pages don't affect each other.
+    *
+    * @throws IOException
+    */
+   @Test
+   public void testRewriteDirectPages() throws IOException
+   {
+      checkRewrite(MemoryUsageSetting.setupMainMemoryOnly().setUseDirectMemory(true));
+      checkRewrite(MemoryUsageSetting.setupMixed(4 * PAGE_SIZE).setUseDirectMemory(true)
+              .setPageEvictionPolicy(MemoryUsageSetting.PageEvictionPolicy.LEAST_RECENTLY_USED));
+   }
+
+   private void checkRewrite(MemoryUsageSetting setting) throws IOException
+   {
+      try (ScratchFile scratchFile = new ScratchFile(setting))
+      {
+         ScratchFileBuffer buffer = new ScratchFileBuffer(scratchFile);
+         buffer.write(new byte[10 * PAGE_SIZE]);
+         for (int page = 0; page < 10; page += 2)
+         {
+            buffer.seek(page * PAGE_SIZE + 10L);
+            buffer.write(page + 1);
+         }
+         for (int page = 9; page >= 0; page--)
+         {
+            buffer.seek(page * PAGE_SIZE + 10L);
+            Assert.assertEquals(setting.toString(), page % 2 == 0 ? page + 1 : 0, buffer.read());
+         }
+      }
+   }
+
+   private void checkContent(MemoryUsageSetting setting) throws IOException
+   {
+      try (ScratchFile scratchFile = new ScratchFile(setting))
+      {
+         // several buffers sharing the pool, each larger than the main memory limit
+         ScratchFileBuffer[] buffers = new ScratchFileBuffer[3];
+         for (int b = 0; b < buffers.length; b++)
+         {
+            buffers[b] = new ScratchFileBuffer(scratchFile);
+            for (int i = 0; i < 10 * PAGE_SIZE; i++)
+            {
+               buffers[b].write(i * (b + 1));
+            }
+         }
+         for (int b = 0; b < buffers.length; b++)
+         {
+            buffers[b].seek(0);
+            for (int i = 0; i < 10 * PAGE_SIZE; i++)
+            {
+               Assert.assertEquals(setting.toString(), (i * (b + 1)) & 0xff, buffers[b].read());
+            }
+         }
+         buffers[1].close();
+         // released pages are re-used
+         ScratchFileBuffer buffer = new ScratchFileBuffer(scratchFile);
+         buffer.write(new byte[5 * PAGE_SIZE]);
+         buffers[2].seek(3 * PAGE_SIZE);
+         Assert.assertEquals((3 * PAGE_SIZE * 3) & 0xff, buffers[2].read());
+      }
+   }
 }
@@ -18,20 +18,31 @@ package com.tom_roush.pdfbox.pdfparser;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.tom_roush.pdfbox.Loader;
+import com.tom_roush.pdfbox.cos.COSArray;
 import com.tom_roush.pdfbox.cos.COSBase;
 import com.tom_roush.pdfbox.cos.COSBoolean;
+import com.tom_roush.pdfbox.cos.COSDictionary;
 import com.tom_roush.pdfbox.cos.COSDocument;
 import com.tom_roush.pdfbox.cos.COSInteger;
 import com.tom_roush.pdfbox.cos.COSName;
 import com.tom_roush.pdfbox.cos.COSObject;
 import com.tom_roush.pdfbox.cos.COSObjectKey;
 import com.tom_roush.pdfbox.cos.COSStream;
+import com.tom_roush.pdfbox.io.IOUtils;
+import com.tom_roush.pdfbox.io.RandomAccessReadBuffer;
+import com.tom_roush.pdfbox.pdfwriter.compress.CompressParameters;
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -157,4 +168,110 @@ public class PDFObjectStreamParserTest
       Map<COSObjectKey, COSBase> objectNumbers = objectStreamParser.parseAllObjects();
       assertEquals(0, objectNumbers.size());
    }
+
+   @Test
+   public void testParallelPrefetch() throws IOException
+   {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      try (PDDocument doc = new PDDocument())
+      {
+         for (int i = 0; i < 50; i++)
+         {
+            PDPage page = new PDPage();
+            page.getCOSObject().setInt(COSName.getPDFName("PageNumber"), i);
+            doc.addPage(page);
+         }
+         // the default compression stores the page dictionaries in object streams
+         doc.save(baos);
+      }
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try (PDDocument doc = Loader.loadPDF(new RandomAccessReadBuffer(baos.toByteArray()), "", null, null,
+            null, executor))
+      {
+         assertEquals(50, doc.getNumberOfPages());
+         for (int i = 0; i < 50; i++)
+         {
+            assertEquals(i, doc.getPage(i).getCOSObject().getInt(COSName.getPDFName("PageNumber")));
+         }
+      }
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   private static byte[] createDocumentWithObjectStreams() throws IOException
+   {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      try (PDDocument doc = new PDDocument())
+      {
+         for (int i = 0; i < 50; i++)
+         {
+            PDPage page = new PDPage();
+            page.getCOSObject().setInt(COSName.getPDFName("PageNumber"), i);
+            doc.addPage(page);
+         }
+         // use small object streams to get several of them
+         doc.save(baos, new CompressParameters(5));
+      }
+      return baos.toByteArray();
+   }
+
+   @Test
+   public void testBoundedObjectStreamCache() throws IOException
+   {
+      PDFParser parser = new PDFParser(new RandomAccessReadBuffer(createDocumentWithObjectStreams()));
+      parser.setObjectStreamCacheSize(1);
+      try (PDDocument doc = parser.parse())
+      {
+         // access the pages in reverse order to force the eviction of object streams
+         for (int i = 49; i >= 0; i--)
+         {
+            assertEquals(i, doc.getPage(i).getCOSObject().getInt(COSName.getPDFName("PageNumber")));
+         }
+      }
+      assertEquals(1, parser.getObjectStreamCacheSize());
+      Assert.assertTrue(parser.getObjectStreamCacheHits() > 0);
+      Assert.assertTrue(parser.getObjectStreamCacheMisses() > 1);
+   }
+
+   @Test
+   public void testBoundedObjectStreamCacheOnLoader() throws IOException
+   {
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try (PDDocument doc = Loader.loadPDF(new RandomAccessReadBuffer(createDocumentWithObjectStreams()), null,
+              null, null, IOUtils.createMemoryOnlyStreamCache(), executor, 1))
+      {
+         for (int i = 49; i >= 0; i--)
+         {
+            assertEquals(i, doc.getPage(i).getCOSObject().getInt(COSName.getPDFName("PageNumber")));
+         }
+         // the pre-fetched object streams were evicted except the last one, the others are parsed again
+         Assert.assertTrue(doc.getDocument().getObjectStreamCacheHits() > 0);
+         Assert.assertTrue(doc.getDocument().getObjectStreamCacheMisses() > 1);
+      }
+      finally
+      {
+         executor.shutdown();
+      }
+   }
+
+   @Test
+   public void testReparsedObjectStreamSkipsLoadedObjects() throws IOException
+   {
+      PDFParser parser = new PDFParser(new RandomAccessReadBuffer(createDocumentWithObjectStreams()));
+      parser.setObjectStreamCacheSize(1);
+      try (PDDocument doc = parser.parse())
+      {
+         // the first object stream holds the page tree root and the first four pages
+         COSArray kids = doc.getPages().getCOSObject().getCOSArray(COSName.KIDS);
+         assertEquals(0, ((COSDictionary) kids.getObject(0)).getInt(COSName.getPDFName("PageNumber")));
+         // evict the first object stream
+         assertEquals(45, ((COSDictionary) kids.getObject(45)).getInt(COSName.getPDFName("PageNumber")));
+         assertEquals(4, parser.getCachedObjectStreamObjectCount());
+         // parse the first object stream again, the page tree root and the first page were read already
+         assertEquals(1, ((COSDictionary) kids.getObject(1)).getInt(COSName.getPDFName("PageNumber")));
+         assertEquals(2, parser.getCachedObjectStreamObjectCount());
+      }
+   }
 }
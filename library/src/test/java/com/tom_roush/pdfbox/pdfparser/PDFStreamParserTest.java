@@ -16,10 +16,16 @@
 package com.tom_roush.pdfbox.pdfparser;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import com.tom_roush.pdfbox.contentstream.operator.OperandStack;
 import com.tom_roush.pdfbox.contentstream.operator.Operator;
 import com.tom_roush.pdfbox.contentstream.operator.OperatorName;
+import com.tom_roush.pdfbox.cos.COSFloat;
+import com.tom_roush.pdfbox.cos.COSInteger;
+import com.tom_roush.pdfbox.cos.COSName;
+import com.tom_roush.pdfbox.cos.COSNumber;
 
 import junit.framework.TestCase;
 
@@ -104,6 +110,77 @@ public class PDFStreamParserTest extends TestCase
         assertEquals("Nested '" + OperatorName.BEGIN_INLINE_IMAGE + "' operator not allowed at offset 11, first: 2", ex.getMessage());
     }
 
+    /**
+     * Test the parsing of names and numbers, ASCII names and integers are parsed without creating Strings.
+     */
+    @Test
+    public void testNamesAndNumbers() throws IOException
+    {
+        List<Object> tokens = new PDFStreamParser(
+                "/Name /A#20B /Name /\u00c3\u00a4 0 -42 +7 1234567890123 99999999999999999999 -.5 2.5 Tj"
+                        .getBytes(StandardCharsets.ISO_8859_1)).parse();
+        assertEquals(12, tokens.size());
+        assertSame(COSName.getPDFName("Name"), tokens.get(0));
+        assertSame(COSName.getPDFName("A B"), tokens.get(1));
+        assertSame(tokens.get(0), tokens.get(2));
+        assertEquals(COSName.getPDFName("\u00e4"), tokens.get(3));
+        assertSame(COSInteger.ZERO, tokens.get(4));
+        assertEquals(COSInteger.get(-42), tokens.get(5));
+        assertEquals(COSInteger.get(7), tokens.get(6));
+        assertEquals(COSInteger.get(1234567890123L), tokens.get(7));
+        assertEquals(Long.MAX_VALUE, ((COSInteger) tokens.get(8)).longValue());
+        assertEquals(new COSFloat(-0.5f), tokens.get(9));
+        assertEquals(new COSFloat(2.5f), tokens.get(10));
+    }
+
+    /**
+     * Test that parsing operands into an {@link OperandStack} gives the same operands and operators as parsing all
+     * tokens.
+     */
+    @Test
+    public void testParseNextOperator() throws IOException
+    {
+        String content = "q 1 0 0 1 72.5 -720 cm 0.1 .5 -.25 RG 10 20 m 30.125 -40 l\n"
+                + "1 2 3 4 5 6 c 0 0 612 792 re h f* --3 1.-2 +.5 0.00000001 12345678.9 d0 "
+                + "99999999999999999999 w [1 2] 0 d /F1 12 Tf (Hello) Tj [(A) -250 (B)] TJ Q";
+        byte[] bytes = content.getBytes(StandardCharsets.ISO_8859_1);
+        List<Object> tokens = new PDFStreamParser(bytes).parse();
+
+        PDFStreamParser parser = new PDFStreamParser(bytes);
+        OperandStack operands = new OperandStack();
+        int index = 0;
+        Operator operator;
+        while ((operator = parser.parseNextOperator(operands)) != null)
+        {
+            for (int i = 0; i < operands.size(); i++)
+            {
+                Object token = tokens.get(index++);
+                if (token instanceof COSNumber)
+                {
+                    assertEquals(token, operands.get(i));
+                    assertEquals(((COSNumber) token).floatValue(), operands.getFloat(i));
+                }
+                else
+                {
+                    // arrays and strings don't implement equals()
+                    assertEquals(token.toString(), operands.get(i).toString());
+                }
+            }
+            assertSame(tokens.get(index++), operator);
+            operands.clear();
+        }
+        assertEquals(tokens.size(), index);
+
+        // numbers are only wrapped on demand
+        operands.pushInteger(42);
+        operands.pushReal(1.5f);
+        assertTrue(operands.isInstance(0, COSInteger.class));
+        assertFalse(operands.isInstance(1, COSInteger.class));
+        assertTrue(operands.isNumber(1));
+        assertSame(operands.get(1), operands.get(1));
+        assertEquals(COSInteger.get(42), operands.get(0));
+    }
+
     // checks whether there are two operators, one inline image and the named operator
     private void testInlineImage2ops(String s, String imageDataString, String opName) throws IOException
     {
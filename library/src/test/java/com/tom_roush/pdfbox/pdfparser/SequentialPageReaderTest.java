@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.pdfparser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tom_roush.pdfbox.cos.COSBase;
+import com.tom_roush.pdfbox.cos.COSName;
+import com.tom_roush.pdfbox.cos.COSObject;
+import com.tom_roush.pdfbox.io.RandomAccessReadBuffer;
+import com.tom_roush.pdfbox.pdfwriter.compress.CompressParameters;
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.PDPageContentStream;
+import com.tom_roush.pdfbox.pdmodel.PDResources;
+import com.tom_roush.pdfbox.pdmodel.common.PDRectangle;
+import com.tom_roush.pdfbox.pdmodel.common.PDStream;
+import com.tom_roush.pdfbox.pdmodel.font.PDType1Font;
+import com.tom_roush.pdfbox.pdmodel.font.Standard14Fonts;
+import com.tom_roush.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import com.tom_roush.pdfbox.pdmodel.interactive.annotation.PDAnnotationText;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SequentialPageReader}.
+ */
+public class SequentialPageReaderTest
+{
+    @Test
+    public void testReadPages() throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument doc = new PDDocument())
+        {
+            for (int i = 0; i < 20; i++)
+            {
+                PDPage page = new PDPage();
+                PDStream contents = new PDStream(doc);
+                try (OutputStream os = contents.createOutputStream())
+                {
+                    os.write(("% page " + i).getBytes(StandardCharsets.ISO_8859_1));
+                }
+                page.setContents(contents);
+                doc.addPage(page);
+            }
+            doc.save(baos, CompressParameters.NO_COMPRESSION);
+        }
+
+        PDFParser parser = new PDFParser(new RandomAccessReadBuffer(baos.toByteArray()));
+        try (SequentialPageReader reader = new SequentialPageReader(parser))
+        {
+            int pageNumber = 0;
+            COSObject previousContents = null;
+            while (reader.hasNext())
+            {
+                PDPage page = reader.next();
+                if (previousContents != null)
+                {
+                    // the objects of the previous page are released
+                    Assert.assertTrue(previousContents.isObjectNull());
+                }
+                COSBase contentsItem = page.getCOSObject().getItem(COSName.CONTENTS);
+                previousContents = (COSObject) contentsItem;
+                try (InputStream is = page.getContents())
+                {
+                    String content = new String(is.readAllBytes(), StandardCharsets.ISO_8859_1);
+                    Assert.assertEquals("% page " + pageNumber, content);
+                }
+                pageNumber++;
+            }
+            Assert.assertEquals(20, pageNumber);
+
+            // released objects are parsed again on demand
+            PDPage firstPage = reader.getDocument().getPage(0);
+            try (InputStream is = firstPage.getContents())
+            {
+                Assert.assertEquals("% page 0", new String(is.readAllBytes(), StandardCharsets.ISO_8859_1));
+            }
+        }
+    }
+
+    /**
+     * A released object of an object stream is parsed again, which must not keep the other objects of its stream.
+     */
+    @Test
+    public void testObjectStreamCacheIsBounded() throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (PDDocument doc = new PDDocument())
+        {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int i = 0; i < 50; i++)
+            {
+                PDPage page = new PDPage();
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page))
+                {
+                    cs.beginText();
+                    cs.setFont(font, 12);
+                    cs.showText("Page " + i);
+                    cs.endText();
+                }
+                // annotations which aren't read, but share the object streams with the pages
+                List<PDAnnotation> annotations = new ArrayList<>();
+                for (int j = 0; j < 4; j++)
+                {
+                    PDAnnotationText annotation = new PDAnnotationText();
+                    annotation.setRectangle(new PDRectangle(10 * j, 10, 10, 10));
+                    annotation.setContents("Note " + j);
+                    annotations.add(annotation);
+                }
+                page.setAnnotations(annotations);
+                doc.addPage(page);
+            }
+            // use small object streams to get several of them
+            doc.save(baos, new CompressParameters(5));
+        }
+
+        PDFParser parser = new PDFParser(new RandomAccessReadBuffer(baos.toByteArray()));
+        try (SequentialPageReader reader = new SequentialPageReader(parser))
+        {
+            int pageCount = 0;
+            while (reader.hasNext())
+            {
+                PDPage page = reader.next();
+                // the font is shared by all pages, it is parsed again for every page
+                PDResources resources = page.getResources();
+                for (COSName fontName : resources.getFontNames())
+                {
+                    Assert.assertNotNull(resources.getFont(fontName));
+                }
+                // at most the other objects of the few object streams read for this page are cached, not the ones of all pages
+                Assert.assertTrue(parser.getCachedObjectStreamObjectCount() <= 15);
+                pageCount++;
+            }
+            Assert.assertEquals(50, pageCount);
+        }
+    }
+}
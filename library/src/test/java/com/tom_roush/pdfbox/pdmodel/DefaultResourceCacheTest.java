@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.pdmodel;
+
+import android.graphics.Bitmap;
+
+import com.tom_roush.pdfbox.cos.COSStream;
+import com.tom_roush.pdfbox.pdmodel.graphics.image.ImageCacheKey;
+import com.tom_roush.pdfbox.pdmodel.graphics.image.ImageCacheKeyTest;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Test for the cache of decoded images of {@link DefaultResourceCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DefaultResourceCacheTest
+{
+    private static Bitmap createImage(int size)
+    {
+        return Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+    }
+
+    @Test
+    public void testGetImage()
+    {
+        DefaultResourceCache cache = new DefaultResourceCache();
+        COSStream stream = new COSStream();
+        ImageCacheKey key = ImageCacheKeyTest.createKey(stream);
+        Bitmap image = createImage(10);
+        Assert.assertNull(cache.getImage(key));
+
+        cache.put(key, image);
+        Assert.assertSame(image, cache.getImage(key));
+        // an equal key finds the same image
+        Assert.assertSame(image, cache.getImage(ImageCacheKeyTest.createKey(stream)));
+        Assert.assertNull(cache.getImage(ImageCacheKeyTest.createKey(new COSStream())));
+        Assert.assertEquals(image.getAllocationByteCount(), cache.getImageCacheSize());
+
+        // replacing an image doesn't count it twice
+        Bitmap other = createImage(10);
+        cache.put(key, other);
+        Assert.assertSame(other, cache.getImage(key));
+        Assert.assertEquals(other.getAllocationByteCount(), cache.getImageCacheSize());
+    }
+
+    /**
+     * The least recently used images are evicted first.
+     */
+    @Test
+    public void testEvictionOrder()
+    {
+        DefaultResourceCache cache = new DefaultResourceCache();
+        ImageCacheKey key1 = ImageCacheKeyTest.createKey(new COSStream());
+        ImageCacheKey key2 = ImageCacheKeyTest.createKey(new COSStream());
+        ImageCacheKey key3 = ImageCacheKeyTest.createKey(new COSStream());
+        ImageCacheKey key4 = ImageCacheKeyTest.createKey(new COSStream());
+        Bitmap image = createImage(10);
+        long imageSize = image.getAllocationByteCount();
+        cache.setMaxImageCacheSize(3 * imageSize);
+
+        cache.put(key1, image);
+        cache.put(key2, createImage(10));
+        cache.put(key3, createImage(10));
+        // using the first image makes the second one the least recently used
+        Assert.assertSame(image, cache.getImage(key1));
+        cache.put(key4, createImage(10));
+
+        Assert.assertNotNull(cache.getImage(key1));
+        Assert.assertNull(cache.getImage(key2));
+        Assert.assertNotNull(cache.getImage(key3));
+        Assert.assertNotNull(cache.getImage(key4));
+        Assert.assertEquals(3 * imageSize, cache.getImageCacheSize());
+
+        // lowering the limit evicts the least recently used images immediately
+        cache.setMaxImageCacheSize(imageSize);
+        Assert.assertNull(cache.getImage(key1));
+        Assert.assertNull(cache.getImage(key3));
+        Assert.assertNotNull(cache.getImage(key4));
+        Assert.assertEquals(imageSize, cache.getImageCacheSize());
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        DefaultResourceCache cache = new DefaultResourceCache();
+        ImageCacheKey key = ImageCacheKeyTest.createKey(new COSStream());
+        cache.put(key, createImage(10));
+
+        cache.setMaxImageCacheSize(0);
+        Assert.assertEquals(0, cache.getMaxImageCacheSize());
+        Assert.assertEquals(0, cache.getImageCacheSize());
+        Assert.assertNull(cache.getImage(key));
+
+        cache.put(key, createImage(10));
+        Assert.assertNull(cache.getImage(key));
+        Assert.assertEquals(0, cache.getImageCacheSize());
+    }
+
+    /**
+     * An image larger than the limit isn't cached and doesn't evict the other images.
+     */
+    @Test
+    public void testImageLargerThanLimit()
+    {
+        DefaultResourceCache cache = new DefaultResourceCache();
+        ImageCacheKey key = ImageCacheKeyTest.createKey(new COSStream());
+        ImageCacheKey largeKey = ImageCacheKeyTest.createKey(new COSStream());
+        Bitmap image = createImage(10);
+        Bitmap largeImage = createImage(20);
+        cache.setMaxImageCacheSize(largeImage.getAllocationByteCount() - 1);
+
+        cache.put(key, image);
+        cache.put(largeKey, largeImage);
+        Assert.assertNull(cache.getImage(largeKey));
+        Assert.assertSame(image, cache.getImage(key));
+        Assert.assertEquals(image.getAllocationByteCount(), cache.getImageCacheSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLimit()
+    {
+        new DefaultResourceCache().setMaxImageCacheSize(-1);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.pdmodel.graphics.image;
+
+import com.tom_roush.pdfbox.cos.COSArray;
+import com.tom_roush.pdfbox.cos.COSBase;
+import com.tom_roush.pdfbox.cos.COSName;
+import com.tom_roush.pdfbox.cos.COSStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link ImageCacheKey}.
+ */
+public class ImageCacheKeyTest
+{
+    /**
+     * Creates the key of an image stream decoded without subsampling, masks and color space.
+     *
+     * @param stream the image stream
+     * @return the key
+     */
+    public static ImageCacheKey createKey(COSStream stream)
+    {
+        return new ImageCacheKey(stream, 1, null, null, null);
+    }
+
+    @Test
+    public void testEquals()
+    {
+        COSStream stream = new COSStream();
+        COSStream softMask = new COSStream();
+        COSStream mask = new COSStream();
+        COSBase colorSpace = COSName.DEVICERGB;
+
+        ImageCacheKey key = new ImageCacheKey(stream, 2, softMask, mask, colorSpace);
+        ImageCacheKey same = new ImageCacheKey(stream, 2, softMask, mask, colorSpace);
+        Assert.assertEquals(key, same);
+        Assert.assertEquals(key.hashCode(), same.hashCode());
+        Assert.assertEquals(createKey(stream), createKey(stream));
+        Assert.assertNotEquals(key, null);
+        Assert.assertNotEquals(key, stream);
+    }
+
+    @Test
+    public void testNotEquals()
+    {
+        COSStream stream = new COSStream();
+        COSStream softMask = new COSStream();
+        COSStream mask = new COSStream();
+        COSBase colorSpace = COSName.DEVICERGB;
+        ImageCacheKey key = new ImageCacheKey(stream, 2, softMask, mask, colorSpace);
+
+        Assert.assertNotEquals(key, new ImageCacheKey(new COSStream(), 2, softMask, mask, colorSpace));
+        Assert.assertNotEquals(key, new ImageCacheKey(stream, 1, softMask, mask, colorSpace));
+        Assert.assertNotEquals(key, new ImageCacheKey(stream, 2, new COSStream(), mask, colorSpace));
+        Assert.assertNotEquals(key, new ImageCacheKey(stream, 2, null, mask, colorSpace));
+        Assert.assertNotEquals(key, new ImageCacheKey(stream, 2, softMask, new COSStream(), colorSpace));
+        Assert.assertNotEquals(key, new ImageCacheKey(stream, 2, softMask, null, colorSpace));
+        Assert.assertNotEquals(key, new ImageCacheKey(stream, 2, softMask, mask, COSName.DEVICEGRAY));
+        Assert.assertNotEquals(key, new ImageCacheKey(stream, 2, softMask, mask, null));
+    }
+
+    /**
+     * Masks and color spaces are compared by identity, equal but distinct objects give different keys.
+     */
+    @Test
+    public void testIdentity()
+    {
+        COSStream stream = new COSStream();
+        COSArray colorSpace = new COSArray();
+        colorSpace.add(COSName.INDEXED);
+        COSArray otherColorSpace = new COSArray();
+        otherColorSpace.add(COSName.INDEXED);
+
+        Assert.assertNotEquals(new ImageCacheKey(stream, 1, null, null, colorSpace),
+            new ImageCacheKey(stream, 1, null, null, otherColorSpace));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.GraphicsMode;
+
+/**
+ * Test for {@link BitmapPool}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class BitmapPoolTest
+{
+    @Test
+    public void testReuse()
+    {
+        BitmapPool pool = new BitmapPool(1024 * 1024);
+        Bitmap bitmap = pool.acquire(10, 10, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.RED);
+        pool.release(bitmap);
+        Assert.assertEquals(400, pool.getSize());
+
+        // the bitmap is reconfigured to the smaller size and cleared
+        Bitmap reused = pool.acquire(9, 8, Bitmap.Config.ARGB_8888);
+        Assert.assertSame(bitmap, reused);
+        Assert.assertEquals(9, reused.getWidth());
+        Assert.assertEquals(8, reused.getHeight());
+        Assert.assertEquals(Color.TRANSPARENT, reused.getPixel(4, 4));
+        Assert.assertEquals(0, pool.getSize());
+
+        // the bitmap is taken from the pool only once
+        Assert.assertNotSame(bitmap, pool.acquire(9, 8, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void testReconfigure()
+    {
+        BitmapPool pool = new BitmapPool(1024 * 1024);
+        Bitmap bitmap = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        pool.release(bitmap);
+
+        // 14 * 14 pixels of 2 bytes fit into the allocation of 10 * 10 pixels of 4 bytes
+        Bitmap reused = pool.acquire(14, 14, Bitmap.Config.RGB_565);
+        Assert.assertSame(bitmap, reused);
+        Assert.assertEquals(Bitmap.Config.RGB_565, reused.getConfig());
+        Assert.assertEquals(14, reused.getWidth());
+        Assert.assertEquals(400, reused.getAllocationByteCount());
+    }
+
+    @Test
+    public void testBuckets()
+    {
+        BitmapPool pool = new BitmapPool(1024 * 1024);
+        // 400 bytes, in the bucket of 256 to 511 bytes
+        Bitmap bitmap = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        pool.release(bitmap);
+
+        // 484 bytes are in the same bucket, but don't fit
+        Assert.assertNotSame(bitmap, pool.acquire(11, 11, Bitmap.Config.ARGB_8888));
+        // 100 bytes are two buckets below, the bitmap would waste too much memory
+        Assert.assertNotSame(bitmap, pool.acquire(5, 5, Bitmap.Config.ARGB_8888));
+        // 196 bytes are in the bucket below, whose bitmaps are taken from the next bucket
+        Assert.assertSame(bitmap, pool.acquire(7, 7, Bitmap.Config.ARGB_8888));
+
+        // 1024 bytes, in the bucket of 1024 to 2047 bytes
+        Bitmap large = Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888);
+        pool.release(large);
+        // 576 bytes, in the bucket of 512 to 1023 bytes
+        Assert.assertSame(large, pool.acquire(12, 12, Bitmap.Config.ARGB_8888));
+        Assert.assertEquals(0, pool.getSize());
+    }
+
+    /**
+     * The pool is bounded by the size of the pooled bitmaps, the largest ones are recycled first.
+     */
+    @Test
+    public void testTrim()
+    {
+        BitmapPool pool = new BitmapPool(1000);
+        Bitmap small1 = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        Bitmap small2 = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        Bitmap medium = Bitmap.createBitmap(12, 12, Bitmap.Config.ARGB_8888);
+        Bitmap large = Bitmap.createBitmap(16, 16, Bitmap.Config.ARGB_8888);
+
+        // larger than the pool
+        pool.release(large);
+        Assert.assertTrue(large.isRecycled());
+        Assert.assertEquals(0, pool.getSize());
+
+        pool.release(small1);
+        pool.release(medium);
+        Assert.assertEquals(976, pool.getSize());
+        pool.release(small2);
+        Assert.assertTrue(medium.isRecycled());
+        Assert.assertFalse(small1.isRecycled());
+        Assert.assertFalse(small2.isRecycled());
+        Assert.assertEquals(800, pool.getSize());
+
+        pool.setMaxSize(500);
+        Assert.assertEquals(1, (small1.isRecycled() ? 1 : 0) + (small2.isRecycled() ? 1 : 0));
+        Assert.assertEquals(400, pool.getSize());
+
+        pool.setMaxSize(0);
+        Assert.assertTrue(small1.isRecycled());
+        Assert.assertTrue(small2.isRecycled());
+        Assert.assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    public void testReleaseIgnored()
+    {
+        BitmapPool pool = new BitmapPool(1024 * 1024);
+        pool.release(null);
+        Bitmap recycled = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        recycled.recycle();
+        pool.release(recycled);
+        Bitmap immutable = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888).copy(Bitmap.Config.ARGB_8888, false);
+        pool.release(immutable);
+        Assert.assertFalse(immutable.isRecycled());
+        Assert.assertEquals(0, pool.getSize());
+    }
+}
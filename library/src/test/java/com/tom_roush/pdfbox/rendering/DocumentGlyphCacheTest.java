@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.tom_roush.pdfbox.pdmodel.font.PDType1Font;
+import com.tom_roush.pdfbox.pdmodel.font.Standard14Fonts;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+/**
+ * Test for {@link DocumentGlyphCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DocumentGlyphCacheTest
+{
+    private final PDType1Font helvetica = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    private final PDType1Font times = new PDType1Font(Standard14Fonts.FontName.TIMES_ROMAN);
+
+    /**
+     * A font with more glyphs than the bound keeps its most recent glyphs.
+     */
+    @Test
+    public void testBound()
+    {
+        DocumentGlyphCache documentCache = new DocumentGlyphCache(10);
+        GlyphCache cache = documentCache.getGlyphCache(helvetica);
+        for (int code = 'A'; code <= 'Z'; code++)
+        {
+            Assert.assertNotNull(cache.getPathForCharacterCode(code));
+            Assert.assertTrue(documentCache.getGlyphCount() <= 10);
+        }
+        Assert.assertEquals(10, documentCache.getGlyphCount());
+        Assert.assertFalse(cache.isEvicted());
+        Assert.assertEquals(10, cache.size());
+        for (int code = 'A'; code <= 'Z'; code++)
+        {
+            Assert.assertEquals("glyph " + (char) code, code > 'Z' - 10, cache.isCached(code));
+        }
+        Assert.assertSame(cache, documentCache.getGlyphCache(helvetica));
+
+        documentCache.setMaxGlyphs(4);
+        Assert.assertEquals(4, documentCache.getGlyphCount());
+        Assert.assertTrue(cache.isCached('Z'));
+        Assert.assertFalse(cache.isCached('V'));
+    }
+
+    /**
+     * The glyphs of the least recently used font are evicted first, in the order they were added.
+     */
+    @Test
+    public void testEvictionOrder()
+    {
+        DocumentGlyphCache documentCache = new DocumentGlyphCache(10);
+        GlyphCache helveticaCache = documentCache.getGlyphCache(helvetica);
+        for (int code = 'A'; code <= 'E'; code++)
+        {
+            helveticaCache.getPathForCharacterCode(code);
+        }
+        GlyphCache timesCache = documentCache.getGlyphCache(times);
+        for (int code = 'A'; code <= 'E'; code++)
+        {
+            timesCache.getPathForCharacterCode(code);
+        }
+        // Times is the least recently used font now
+        Assert.assertSame(helveticaCache, documentCache.getGlyphCache(helvetica));
+        for (int code = 'F'; code <= 'H'; code++)
+        {
+            timesCache.getPathForCharacterCode(code);
+        }
+        Assert.assertEquals(10, documentCache.getGlyphCount());
+        Assert.assertEquals(5, helveticaCache.size());
+        Assert.assertEquals(5, timesCache.size());
+        for (int code = 'A'; code <= 'H'; code++)
+        {
+            Assert.assertEquals("glyph " + (char) code, code > 'C', timesCache.isCached(code));
+        }
+    }
+
+    /**
+     * A font whose glyphs were all evicted is removed and doesn't cache glyphs anymore, a new
+     * cache is returned for it.
+     */
+    @Test
+    public void testRefetchAfterEviction()
+    {
+        DocumentGlyphCache documentCache = new DocumentGlyphCache(5);
+        GlyphCache helveticaCache = documentCache.getGlyphCache(helvetica);
+        for (int code = 'A'; code <= 'E'; code++)
+        {
+            helveticaCache.getPathForCharacterCode(code);
+        }
+        GlyphCache timesCache = documentCache.getGlyphCache(times);
+        for (int code = 'A'; code <= 'E'; code++)
+        {
+            timesCache.getPathForCharacterCode(code);
+        }
+        Assert.assertTrue(helveticaCache.isEvicted());
+        Assert.assertEquals(0, helveticaCache.size());
+        Assert.assertFalse(timesCache.isEvicted());
+        Assert.assertEquals(5, documentCache.getGlyphCount());
+
+        // the evicted cache still returns glyphs, but doesn't keep them
+        Assert.assertNotNull(helveticaCache.getPathForCharacterCode('A'));
+        Assert.assertFalse(helveticaCache.isCached('A'));
+        Assert.assertEquals(5, documentCache.getGlyphCount());
+
+        GlyphCache refetchedCache = documentCache.getGlyphCache(helvetica);
+        Assert.assertNotSame(helveticaCache, refetchedCache);
+        Assert.assertNotNull(refetchedCache.getPathForCharacterCode('A'));
+        Assert.assertTrue(refetchedCache.isCached('A'));
+        Assert.assertEquals(5, documentCache.getGlyphCount());
+        Assert.assertEquals(4, timesCache.size());
+    }
+
+    /**
+     * The glyph count matches the cached glyphs when several threads add and evict glyphs.
+     */
+    @Test
+    public void testConcurrentCount() throws Exception
+    {
+        DocumentGlyphCache documentCache = new DocumentGlyphCache(20);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+            {
+                PDType1Font font = i % 2 == 0 ? helvetica : times;
+                futures.add(executor.submit(() ->
+                {
+                    for (int n = 0; n < 20; n++)
+                    {
+                        for (int code = 'A'; code <= 'z'; code++)
+                        {
+                            documentCache.getGlyphCache(font).getPathForCharacterCode(code);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        int cachedGlyphs = documentCache.getGlyphCache(helvetica).size() +
+            documentCache.getGlyphCache(times).size();
+        Assert.assertEquals(cachedGlyphs, documentCache.getGlyphCount());
+        Assert.assertTrue(documentCache.getGlyphCount() <= 20);
+    }
+}
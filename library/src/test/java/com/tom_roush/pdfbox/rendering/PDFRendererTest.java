@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Picture;
+
+import java.io.IOException;
+
+import com.tom_roush.pdfbox.cos.COSArray;
+import com.tom_roush.pdfbox.cos.COSDictionary;
+import com.tom_roush.pdfbox.cos.COSName;
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.PDPageContentStream;
+import com.tom_roush.pdfbox.pdmodel.font.PDType1Font;
+import com.tom_roush.pdfbox.pdmodel.font.Standard14Fonts;
+import com.tom_roush.pdfbox.pdmodel.graphics.blend.BlendMode;
+import com.tom_roush.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import com.tom_roush.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import com.tom_roush.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.GraphicsMode;
+
+/**
+ * Test for {@link PDFRenderer}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class PDFRendererTest
+{
+    private static PDDocument createDocument() throws IOException
+    {
+        PDDocument doc = new PDDocument();
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        for (int i = 0; i < 2; i++)
+        {
+            PDPage page = new PDPage();
+            // the second page is rotated and uses a blend mode
+            page.setRotation(i * 90);
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page))
+            {
+                cs.setNonStrokingColor(1f, 0f, 0f);
+                cs.addRect(50, 50, 200, 300);
+                cs.fill();
+                if (i == 1)
+                {
+                    PDExtendedGraphicsState gs = new PDExtendedGraphicsState();
+                    gs.setBlendMode(BlendMode.MULTIPLY);
+                    cs.setGraphicsStateParameters(gs);
+                }
+                cs.setNonStrokingColor(0f, 0f, 1f);
+                cs.addRect(150.5f, 250.5f, 200, 300);
+                cs.fill();
+                cs.beginText();
+                cs.setFont(font, 24);
+                cs.newLineAtOffset(60, 400);
+                cs.showText("Region rendering");
+                cs.endText();
+            }
+            doc.addPage(page);
+        }
+        return doc;
+    }
+
+    /**
+     * A region of a page is the same as the crop of the whole page rendered at the same scale.
+     */
+    @Test
+    public void testRenderImageRegion() throws IOException
+    {
+        try (PDDocument doc = createDocument())
+        {
+            PDFRenderer renderer = new PDFRenderer(doc);
+            for (int pageIndex = 0; pageIndex < doc.getNumberOfPages(); pageIndex++)
+            {
+                Bitmap page = renderer.renderImage(pageIndex, 1.5f);
+                // the center of the page is covered by the blue rectangle
+                Assert.assertNotEquals(Color.WHITE, page.getPixel(page.getWidth() / 2, page.getHeight() / 2));
+                int[][] regions = { { 0, 0, 100, 80 }, { 170, 310, 250, 200 },
+                    { page.getWidth() - 90, page.getHeight() - 70, 90, 70 } };
+                for (int[] region : regions)
+                {
+                    Bitmap tile = Bitmap.createBitmap(region[2], region[3], Bitmap.Config.ARGB_8888);
+                    renderer.renderImageRegion(pageIndex, 1.5f, region[0], region[1], tile);
+                    for (int y = 0; y < tile.getHeight(); y++)
+                    {
+                        for (int x = 0; x < tile.getWidth(); x++)
+                        {
+                            Assert.assertEquals("pixel " + x + "," + y + " of region " + region[0] + "," + region[1]
+                                    + " of page " + pageIndex, page.getPixel(region[0] + x, region[1] + y),
+                                tile.getPixel(x, y));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Intermediate bitmaps, e.g. of images with a transfer function, are only reused when the page
+     * is rendered into a bitmap of the renderer, other canvases may keep a reference to them.
+     */
+    @Test
+    public void testBitmapReuse() throws IOException
+    {
+        try (PDDocument doc = new PDDocument())
+        {
+            PDPage page = new PDPage();
+            Bitmap bitmap = Bitmap.createBitmap(20, 20, Bitmap.Config.ARGB_8888);
+            bitmap.eraseColor(Color.RED);
+            PDImageXObject image = LosslessFactory.createFromImage(doc, bitmap);
+            COSDictionary inversion = new COSDictionary();
+            inversion.setInt(COSName.FUNCTION_TYPE, 2);
+            inversion.setItem(COSName.DOMAIN, COSArray.of(0, 1));
+            inversion.setItem(COSName.C0, COSArray.of(1));
+            inversion.setItem(COSName.C1, COSArray.of(0));
+            inversion.setInt(COSName.N, 1);
+            PDExtendedGraphicsState gs = new PDExtendedGraphicsState();
+            gs.setTransfer(inversion);
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page))
+            {
+                cs.setGraphicsStateParameters(gs);
+                cs.drawImage(image, 100, 100, 200, 200);
+            }
+            doc.addPage(page);
+
+            PDFRenderer renderer = new PDFRenderer(doc);
+            Picture picture = new Picture();
+            Canvas canvas = picture.beginRecording(612, 792);
+            renderer.renderPageToGraphics(0, new Paint(), canvas);
+            picture.endRecording();
+            Assert.assertEquals(0, renderer.getBitmapPool().getSize());
+
+            renderer.renderImage(0);
+            Assert.assertTrue(renderer.getBitmapPool().getSize() > 0);
+        }
+    }
+
+    private static int getMaxDifference(Bitmap expected, Bitmap actual)
+    {
+        Assert.assertEquals(expected.getWidth(), actual.getWidth());
+        Assert.assertEquals(expected.getHeight(), actual.getHeight());
+        int maxDifference = 0;
+        for (int y = 0; y < expected.getHeight(); y++)
+        {
+            for (int x = 0; x < expected.getWidth(); x++)
+            {
+                int color1 = expected.getPixel(x, y);
+                int color2 = actual.getPixel(x, y);
+                maxDifference = Math.max(maxDifference,
+                    Math.max(Math.abs(Color.red(color1) - Color.red(color2)),
+                        Math.max(Math.abs(Color.green(color1) - Color.green(color2)),
+                            Math.abs(Color.blue(color1) - Color.blue(color2)))));
+            }
+        }
+        return maxDifference;
+    }
+
+    /**
+     * A display list replayed at several scales up to its raster scale looks like the page
+     * rendered at these scales.
+     */
+    @Test
+    public void testRecordPage() throws IOException
+    {
+        try (PDDocument doc = createDocument())
+        {
+            PDFRenderer renderer = new PDFRenderer(doc);
+            for (int pageIndex = 0; pageIndex < doc.getNumberOfPages(); pageIndex++)
+            {
+                PageDisplayList displayList = renderer.recordPage(pageIndex, RenderDestination.VIEW, 3);
+                Assert.assertEquals(3, displayList.getRasterScale(), 0);
+                for (float scale : new float[] { 1, 3 })
+                {
+                    Bitmap expected = renderer.renderImage(pageIndex, scale);
+                    Bitmap actual = displayList.renderImage(scale, ImageType.RGB);
+                    // the blend mode of the second page is applied to the white background by the
+                    // display list, renderImage() blends on a transparent background first
+                    int difference = getMaxDifference(expected, actual);
+                    Assert.assertTrue("page " + pageIndex + " at scale " + scale + " differs by " + difference,
+                        difference <= 10);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.rendering;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.RectF;
+
+import java.io.IOException;
+
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.PDPageContentStream;
+import com.tom_roush.pdfbox.pdmodel.common.PDRectangle;
+import com.tom_roush.pdfbox.pdmodel.font.PDType1Font;
+import com.tom_roush.pdfbox.pdmodel.font.Standard14Fonts;
+import com.tom_roush.pdfbox.util.Matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.GraphicsMode;
+
+/**
+ * Test for {@link PageDrawer}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class PageDrawerTest
+{
+    // large enough for the single glyphs to be anti-aliased the same way as the text runs
+    private static final int SCALE = 6;
+
+    /**
+     * Creates a page with spaced text, a glyph drawn twice at the same position, a glyph
+     * overlapping its mirror image and two glyphs sharing a pixel. Each glyph is drawn on its own if the color is set before
+     * every glyph, otherwise the filled glyphs are collected into text runs.
+     */
+    private static PDDocument createDocument(boolean setColorPerGlyph) throws IOException
+    {
+        PDDocument doc = new PDDocument();
+        PDPage page = new PDPage(new PDRectangle(300, 200));
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (PDPageContentStream cs = new PDPageContentStream(doc, page))
+        {
+            cs.setNonStrokingColor(0f);
+            cs.beginText();
+            cs.setFont(font, 30);
+            cs.setCharacterSpacing(10);
+            cs.newLineAtOffset(20, 140);
+            showGlyphs(cs, "Hello", setColorPerGlyph);
+            cs.setCharacterSpacing(0);
+
+            cs.setTextMatrix(Matrix.getTranslateInstance(20, 80));
+            showGlyphs(cs, "A", setColorPerGlyph);
+            cs.setTextMatrix(Matrix.getTranslateInstance(20, 80));
+            showGlyphs(cs, "A", setColorPerGlyph);
+
+            cs.setTextMatrix(Matrix.getTranslateInstance(120, 80));
+            showGlyphs(cs, "R", setColorPerGlyph);
+            cs.setTextMatrix(new Matrix(-1, 0, 0, 1, 145, 80));
+            showGlyphs(cs, "R", setColorPerGlyph);
+
+            cs.setTextMatrix(Matrix.getTranslateInstance(200, 30));
+            showGlyphs(cs, "OO", setColorPerGlyph);
+
+            // glyphs whose bounds don't intersect, but which share an anti-aliased pixel: the first
+            // one ends at 0.3 and the second one starts at 0.7 of the same pixel
+            RectF bounds = new RectF();
+            font.getPath("l").computeBounds(bounds, true);
+            float fontScale = font.getFontMatrix().getScaleX() * 30;
+            float left = bounds.left * fontScale;
+            float right = bounds.right * fontScale;
+            float x = (float) (Math.floor((260 + right) * SCALE) + 0.3) / SCALE - right;
+            cs.setTextMatrix(Matrix.getTranslateInstance(x, 140));
+            showGlyphs(cs, "l", setColorPerGlyph);
+            cs.setTextMatrix(Matrix.getTranslateInstance(x + right - left + 0.4f / SCALE, 140));
+            showGlyphs(cs, "l", setColorPerGlyph);
+            cs.endText();
+        }
+        doc.addPage(page);
+        return doc;
+    }
+
+    private static void showGlyphs(PDPageContentStream cs, String text, boolean setColorPerGlyph)
+        throws IOException
+    {
+        for (int i = 0; i < text.length(); i++)
+        {
+            if (setColorPerGlyph)
+            {
+                cs.setNonStrokingColor(0f);
+            }
+            cs.showText(text.substring(i, i + 1));
+        }
+    }
+
+    private static Bitmap render(boolean setColorPerGlyph) throws IOException
+    {
+        try (PDDocument doc = createDocument(setColorPerGlyph))
+        {
+            return new PDFRenderer(doc).renderImage(0, SCALE);
+        }
+    }
+
+    private static int getMaxDifference(int color1, int color2)
+    {
+        return Math.max(Math.abs(Color.red(color1) - Color.red(color2)),
+            Math.max(Math.abs(Color.green(color1) - Color.green(color2)),
+                Math.abs(Color.blue(color1) - Color.blue(color2))));
+    }
+
+    /**
+     * Glyphs drawn as a text run look the same as glyphs drawn one by one, even if they overlap.
+     * The anti-aliasing of a path of several glyphs differs by a few levels from the one of the
+     * glyphs on their own, but much less than the edges of a glyph drawn twice, which are darker,
+     * overlapping mirrored glyphs, which cancel each other out when drawn as one path, or a pixel
+     * covered by two glyphs of the same path.
+     */
+    @Test
+    public void testTextRun() throws IOException
+    {
+        Bitmap expected = render(true);
+        Bitmap actual = render(false);
+        Assert.assertEquals(expected.getWidth(), actual.getWidth());
+        Assert.assertEquals(expected.getHeight(), actual.getHeight());
+
+        int blackPixels = 0;
+        for (int y = 0; y < expected.getHeight(); y++)
+        {
+            for (int x = 0; x < expected.getWidth(); x++)
+            {
+                int difference = getMaxDifference(expected.getPixel(x, y), actual.getPixel(x, y));
+                Assert.assertTrue("pixel " + x + "," + y + " differs by " + difference,
+                    difference <= 10);
+                if (expected.getPixel(x, y) == Color.BLACK)
+                {
+                    blackPixels++;
+                }
+            }
+        }
+        Assert.assertTrue("no text was drawn", blackPixels > 1000);
+    }
+}
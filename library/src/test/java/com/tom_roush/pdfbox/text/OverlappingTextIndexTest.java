@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.text;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link OverlappingTextIndex}.
+ */
+public class OverlappingTextIndexTest
+{
+    @Test
+    public void testContains()
+    {
+        OverlappingTextIndex index = new OverlappingTextIndex();
+        index.add("a", 100, 200);
+        Assert.assertTrue(index.contains("a", 101, 199, 2));
+        Assert.assertTrue(index.contains("a", 99, 201, 2));
+        // the upper bound is exclusive
+        Assert.assertFalse(index.contains("a", 98, 198, 2));
+        Assert.assertFalse(index.contains("b", 100, 200, 2));
+        Assert.assertFalse(index.contains("a", 100, 200, 0));
+        // huge tolerances scan all positions
+        Assert.assertTrue(index.contains("a", 0, 0, 1000));
+        Assert.assertTrue(index.contains("a", 0, 0, Float.POSITIVE_INFINITY));
+
+        index.clear();
+        Assert.assertFalse(index.contains("a", 100, 200, 2));
+    }
+
+    /**
+     * Compares the index with the sorted maps previously used by PDFTextStripper.
+     */
+    @Test
+    public void testSameAsSortedMaps()
+    {
+        Random random = new Random(4711);
+        OverlappingTextIndex index = new OverlappingTextIndex();
+        Map<String, TreeMap<Float, TreeSet<Float>>> mapping = new HashMap<>();
+        for (int i = 0; i < 20000; i++)
+        {
+            String text = String.valueOf((char) ('a' + random.nextInt(3)));
+            float x = random.nextInt(2000) / 10f;
+            float y = random.nextInt(2000) / 10f;
+            float tolerance = random.nextInt(40) / 10f;
+
+            TreeMap<Float, TreeSet<Float>> sameText = mapping.computeIfAbsent(text, k -> new TreeMap<>());
+            boolean expected = false;
+            for (TreeSet<Float> ySet : sameText.subMap(x - tolerance, x + tolerance).values())
+            {
+                if (!ySet.subSet(y - tolerance, y + tolerance).isEmpty())
+                {
+                    expected = true;
+                    break;
+                }
+            }
+            Assert.assertEquals(expected, index.contains(text, x, y, tolerance));
+            if (!expected)
+            {
+                sameText.computeIfAbsent(x, k -> new TreeSet<>()).add(y);
+                index.add(text, x, y);
+            }
+        }
+    }
+}
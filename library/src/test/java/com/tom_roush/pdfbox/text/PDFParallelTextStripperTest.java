@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.text;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.PDPageContentStream;
+import com.tom_roush.pdfbox.pdmodel.font.PDType1Font;
+import com.tom_roush.pdfbox.pdmodel.font.Standard14Fonts;
+import com.tom_roush.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
+import com.tom_roush.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link PDFParallelTextStripper}.
+ */
+public class PDFParallelTextStripperTest
+{
+    /**
+     * Creates a document of 20 pages with a bookmark for every page.
+     */
+    private static PDDocument createDocument() throws IOException
+    {
+        PDDocument doc = new PDDocument();
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        PDDocumentOutline outline = new PDDocumentOutline();
+        for (int i = 1; i <= 20; i++)
+        {
+            PDPage page = new PDPage();
+            try (PDPageContentStream cs = new PDPageContentStream(doc, page))
+            {
+                cs.beginText();
+                cs.setFont(font, 12);
+                cs.newLineAtOffset(50, 700);
+                cs.showText("Page " + i);
+                cs.newLineAtOffset(0, -20);
+                cs.showText("Second line of page " + i);
+                cs.endText();
+            }
+            doc.addPage(page);
+
+            PDOutlineItem item = new PDOutlineItem();
+            item.setTitle("Page " + i);
+            item.setDestination(page);
+            outline.addLast(item);
+        }
+        doc.getDocumentCatalog().setDocumentOutline(outline);
+        return doc;
+    }
+
+    private static PDOutlineItem getBookmark(PDDocument doc, int pageNo)
+    {
+        Iterator<PDOutlineItem> iterator = doc.getDocumentCatalog().getDocumentOutline().children().iterator();
+        PDOutlineItem item = iterator.next();
+        for (int i = 1; i < pageNo; i++)
+        {
+            item = iterator.next();
+        }
+        return item;
+    }
+
+    @Test
+    public void testPageOrder() throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (PDDocument doc = createDocument())
+        {
+            PDFTextStripper stripper = new PDFTextStripper();
+            PDFParallelTextStripper parallelStripper =
+                    new PDFParallelTextStripper(PDFTextStripper::new, executor);
+            parallelStripper.setMaxPendingPages(3);
+            Assert.assertEquals(stripper.getText(doc), parallelStripper.getText(doc));
+
+            stripper.setStartPage(5);
+            stripper.setEndPage(12);
+            PDFParallelTextStripper rangeStripper = new PDFParallelTextStripper(() ->
+            {
+                PDFTextStripper pageStripper = new PDFTextStripper();
+                pageStripper.setStartPage(5);
+                pageStripper.setEndPage(12);
+                return pageStripper;
+            }, executor);
+            String text = rangeStripper.getText(doc);
+            Assert.assertEquals(stripper.getText(doc), text);
+            Assert.assertTrue(text.startsWith("Page 5"));
+            Assert.assertFalse(text.contains("Page 13"));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBookmarks() throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (PDDocument doc = createDocument())
+        {
+            PDOutlineItem startBookmark = getBookmark(doc, 4);
+            PDOutlineItem endBookmark = getBookmark(doc, 9);
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartBookmark(startBookmark);
+            stripper.setEndBookmark(endBookmark);
+            PDFParallelTextStripper parallelStripper = new PDFParallelTextStripper(() ->
+            {
+                PDFTextStripper pageStripper = new PDFTextStripper();
+                pageStripper.setStartBookmark(startBookmark);
+                pageStripper.setEndBookmark(endBookmark);
+                return pageStripper;
+            }, executor);
+            parallelStripper.setMaxPendingPages(2);
+            String text = parallelStripper.getText(doc);
+            Assert.assertEquals(stripper.getText(doc), text);
+            Assert.assertTrue(text.startsWith("Page 4"));
+            Assert.assertTrue(text.contains("Page 9"));
+            Assert.assertFalse(text.contains("Page 10"));
+
+            // a bookmark which isn't in the document doesn't match any page
+            PDOutlineItem orphan = new PDOutlineItem();
+            stripper.setStartBookmark(orphan);
+            stripper.setEndBookmark(orphan);
+            PDFParallelTextStripper orphanStripper = new PDFParallelTextStripper(() ->
+            {
+                PDFTextStripper pageStripper = new PDFTextStripper();
+                pageStripper.setStartBookmark(orphan);
+                pageStripper.setEndBookmark(orphan);
+                return pageStripper;
+            }, executor);
+            text = orphanStripper.getText(doc);
+            Assert.assertEquals(stripper.getText(doc), text);
+            Assert.assertFalse(text.contains("Page"));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The error of a page is rethrown on the calling thread, the following pages aren't written.
+     */
+    @Test
+    public void testFailure() throws IOException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (PDDocument doc = createDocument())
+        {
+            final IOException error = new IOException("page 7 failed");
+            PDFParallelTextStripper parallelStripper = new PDFParallelTextStripper(() ->
+                new PDFTextStripper()
+                {
+                    @Override
+                    protected void startPage(PDPage page) throws IOException
+                    {
+                        if (getCurrentPageNo() == 7)
+                        {
+                            throw error;
+                        }
+                        super.startPage(page);
+                    }
+                }, executor);
+            StringWriter writer = new StringWriter();
+            try
+            {
+                parallelStripper.writeText(doc, writer);
+                Assert.fail("the error of page 7 wasn't thrown");
+            }
+            catch (IOException e)
+            {
+                Assert.assertSame(error, e);
+            }
+            // the text of the failed page and the following pages is missing
+            Assert.assertFalse(writer.toString().contains("Page 7"));
+            Assert.assertFalse(writer.toString().contains("Page 8"));
+
+            // the document can still be used
+            Assert.assertEquals(new PDFTextStripper().getText(doc),
+                new PDFParallelTextStripper(PDFTextStripper::new, executor).getText(doc));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.text;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.tom_roush.pdfbox.pdmodel.PDDocument;
+import com.tom_roush.pdfbox.pdmodel.PDPage;
+import com.tom_roush.pdfbox.pdmodel.PDPageContentStream;
+import com.tom_roush.pdfbox.pdmodel.font.PDType1Font;
+import com.tom_roush.pdfbox.pdmodel.font.Standard14Fonts;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link PDFTextStreamStripper}.
+ */
+public class PDFTextStreamStripperTest
+{
+    @Test
+    public void testEvents() throws IOException
+    {
+        try (PDDocument doc = new PDDocument())
+        {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int i = 1; i <= 3; i++)
+            {
+                PDPage page = new PDPage();
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page))
+                {
+                    cs.beginText();
+                    cs.setFont(font, 12);
+                    cs.newLineAtOffset(50, 700);
+                    cs.showText("Page " + i);
+                    cs.newLineAtOffset(0, -14);
+                    cs.showText("Second line");
+                    cs.endText();
+                }
+                doc.addPage(page);
+            }
+
+            final List<String> events = new ArrayList<>();
+            final List<Integer> positionCounts = new ArrayList<>();
+            PDFTextStreamStripper stripper = new PDFTextStreamStripper();
+            stripper.setIncludePositions(true);
+            stripper.streamText(doc, new TextStreamHandler()
+            {
+                @Override
+                public void startPage(int pageNo)
+                {
+                    events.add("startPage " + pageNo);
+                }
+
+                @Override
+                public void startParagraph()
+                {
+                    events.add("startParagraph");
+                }
+
+                @Override
+                public void line(String text, List<TextPosition> textPositions)
+                {
+                    events.add(text);
+                    positionCounts.add(textPositions.size());
+                }
+
+                @Override
+                public void endParagraph()
+                {
+                    events.add("endParagraph");
+                }
+
+                @Override
+                public boolean endPage(int pageNo)
+                {
+                    events.add("endPage " + pageNo);
+                    // stop after the second page
+                    return pageNo < 2;
+                }
+            });
+
+            Assert.assertEquals(Arrays.asList(
+                    "startPage 1", "startParagraph", "Page 1", "Second line", "endParagraph",
+                    "endPage 1",
+                    "startPage 2", "startParagraph", "Page 2", "Second line", "endParagraph",
+                    "endPage 2"), events);
+            // the space is a glyph of its own
+            Assert.assertEquals(Arrays.asList(6, 11, 6, 11), positionCounts);
+
+            // the lines are the same as the ones of PDFTextStripper
+            final StringBuilder text = new StringBuilder();
+            stripper.setIncludePositions(false);
+            stripper.streamText(doc, (line, textPositions) ->
+            {
+                Assert.assertNull(textPositions);
+                text.append(line).append(stripper.getLineSeparator());
+            });
+            Assert.assertEquals(new PDFTextStripper().getText(doc), text.toString());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tom_roush.pdfbox.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.tom_roush.pdfbox.util.IterativeMergeSort;
+import com.tom_roush.pdfbox.util.Matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link TextPositionSorter}.
+ */
+public class TextPositionSorterTest
+{
+    private static final float PAGE_WIDTH = 600;
+    private static final float PAGE_HEIGHT = 800;
+
+    /**
+     * Creates a text position of the given direction, x and y are the text direction adjusted
+     * coordinates of its lower left corner, with y growing downwards.
+     */
+    private static TextPosition createPosition(int dir, float x, float y, float height, String text)
+    {
+        Matrix matrix;
+        switch (dir)
+        {
+            case 90:
+                matrix = new Matrix(0, height, -height, 0, y, x);
+                break;
+            case 180:
+                matrix = new Matrix(-height, 0, 0, -height, PAGE_WIDTH - x, y);
+                break;
+            case 270:
+                matrix = new Matrix(0, -height, height, 0, PAGE_WIDTH - y, PAGE_HEIGHT - x);
+                break;
+            default:
+                matrix = new Matrix(height, 0, 0, height, x, PAGE_HEIGHT - y);
+                break;
+        }
+        return new TextPosition(0, PAGE_WIDTH, PAGE_HEIGHT, matrix, x + 5, y, height, 5, 3, text,
+            new int[] { 'x' }, null, 1, (int) height);
+    }
+
+    /**
+     * Creates random positions of the given directions on 8 lines, with 10 possible values of x,
+     * so that there are many ties. Some positions are moved between two lines if a position is
+     * displaced.
+     */
+    private static List<TextPosition> createPositions(Random random, int[] dirs, boolean displace)
+    {
+        int size = random.nextInt(100);
+        List<TextPosition> positions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+        {
+            int dir = dirs[random.nextInt(dirs.length)];
+            float x = 50 + 10 * random.nextInt(10);
+            float y = 100 + 20 * random.nextInt(8);
+            if (displace && random.nextInt(10) == 0)
+            {
+                y += 10;
+            }
+            positions.add(createPosition(dir, x, y, 10, "p" + i));
+        }
+        return positions;
+    }
+
+    private static void assertOrder(List<TextPosition> expected, List<TextPosition> positions)
+    {
+        List<TextPosition> actual = new ArrayList<>(positions);
+        TextPositionSorter.sort(actual);
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            Assert.assertSame("position " + i + " of " + positions, expected.get(i), actual.get(i));
+        }
+    }
+
+    /**
+     * Positions on separate lines are sorted like by the comparator.
+     */
+    @Test
+    public void testRandomLines()
+    {
+        Random random = new Random(4711);
+        int[][] dirs = { { 0 }, { 0, 90, 180, 270 } };
+        for (int iteration = 0; iteration < 1000; iteration++)
+        {
+            List<TextPosition> positions = createPositions(random, dirs[iteration % 2], false);
+            List<TextPosition> expected = new ArrayList<>(positions);
+            IterativeMergeSort.sort(expected, new TextPositionComparator());
+            assertOrder(expected, positions);
+        }
+    }
+
+    /**
+     * Positions between two lines make the comparator inconsistent, they are sorted like by
+     * PDFTextStripper before the sorter was used.
+     */
+    @Test
+    public void testRandomFallback()
+    {
+        Random random = new Random(4712);
+        int[][] dirs = { { 0 }, { 0, 90, 180, 270 } };
+        for (int iteration = 0; iteration < 1000; iteration++)
+        {
+            List<TextPosition> positions = createPositions(random, dirs[iteration % 2], true);
+            List<TextPosition> expected = new ArrayList<>(positions);
+            TextPositionComparator comparator = new TextPositionComparator();
+            try
+            {
+                expected.sort(comparator);
+            }
+            catch (IllegalArgumentException e)
+            {
+                IterativeMergeSort.sort(expected, comparator);
+            }
+            assertOrder(expected, positions);
+        }
+    }
+
+    /**
+     * A table cell vertically centered between two lines of its neighbour is on the same line as
+     * both of them, which is only handled by sorting with the comparator.
+     */
+    @Test
+    public void testCenteredCell()
+    {
+        TextPosition name1 = createPosition(0, 50, 100, 10, "Name");
+        TextPosition name2 = createPosition(0, 50, 114, 10, "Second name");
+        TextPosition value = createPosition(0, 300, 107, 10, "Value");
+        TextPosition next = createPosition(0, 50, 140, 10, "Next");
+        TextPosition nextValue = createPosition(0, 300, 140, 10, "Next value");
+        List<TextPosition> positions = Arrays.asList(nextValue, value, name2, next, name1);
+
+        List<TextPosition> expected = new ArrayList<>(positions);
+        IterativeMergeSort.sort(expected, new TextPositionComparator());
+        Assert.assertEquals(Arrays.asList(name1, name2, value, next, nextValue), expected);
+        assertOrder(expected, positions);
+    }
+}